@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmark jar.
+ *
+ * <p>Accepts the same command-line options as {@code org.openjdk.jmh.Main}, but always attaches the GC profiler, so
+ * that every run reports allocation rates ({@code gc.alloc.rate.norm} is bytes allocated per benchmark operation).
+ */
+public final class Benchmarks {
+    private Benchmarks() {
+        throw new AssertionError("this class is not intended to be instantiated");
+    }
+
+    public static void main(String... args) throws CommandLineOptionException, RunnerException {
+        var options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.github.gdejohn.procrastination.benchmarks;
+
+import io.github.gdejohn.procrastination.Sequence;
+import io.github.gdejohn.procrastination.Sequences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Building sequences from strict data, then traversing them once so that lazily constructed cells are paid for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+    @Param({"1000", "100000"})
+    int size;
+
+    Integer[] boxed;
+
+    int[] ints;
+
+    List<Integer> list;
+
+    @Setup
+    public void setup() {
+        this.ints = IntStream.range(0, this.size).toArray();
+        this.boxed = IntStream.range(0, this.size).boxed().toArray(Integer[]::new);
+        this.list = new ArrayList<>(Arrays.asList(this.boxed));
+    }
+
+    @Benchmark
+    public void sequenceOf(Blackhole blackhole) {
+        Sequence.of(this.boxed).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void sequenceFromInts(Blackhole blackhole) {
+        Sequence.from(this.ints).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void sequenceFromIterable(Blackhole blackhole) {
+        Sequence.from(this.list).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void sequenceCollector(Blackhole blackhole) {
+        this.list.stream().collect(Sequences.toSequence()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void sequenceEager(Blackhole blackhole) {
+        Sequence.from(this.ints).eager().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamCollector(Blackhole blackhole) {
+        this.list.stream().collect(Collectors.toList()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamOf(Blackhole blackhole) {
+        Arrays.stream(this.boxed).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void loop(Blackhole blackhole) {
+        var list = new ArrayList<Integer>(this.size);
+        for (int element : this.ints) {
+            list.add(element);
+        }
+        for (Integer element : list) {
+            blackhole.consume(element);
+        }
+    }
+}
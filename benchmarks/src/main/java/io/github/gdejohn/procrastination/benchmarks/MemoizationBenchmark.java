@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.github.gdejohn.procrastination.benchmarks;
+
+import io.github.gdejohn.procrastination.Functions;
+import io.github.gdejohn.procrastination.Sequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Memoized sequences and suppliers: the cost of filling the cache, and of reading it back once it is full.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoizationBenchmark {
+    @Param({"1000", "100000"})
+    int size;
+
+    Sequence<Integer> sequence;
+
+    Sequence<Integer> memoized;
+
+    Supplier<Integer> supplier;
+
+    @Setup
+    public void setup() {
+        this.sequence = Sequence.from(IntStream.range(0, this.size).boxed().toArray(Integer[]::new)).map(n -> n + 1);
+        this.memoized = this.sequence.memoize();
+        this.memoized.forEach(n -> {});
+        this.supplier = Functions.memoize(() -> this.size);
+        this.supplier.get();
+    }
+
+    @Benchmark
+    public void memoizeAndTraverse(Blackhole blackhole) {
+        this.sequence.memoize().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void traverseMemoized(Blackhole blackhole) {
+        this.memoized.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void traverseMemoizedShared(Blackhole blackhole) {
+        this.memoized.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void traverseUnmemoized(Blackhole blackhole) {
+        this.sequence.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public Integer memoizedSupplierFirstCall() {
+        return Functions.memoize(() -> this.size).get();
+    }
+
+    @Benchmark
+    public Integer memoizedSupplier() {
+        return this.supplier.get();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer memoizedSupplierShared() {
+        return this.supplier.get();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.github.gdejohn.procrastination.benchmarks;
+
+import io.github.gdejohn.procrastination.Sequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Lazy intermediate operations chained into a pipeline and then consumed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+    @Param({"1000", "100000"})
+    int size;
+
+    Integer[] array;
+
+    Sequence<Integer> sequence;
+
+    @Setup
+    public void setup() {
+        this.array = IntStream.range(0, this.size).boxed().toArray(Integer[]::new);
+        this.sequence = Sequence.from(this.array);
+    }
+
+    @Benchmark
+    public void mapFilterTake(Blackhole blackhole) {
+        this.sequence.map(n -> n * 3).filter(n -> n % 2 == 0).take(this.size / 4).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long mapFilterFold() {
+        return this.sequence.map(n -> n * 3).filter(n -> n % 2 == 0).foldLeft(0L, (sum, n) -> sum + n);
+    }
+
+    @Benchmark
+    public long threeStages() {
+        return this.sequence.map(n -> n * 3).filter(n -> n % 2 == 0).map(n -> n + 1).foldLeft(
+            0L,
+            (sum, n) -> sum + n
+        );
+    }
+
+    @Benchmark
+    public long fiveStages() {
+        return this.sequence.map(n -> n * 3).filter(n -> n % 2 == 0).map(n -> n + 1).takeWhile(
+            n -> n < Integer.MAX_VALUE
+        ).map(n -> n - 1).foldLeft(0L, (sum, n) -> sum + n);
+    }
+
+    @Benchmark
+    public void streamMapFilterLimit(Blackhole blackhole) {
+        Arrays.stream(this.array).map(n -> n * 3).filter(n -> n % 2 == 0).limit(this.size / 4).forEach(
+            blackhole::consume
+        );
+    }
+
+    @Benchmark
+    public long streamMapFilterReduce() {
+        return Arrays.stream(this.array).map(n -> n * 3).filter(n -> n % 2 == 0).reduce(
+            0L,
+            (sum, n) -> sum + n,
+            Long::sum
+        );
+    }
+
+    @Benchmark
+    public void loop(Blackhole blackhole) {
+        int taken = 0;
+        for (Integer element : this.array) {
+            int n = element * 3;
+            if (n % 2 == 0) {
+                if (taken++ == this.size / 4) {
+                    break;
+                }
+                blackhole.consume(n);
+            }
+        }
+    }
+}
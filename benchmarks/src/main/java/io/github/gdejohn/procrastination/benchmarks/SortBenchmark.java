@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.github.gdejohn.procrastination.benchmarks;
+
+import io.github.gdejohn.procrastination.Sequence;
+import io.github.gdejohn.procrastination.Sequences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting a shuffled sequence sequentially, and in parallel on pools of increasing parallelism.
+ *
+ * <p>{@code Arrays.parallelSort} only splits its input if the common pool has a parallelism greater than one, so run
+ * this on a machine with several cores to see the parallel sorts scale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+    @Param({"1000000"})
+    int size;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    Sequence<Integer> sequence;
+
+    ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        var random = new Random(0);
+        var array = new Integer[this.size];
+        for (var index = 0; index < array.length; index++) {
+            array[index] = random.nextInt();
+        }
+        this.sequence = Sequence.from(array);
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    @Benchmark
+    public long sort() {
+        return this.sequence.sort(Comparator.naturalOrder()).foldLeft(0L, (sum, n) -> sum + n);
+    }
+
+    @Benchmark
+    public long sortTake() {
+        return this.sequence.sort(Comparator.naturalOrder()).take(100).foldLeft(0L, (sum, n) -> sum + n);
+    }
+
+    @Benchmark
+    public long parallelSort() {
+        return this.sequence.parallelSort(Comparator.naturalOrder(), this.pool).foldLeft(0L, (sum, n) -> sum + n);
+    }
+
+    @Benchmark
+    public long parallelSortInts() {
+        return Sequences.parallelSortInts(this.sequence, this.pool).foldLeft(0L, (sum, n) -> sum + n);
+    }
+}
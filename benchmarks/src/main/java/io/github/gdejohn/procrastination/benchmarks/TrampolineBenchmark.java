@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.github.gdejohn.procrastination.benchmarks;
+
+import io.github.gdejohn.procrastination.Trampoline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.gdejohn.procrastination.Trampoline.call;
+import static io.github.gdejohn.procrastination.Trampoline.terminate;
+
+/**
+ * Trampolined tail recursion at increasing depths, against the equivalent loop.
+ *
+ * <p>The {@code supplier}, {@code unary} and {@code curried} variants allocate a suspended call per bounce, while
+ * {@code unaryLoop} and {@code binaryLoop} reuse a single {@link Trampoline.Loop} or {@link Trampoline.BiLoop} frame,
+ * so their {@code gc.alloc.rate.norm} only reflects boxing of the loop variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrampolineBenchmark {
+    @Param({"1000", "1000000"})
+    int depth;
+
+    @Benchmark
+    public long supplier() {
+        return sum(this.depth, 0L).evaluate();
+    }
+
+    private static Trampoline<Long> sum(int n, long result) {
+        return n == 0 ? terminate(result) : call(() -> sum(n - 1, result + n));
+    }
+
+    @Benchmark
+    public long unary() {
+        long[] result = {0L};
+        return Trampoline.evaluate(
+            this.depth,
+            f -> n -> {
+                if (n == 0) {
+                    return terminate(result[0]);
+                } else {
+                    result[0] += n;
+                    return call(f, n - 1);
+                }
+            }
+        );
+    }
+
+    @Benchmark
+    public long curried() {
+        return Trampoline.evaluate(
+            this.depth,
+            0L,
+            f -> n -> result -> n == 0 ? terminate(result) : call(f, n - 1, result + n)
+        );
+    }
+
+    @Benchmark
+    public long unaryLoop() {
+        long[] result = {0L};
+        return Trampoline.loop(
+            this.depth,
+            (Integer n, Trampoline.Loop<Integer, Long> loop) -> {
+                if (n == 0) {
+                    return loop.done(result[0]);
+                } else {
+                    result[0] += n;
+                    return loop.recur(n - 1);
+                }
+            }
+        );
+    }
+
+    @Benchmark
+    public long binaryLoop() {
+        return Trampoline.loop(
+            this.depth,
+            0L,
+            (n, result, loop) -> n == 0 ? loop.done(result) : loop.recur(n - 1, result + n)
+        );
+    }
+
+    @Benchmark
+    public long loop() {
+        long result = 0;
+        for (int n = this.depth; n > 0; n--) {
+            result += n;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.github.gdejohn.procrastination.benchmarks;
+
+import io.github.gdejohn.procrastination.Sequence;
+import io.github.gdejohn.procrastination.Sequences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Terminal operations over sequences that already exist, with streams and loops over the same data as baselines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraversalBenchmark {
+    @Param({"1000", "100000"})
+    int size;
+
+    Integer[] array;
+
+    Sequence<Integer> sequence;
+
+    Sequence<Integer> range;
+
+    /** The same elements as a chain of memoized cons cells rather than an array. */
+    Sequence<Integer> linked;
+
+    @Setup
+    public void setup() {
+        this.array = IntStream.range(0, this.size).boxed().toArray(Integer[]::new);
+        this.sequence = Sequence.from(this.array);
+        this.range = Sequences.range(0, this.size - 1);
+        this.linked = Sequence.memoize(Arrays.stream(this.array));
+        this.linked.length();
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        this.sequence.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void forEachRange(Blackhole blackhole) {
+        this.range.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long foldLeft() {
+        return this.sequence.foldLeft(0L, (sum, element) -> sum + element);
+    }
+
+    @Benchmark
+    public long length() {
+        return this.sequence.length();
+    }
+
+    @Benchmark
+    public void iterator(Blackhole blackhole) {
+        for (Integer element : this.sequence) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public void forEachLinked(Blackhole blackhole) {
+        this.linked.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long foldLeftLinked() {
+        return this.linked.foldLeft(0L, (sum, element) -> sum + element);
+    }
+
+    @Benchmark
+    public void iteratorLinked(Blackhole blackhole) {
+        for (Integer element : this.linked) {
+            blackhole.consume(element);
+        }
+    }
+
+    @Benchmark
+    public void streamForEach(Blackhole blackhole) {
+        Arrays.stream(this.array).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long streamReduce() {
+        return Arrays.stream(this.array).reduce(0L, (sum, element) -> sum + element, Long::sum);
+    }
+
+    @Benchmark
+    public long streamCount() {
+        return Arrays.stream(this.array).count();
+    }
+
+    @Benchmark
+    public long loop() {
+        long sum = 0;
+        for (Integer element : this.array) {
+            sum += element;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,918 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Spliterator.IMMUTABLE;
+import static java.util.Spliterator.ORDERED;
+
+/**
+ * A lazily evaluated, persistent, ordered collection of zero or more {@code double} values, possibly infinite,
+ * allowing duplicates.
+ *
+ * <p>This is the {@code double} counterpart of {@link IntSequence}, with the same operations except for ranges, which
+ * don't make sense for floating-point values; use {@link DoubleSequence#iterate(double, DoubleUnaryOperator)} instead.
+ * Sums are plain left-to-right floating-point sums, without compensation for rounding error. Box it with
+ * {@link DoubleSequence#boxed()}, or get one from a sequence with
+ * {@link Sequence#mapToDouble(java.util.function.ToDoubleFunction)}.
+ *
+ * @see IntSequence
+ * @see LongSequence
+ */
+public abstract class DoubleSequence {
+    /**
+     * A function of the head and tail of a non-empty {@code DoubleSequence}.
+     *
+     * @param <R> the type of the result
+     *
+     * @see DoubleSequence#match(Match, Supplier)
+     */
+    @FunctionalInterface
+    public interface Match<R> {
+        R apply(double head, DoubleSequence tail);
+    }
+
+    private static abstract class Proxy extends DoubleSequence {
+        protected Proxy() {}
+
+        protected abstract DoubleSequence principal();
+
+        @Override
+        public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+            return this.principal().match(function, otherwise);
+        }
+
+        @Override
+        public <R> R matchLazy(BiFunction<? super DoubleSupplier, ? super DoubleSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+            return this.principal().matchLazy(function, otherwise);
+        }
+    }
+
+    private static final DoubleSequence EMPTY = new DoubleSequence() {
+        @Override
+        public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+            return otherwise.get();
+        }
+
+        @Override
+        public <R> R matchLazy(BiFunction<? super DoubleSupplier, ? super DoubleSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+            return otherwise.get();
+        }
+
+        @Override
+        public DoubleSequence memoize() {
+            return this;
+        }
+    };
+
+    /**
+     * A non-empty run of elements looked up by index, followed by the rest of a sequence, so that sequences backed by
+     * arrays or ranges can be traversed with tight loops.
+     *
+     * <p>Reading an element is cheap and has no side effects, so indexed sequences count as memoized as long as the
+     * rest is memoized.
+     */
+    private static abstract class Indexed extends DoubleSequence {
+        final long from;
+
+        final long to;
+
+        final DoubleSequence rest;
+
+        Indexed(long from, long to, DoubleSequence rest) {
+            this.from = from;
+            this.to = to;
+            this.rest = rest.memoize();
+        }
+
+        /** The element at a given index, which must be in bounds. */
+        abstract double get(long index);
+
+        /** The elements in a given range of indices of the same source, followed by another sequence. */
+        abstract DoubleSequence slice(long from, long to, DoubleSequence rest);
+
+        long size() {
+            return this.to - this.from;
+        }
+
+        @Override
+        public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+            return function.apply(this.get(this.from), this.slice(this.from + 1, this.to, this.rest));
+        }
+
+        @Override
+        public <R> R matchLazy(BiFunction<? super DoubleSupplier, ? super DoubleSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+            return function.apply(
+                (DoubleSupplier) () -> this.get(this.from),
+                this.slice(this.from + 1, this.to, this.rest)
+            );
+        }
+
+        @Override
+        public DoubleSequence memoize() {
+            return this;
+        }
+    }
+
+    /** A slice of an array followed by the rest of a sequence. */
+    private static final class Chunk extends Indexed {
+        private final double[] elements;
+
+        Chunk(double[] elements, long from, long to, DoubleSequence rest) {
+            super(from, to, rest);
+            this.elements = elements;
+        }
+
+        @Override
+        double get(long index) {
+            return this.elements[(int) index];
+        }
+
+        @Override
+        DoubleSequence slice(long from, long to, DoubleSequence rest) {
+            return from < to ? new Chunk(this.elements, from, to, rest) : rest;
+        }
+    }
+
+    /**
+     * A sequence followed by a queue of further sequences.
+     *
+     * <p>Concatenating onto a concatenation appends to its queue instead of wrapping it, and a concatenation that turns
+     * out to begin with another concatenation splices the other queue in front of its own, so nesting depth never
+     * accumulates, however the concatenations were built.
+     */
+    private static final class Concatenation extends DoubleSequence.Proxy {
+        private final DoubleSequence first;
+
+        private final FingerTree<DoubleSequence, Unit> rest;
+
+        Concatenation(DoubleSequence first, FingerTree<DoubleSequence, Unit> rest) {
+            this.first = first;
+            this.rest = rest;
+        }
+
+        /** A sequence followed by another, flattening the first one if it is already a concatenation. */
+        static DoubleSequence of(DoubleSequence first, DoubleSequence second) {
+            if (first instanceof Concatenation) {
+                var concatenation = (Concatenation) first;
+                return new Concatenation(concatenation.first, concatenation.rest.append(second));
+            } else {
+                return new Concatenation(first, FingerTree.of(second));
+            }
+        }
+
+        @Override
+        protected DoubleSequence principal() {
+            var first = this.first;
+            var rest = this.rest;
+            while (true) {
+                if (first instanceof Concatenation) {
+                    var concatenation = (Concatenation) first;
+                    first = concatenation.first;
+                    rest = concatenation.rest.concatenate(rest);
+                    continue;
+                }
+                var resolved = DoubleSequence.resolve(first);
+                if (rest.isEmpty()) {
+                    return resolved;
+                } else if (resolved instanceof Indexed) {
+                    var indexed = (Indexed) resolved;
+                    return indexed.slice(indexed.from, indexed.to, new Concatenation(indexed.rest, rest));
+                }
+                var queue = rest;
+                var cell = resolved.match(
+                    (head, tail) -> DoubleSequence.cons(head, new Concatenation(tail, queue)),
+                    (DoubleSequence) null
+                );
+                if (cell != null) {
+                    return cell;
+                }
+                first = rest.head().orThrow();
+                rest = rest.tail().orThrow();
+            }
+        }
+    }
+
+    /**
+     * The only constructor of this class, declared private so that the static factory methods declared inside of this
+     * class can see it, but nothing else can.
+     */
+    private DoubleSequence() {}
+
+    /** Strip away any proxies around a sequence, evaluating them. */
+    private static DoubleSequence resolve(DoubleSequence sequence) {
+        while (sequence instanceof DoubleSequence.Proxy) {
+            sequence = ((DoubleSequence.Proxy) sequence).principal();
+        }
+        return sequence;
+    }
+
+    /** A sequence that delegates pattern matching to a lazily evaluated sequence. */
+    public static DoubleSequence lazy(Supplier<? extends DoubleSequence> sequence) {
+        requireNonNull(sequence);
+        return new DoubleSequence.Proxy() {
+            @Override
+            protected DoubleSequence principal() {
+                return DoubleSequence.resolve(sequence.get());
+            }
+        };
+    }
+
+    /**
+     * The empty sequence.
+     *
+     * @see DoubleSequence#cons(double, DoubleSequence)
+     * @see DoubleSequence#of(double...)
+     */
+    public static DoubleSequence empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Construct a non-empty sequence.
+     *
+     * @param head the first element of the sequence
+     * @param tail the rest of the elements of the sequence
+     *
+     * @see DoubleSequence#empty()
+     * @see DoubleSequence#cons(double, Supplier)
+     */
+    public static DoubleSequence cons(double head, DoubleSequence tail) {
+        requireNonNull(tail);
+        return new DoubleSequence() {
+            @Override
+            public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply(head, tail);
+            }
+
+            @Override
+            public <R> R matchLazy(BiFunction<? super DoubleSupplier, ? super DoubleSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply((DoubleSupplier) () -> head, tail);
+            }
+        };
+    }
+
+    /** Construct a non-empty sequence with a lazily evaluated tail. */
+    public static DoubleSequence cons(double head, Supplier<? extends DoubleSequence> tail) {
+        requireNonNull(tail);
+        return new DoubleSequence() {
+            @Override
+            public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply(head, tail.get());
+            }
+
+            @Override
+            public <R> R matchLazy(BiFunction<? super DoubleSupplier, ? super DoubleSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply((DoubleSupplier) () -> head, tail.get());
+            }
+        };
+    }
+
+    /**
+     * A sequence of zero or more elements.
+     *
+     * @see DoubleSequence#from(double[])
+     */
+    public static DoubleSequence of(double... elements) {
+        return DoubleSequence.from(elements);
+    }
+
+    /** A lazy view of an array as a sequence. */
+    public static DoubleSequence from(double[] array) {
+        return array.length == 0 ? EMPTY : new Chunk(array, 0, array.length, EMPTY);
+    }
+
+    /**
+     * A memoized sequence of the elements produced by a stream.
+     *
+     * <p>The sequence must be {@link DoubleSequence#memoize() memoized} because streams can only be traversed once.
+     */
+    public static DoubleSequence memoize(DoubleStream stream) {
+        return DoubleSequence.memoize(stream.iterator());
+    }
+
+    /**
+     * A memoized sequence of the elements produced by an iterator.
+     *
+     * <p>The sequence must be {@link DoubleSequence#memoize() memoized} because iterators can only be traversed once.
+     */
+    public static DoubleSequence memoize(PrimitiveIterator.OfDouble iterator) {
+        requireNonNull(iterator);
+        return DoubleSequence.lazy(
+            () -> iterator.hasNext() ? DoubleSequence.cons(iterator.nextDouble(), DoubleSequence.memoize(iterator)) : EMPTY
+        ).memoize();
+    }
+
+    /**
+     * An infinite sequence where each element after the first is defined in terms of the preceding element.
+     *
+     * @param initial the first element of the sequence
+     * @param next takes an element of the sequence and returns the next element
+     */
+    public static DoubleSequence iterate(double initial, DoubleUnaryOperator next) {
+        requireNonNull(next);
+        return DoubleSequence.cons(initial, () -> DoubleSequence.iterate(next.applyAsDouble(initial), next));
+    }
+
+    /**
+     * Return a value defined in terms of the head and tail of this sequence if it is non-empty, otherwise return a
+     * lazy default value.
+     *
+     * @param <R> the type of the result
+     *
+     * @see DoubleSequence#match(Match, Object)
+     * @see DoubleSequence#matchLazy(BiFunction, Supplier)
+     */
+    public abstract <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise);
+
+    /**
+     * Return a value defined in terms of the head and tail of this sequence if it is non-empty, otherwise return a
+     * default value.
+     *
+     * @param <R> the type of the result
+     *
+     * @see DoubleSequence#match(Match, Supplier)
+     */
+    public <R> R match(Match<? extends R> function, R otherwise) {
+        return this.match(function, () -> otherwise);
+    }
+
+    /**
+     * Return a value defined in terms of the lazy head and the tail of this sequence if it is non-empty, otherwise
+     * return a lazy default value.
+     *
+     * @param <R> the type of the result
+     *
+     * @see DoubleSequence#match(Match, Supplier)
+     */
+    public abstract <R> R matchLazy(BiFunction<? super DoubleSupplier, ? super DoubleSequence, ? extends R> function, Supplier<? extends R> otherwise);
+
+    /**
+     * A sequence that only computes each element at most once, the first time it is asked for, delegating to this
+     * sequence and caching the result.
+     */
+    public DoubleSequence memoize() {
+        return DoubleSequence.memoize(this);
+    }
+
+    private static DoubleSequence memoize(DoubleSequence sequence) {
+        class MemoizedSequence extends DoubleSequence.Proxy {
+            private final Supplier<DoubleSequence> principal;
+
+            MemoizedSequence(Supplier<DoubleSequence> principal) {
+                this.principal = principal;
+            }
+
+            @Override
+            protected DoubleSequence principal() {
+                return this.principal.get();
+            }
+
+            @Override
+            public DoubleSequence memoize() {
+                return this;
+            }
+        }
+
+        if (sequence instanceof MemoizedSequence) {
+            return sequence;
+        } else {
+            Supplier<DoubleSequence> principal = Functions.memoize(
+                () -> {
+                    var resolved = DoubleSequence.resolve(sequence);
+                    if (resolved instanceof Indexed || resolved == EMPTY) {
+                        return resolved.memoize();
+                    } else {
+                        return resolved.match(
+                            (head, tail) -> DoubleSequence.cons(head, tail.memoize()),
+                            EMPTY
+                        );
+                    }
+                }
+            );
+            return new MemoizedSequence(principal);
+        }
+    }
+
+    /** Force the evaluation of every element of this sequence, copying them into an array. */
+    public DoubleSequence eager() {
+        return DoubleSequence.from(this.array());
+    }
+
+    /** True if and only if this sequence has no elements. */
+    public boolean isEmpty() {
+        return this.matchLazy((head, tail) -> false, () -> true);
+    }
+
+    /** The first element of this sequence, if this sequence is non-empty. */
+    public OptionalDouble head() {
+        return this.match((head, tail) -> OptionalDouble.of(head), OptionalDouble::empty);
+    }
+
+    /** The elements of this sequence excluding the head, if this sequence is non-empty. */
+    public Maybe<DoubleSequence> tail() {
+        return this.matchLazy((head, tail) -> Maybe.of(tail), Maybe::empty);
+    }
+
+    /**
+     * The nonnegative number of elements in this sequence.
+     *
+     * @throws ArithmeticException if the length overflows a long
+     */
+    public long length() {
+        long length = 0;
+        for (var sequence = DoubleSequence.resolve(this); sequence != EMPTY; sequence = DoubleSequence.resolve(sequence)) {
+            if (sequence instanceof Indexed) {
+                var indexed = (Indexed) sequence;
+                length = Math.addExact(length, indexed.size());
+                sequence = indexed.rest;
+            } else {
+                length = Math.incrementExact(length);
+                sequence = sequence.matchLazy((head, tail) -> tail, DoubleSequence::empty);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Combine the elements of this sequence into a single result, accumulating from the left.
+     *
+     * @see DoubleSequence#sum()
+     */
+    public double foldLeft(double initial, DoubleBinaryOperator function) {
+        requireNonNull(function);
+        var result = initial;
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            result = function.applyAsDouble(result, cursor.nextDouble());
+        }
+        return result;
+    }
+
+    /** The sum of the elements of this sequence. */
+    public double sum() {
+        double sum = 0;
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            sum += cursor.nextDouble();
+        }
+        return sum;
+    }
+
+    /** The greatest element of this sequence, if this sequence is non-empty. */
+    public OptionalDouble maximum() {
+        var cursor = new Cursor(this);
+        if (cursor.hasNext()) {
+            var maximum = cursor.nextDouble();
+            while (cursor.hasNext()) {
+                maximum = Math.max(maximum, cursor.nextDouble());
+            }
+            return OptionalDouble.of(maximum);
+        } else {
+            return OptionalDouble.empty();
+        }
+    }
+
+    /** The least element of this sequence, if this sequence is non-empty. */
+    public OptionalDouble minimum() {
+        var cursor = new Cursor(this);
+        if (cursor.hasNext()) {
+            var minimum = cursor.nextDouble();
+            while (cursor.hasNext()) {
+                minimum = Math.min(minimum, cursor.nextDouble());
+            }
+            return OptionalDouble.of(minimum);
+        } else {
+            return OptionalDouble.empty();
+        }
+    }
+
+    /** The arithmetic mean of the elements of this sequence, if this sequence is non-empty. */
+    public OptionalDouble average() {
+        long count = 0;
+        double sum = 0;
+        for (var cursor = new Cursor(this); cursor.hasNext(); count++) {
+            sum += cursor.nextDouble();
+        }
+        return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum / count);
+    }
+
+    /** True if and only if at least one element of this sequence satisfies a predicate. */
+    public boolean any(DoublePredicate predicate) {
+        requireNonNull(predicate);
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            if (predicate.test(cursor.nextDouble())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** True if and only if every element of this sequence satisfies a predicate. */
+    public boolean all(DoublePredicate predicate) {
+        requireNonNull(predicate);
+        return !this.any(predicate.negate());
+    }
+
+    /** The first element of this sequence that satisfies a predicate, if such an element exists. */
+    public OptionalDouble find(DoublePredicate predicate) {
+        requireNonNull(predicate);
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            var element = cursor.nextDouble();
+            if (predicate.test(element)) {
+                return OptionalDouble.of(element);
+            }
+        }
+        return OptionalDouble.empty();
+    }
+
+    /** Perform an action on each element of this sequence. */
+    public void forEach(DoubleConsumer action) {
+        requireNonNull(action);
+        new Cursor(this).forEachRemaining(action);
+    }
+
+    /** Lazily apply a function to each element of this sequence. */
+    public DoubleSequence map(DoubleUnaryOperator function) {
+        requireNonNull(function);
+        return DoubleSequence.lazy(
+            () -> this.match(
+                (head, tail) -> DoubleSequence.cons(function.applyAsDouble(head), tail.map(function)),
+                EMPTY
+            )
+        );
+    }
+
+    /** Lazily apply a function to each element of this sequence, boxing the results into a sequence. */
+    public <R> Sequence<R> mapToObj(DoubleFunction<? extends R> function) {
+        requireNonNull(function);
+        return Sequence.lazy(
+            () -> this.match(
+                (head, tail) -> Sequence.cons(function.apply(head), tail.mapToObj(function)),
+                Sequence.empty()
+            )
+        );
+    }
+
+    /** Lazily apply a function to each element of this sequence, producing a {@code int} sequence. */
+    public IntSequence mapToInt(DoubleToIntFunction function) {
+        requireNonNull(function);
+        return IntSequence.lazy(
+            () -> this.match(
+                (head, tail) -> IntSequence.cons(function.applyAsInt(head), tail.mapToInt(function)),
+                IntSequence.empty()
+            )
+        );
+    }
+
+    /** Lazily apply a function to each element of this sequence, producing a {@code long} sequence. */
+    public LongSequence mapToLong(DoubleToLongFunction function) {
+        requireNonNull(function);
+        return LongSequence.lazy(
+            () -> this.match(
+                (head, tail) -> LongSequence.cons(function.applyAsLong(head), tail.mapToLong(function)),
+                LongSequence.empty()
+            )
+        );
+    }
+
+    /** A lazy view of this sequence as a sequence of boxed elements. */
+    public Sequence<Double> boxed() {
+        return this.mapToObj(Double::valueOf);
+    }
+
+    /** Lazily keep only the elements of this sequence that satisfy a predicate. */
+    public DoubleSequence filter(DoublePredicate predicate) {
+        requireNonNull(predicate);
+        return DoubleSequence.lazy(
+            () -> {
+                for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+                    var element = cursor.nextDouble();
+                    if (predicate.test(element)) {
+                        var rest = cursor.rest();
+                        return DoubleSequence.cons(element, () -> rest.filter(predicate));
+                    }
+                }
+                return EMPTY;
+            }
+        );
+    }
+
+    /** The first {@code length} elements of this sequence, or all of them if there are not that many. */
+    public DoubleSequence take(long length) {
+        if (length <= 0) {
+            return EMPTY;
+        } else {
+            return DoubleSequence.lazy(
+                () -> {
+                    var sequence = DoubleSequence.resolve(this);
+                    if (sequence instanceof Indexed) {
+                        var indexed = (Indexed) sequence;
+                        if (length <= indexed.size()) {
+                            return indexed.slice(indexed.from, indexed.from + length, EMPTY);
+                        }
+                    }
+                    return sequence.match((head, tail) -> DoubleSequence.cons(head, tail.take(length - 1)), EMPTY);
+                }
+            );
+        }
+    }
+
+    /** The longest prefix of this sequence whose elements satisfy a predicate. */
+    public DoubleSequence takeWhile(DoublePredicate predicate) {
+        requireNonNull(predicate);
+        return DoubleSequence.lazy(
+            () -> this.match(
+                (head, tail) -> predicate.test(head) ? DoubleSequence.cons(head, tail.takeWhile(predicate)) : EMPTY,
+                EMPTY
+            )
+        );
+    }
+
+    /** The elements of this sequence after the first {@code length} elements. */
+    public DoubleSequence skip(long length) {
+        if (length <= 0) {
+            return this;
+        } else {
+            return DoubleSequence.lazy(
+                () -> {
+                    var cursor = new Cursor(this);
+                    cursor.skip(length);
+                    return cursor.rest();
+                }
+            );
+        }
+    }
+
+    /** The elements of this sequence after the longest prefix whose elements satisfy a predicate. */
+    public DoubleSequence skipWhile(DoublePredicate predicate) {
+        requireNonNull(predicate);
+        return DoubleSequence.lazy(
+            () -> {
+                for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+                    var element = cursor.nextDouble();
+                    if (!predicate.test(element)) {
+                        return DoubleSequence.cons(element, cursor.rest());
+                    }
+                }
+                return EMPTY;
+            }
+        );
+    }
+
+    /** Lazily append every element of another sequence to this sequence. */
+    public DoubleSequence concatenate(DoubleSequence sequence) {
+        requireNonNull(sequence);
+        return Concatenation.of(this, sequence);
+    }
+
+    /**
+     * An unmodifiable iterator over this sequence.
+     *
+     * @see DoubleSequence#spliterator()
+     * @see DoubleSequence#stream()
+     */
+    public PrimitiveIterator.OfDouble iterator() {
+        return new Cursor(this);
+    }
+
+    /**
+     * A late-binding spliterator over this sequence, which is sized if this sequence is backed by arrays or ranges
+     * all the way through.
+     *
+     * @see DoubleSequence#iterator()
+     * @see DoubleSequence#stream()
+     */
+    public Spliterator.OfDouble spliterator() {
+        long size = 0;
+        for (DoubleSequence sequence = this; sequence != EMPTY && size >= 0; ) {
+            if (sequence instanceof Indexed) {
+                var indexed = (Indexed) sequence;
+                size += indexed.size();
+                sequence = indexed.rest;
+            } else {
+                size = -1;
+            }
+        }
+        if (size >= 0) {
+            return Spliterators.spliterator(this.iterator(), size, ORDERED | IMMUTABLE);
+        } else {
+            return Spliterators.spliteratorUnknownSize(this.iterator(), ORDERED);
+        }
+    }
+
+    /**
+     * A lazy view of this sequence as a stream.
+     *
+     * @see DoubleSequence#memoize(DoubleStream)
+     */
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(this.spliterator(), false);
+    }
+
+    /** An array of the elements of this sequence. */
+    public double[] array() {
+        var array = new double[16];
+        int length = 0;
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            if (length == array.length) {
+                array = Arrays.copyOf(array, Math.addExact(length, length));
+            }
+            array[length++] = cursor.nextDouble();
+        }
+        return length == array.length ? array : Arrays.copyOf(array, length);
+    }
+
+    /**
+     * Return true if and only if the argument is a {@code DoubleSequence} with the same elements in the same order.
+     *
+     * <p>If this sequence is infinite and the argument is also an infinite sequence, they must not be equal, or this
+     * method will never return.
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (object instanceof DoubleSequence) {
+            var these = new Cursor(this);
+            var those = new Cursor((DoubleSequence) object);
+            while (these.hasNext() && those.hasNext()) {
+                if (Double.compare(these.nextDouble(), those.nextDouble()) != 0) {
+                    return false;
+                }
+            }
+            return !these.hasNext() && !those.hasNext();
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Return the hash code of this sequence, following the contract of {@code List.hashCode()} for the boxed elements.
+     *
+     * <p>If this sequence is infinite, this method will never return.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            hash = 31 * hash + Double.hashCode(cursor.nextDouble());
+        }
+        return hash;
+    }
+
+    /** Return the string representation of this sequence, truncating if there are more than thirty elements. */
+    @Override
+    public String toString() {
+        var joiner = new StringJoiner(", ", "[", "]");
+        var cursor = new Cursor(this);
+        for (int index = 0; cursor.hasNext(); index++) {
+            if (index == 30) {
+                joiner.add("...");
+                break;
+            }
+            joiner.add(String.valueOf(cursor.nextDouble()));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Walks a sequence with a loop, reading indexed cells directly and matching other cells with a reusable function,
+     * so that traversal needs no recursion and allocates nothing per element.
+     */
+    private static final class Cursor implements PrimitiveIterator.OfDouble {
+        private static final Supplier<Boolean> EXHAUSTED = () -> false;
+
+        /** The rest of the sequence, after the current indexed cell or the pending head, if any. */
+        private DoubleSequence sequence;
+
+        private Indexed indexed;
+
+        private long index;
+
+        private boolean pending = false;
+
+        private double head;
+
+        private final Match<Boolean> advance = (head, tail) -> {
+            this.head = head;
+            this.sequence = tail;
+            return true;
+        };
+
+        Cursor(DoubleSequence sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.pending || this.indexed != null) {
+                return true;
+            }
+            var sequence = DoubleSequence.resolve(this.sequence);
+            if (sequence instanceof Indexed) {
+                this.indexed = (Indexed) sequence;
+                this.index = this.indexed.from;
+                return true;
+            } else if (sequence.match(this.advance, EXHAUSTED)) {
+                this.pending = true;
+                return true;
+            } else {
+                this.sequence = EMPTY;
+                return false;
+            }
+        }
+
+        @Override
+        public double nextDouble() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            } else if (this.pending) {
+                this.pending = false;
+                return this.head;
+            } else {
+                var indexed = this.indexed;
+                var element = indexed.get(this.index);
+                if (++this.index == indexed.to) {
+                    this.sequence = indexed.rest;
+                    this.indexed = null;
+                }
+                return element;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            while (this.hasNext()) {
+                var indexed = this.indexed;
+                if (indexed == null) {
+                    action.accept(this.nextDouble());
+                } else {
+                    this.sequence = indexed.rest;
+                    this.indexed = null;
+                    for (long index = this.index, to = indexed.to; index < to; index++) {
+                        action.accept(indexed.get(index));
+                    }
+                }
+            }
+        }
+
+        /** Skip over at most {@code length} elements, jumping over indexed cells in constant time. */
+        void skip(long length) {
+            while (length > 0 && this.hasNext()) {
+                var indexed = this.indexed;
+                if (indexed == null) {
+                    this.pending = false;
+                    length--;
+                } else if (length < indexed.to - this.index) {
+                    this.index += length;
+                    return;
+                } else {
+                    length -= indexed.to - this.index;
+                    this.sequence = indexed.rest;
+                    this.indexed = null;
+                }
+            }
+        }
+
+        /** The remaining elements, as a sequence. */
+        DoubleSequence rest() {
+            if (this.pending) {
+                return DoubleSequence.cons(this.head, this.sequence);
+            } else if (this.indexed != null) {
+                return this.indexed.slice(this.index, this.indexed.to, this.indexed.rest);
+            } else {
+                return this.sequence;
+            }
+        }
+    }
+}
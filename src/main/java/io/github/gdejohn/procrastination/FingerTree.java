@@ -0,0 +1,1130 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import static io.github.gdejohn.procrastination.Unit.unit;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A persistent double-ended sequence of non-null elements, annotated with a cached measure of every subtree.
+ *
+ * <p>This is a 2-3 finger tree: the first and last few elements are kept in buffers (the fingers) at the top of the
+ * tree, and the middle is a lazily built finger tree of 2-3 nodes, each caching the number of elements below it and a
+ * {@link Measure measure} of them. Adding or removing an element at either end takes amortized constant time, while
+ * concatenating two trees, splitting a tree, and looking up an element by index take time logarithmic in the size of
+ * the smaller piece.
+ *
+ * <p>The measure is a monoid over the elements, such as their {@link Measure#sum(ToLongFunction) sum} or
+ * {@link Measure#maximum(Comparator) maximum}, that every subtree caches. Because prefixes of the tree can be measured
+ * without visiting their elements, queries like "the first element at which the running sum exceeds some bound" or
+ * "the largest element of a sliding window" take logarithmic rather than linear time. Every tree also tracks its
+ * length, regardless of its measure, so indexed access is always available.
+ *
+ * <p>Finger trees convert to sequences lazily with {@link FingerTree#sequence()}, and are built from any iterable,
+ * including a sequence, with {@link FingerTree#from(Iterable)}.
+ *
+ * @param <T> the type of the elements of this tree
+ * @param <M> the type of the measure of this tree
+ *
+ * @see Sequence
+ * @see Vector
+ */
+public final class FingerTree<T, M> implements Iterable<T> {
+    /**
+     * A monoid that measures the elements of a finger tree: an associative operation to combine measures, with an
+     * identity.
+     *
+     * @param <T> the type of the elements being measured
+     * @param <M> the type of the measure
+     */
+    public interface Measure<T, M> {
+        /** The measure of no elements, which leaves other measures unchanged when combined with them. */
+        M identity();
+
+        /** The measure of a single element. */
+        M measure(T element);
+
+        /** Combine the measures of two adjacent runs of elements, which must be associative. */
+        M combine(M left, M right);
+
+        /** A measure defined by its identity, a function to measure one element, and an operation to combine two. */
+        static <T, M> Measure<T, M> of(M identity, Function<? super T, ? extends M> measure, BinaryOperator<M> combine) {
+            requireNonNull(identity);
+            requireNonNull(measure);
+            requireNonNull(combine);
+            return new Measure<>() {
+                @Override
+                public M identity() {
+                    return identity;
+                }
+
+                @Override
+                public M measure(T element) {
+                    return measure.apply(element);
+                }
+
+                @Override
+                public M combine(M left, M right) {
+                    return combine.apply(left, right);
+                }
+            };
+        }
+
+        /**
+         * The trivial measure, for trees that only need their length.
+         *
+         * @see FingerTree#empty()
+         */
+        @SuppressWarnings("unchecked") // safe because the trivial measure ignores its elements
+        static <T> Measure<T, Unit> unit() {
+            return (Measure<T, Unit>) UNIT;
+        }
+
+        /** The sum of the elements projected through a function. */
+        static <T> Measure<T, Long> sum(ToLongFunction<? super T> function) {
+            requireNonNull(function);
+            return Measure.of(0L, function::applyAsLong, Long::sum);
+        }
+
+        /** The greatest element according to a comparator, or empty if there are no elements. */
+        static <T> Measure<T, Maybe<T>> maximum(Comparator<? super T> comparator) {
+            requireNonNull(comparator);
+            return Measure.of(
+                Maybe.empty(),
+                Maybe::of,
+                (left, right) -> right.match(
+                    y -> left.match(x -> comparator.compare(x, y) >= 0 ? left : right, right),
+                    left
+                )
+            );
+        }
+
+        /** Two measures taken together. */
+        static <T, A, B> Measure<T, Pair<A, B>> both(Measure<? super T, A> first, Measure<? super T, B> second) {
+            requireNonNull(first);
+            requireNonNull(second);
+            return Measure.of(
+                Pair.of(first.identity(), second.identity()),
+                element -> Pair.of(first.measure(element), second.measure(element)),
+                (left, right) -> Pair.of(
+                    first.combine(left.first(), right.first()),
+                    second.combine(left.second(), right.second())
+                )
+            );
+        }
+    }
+
+    private static final Measure<Object, Unit> UNIT = Measure.of(unit(), element -> unit(), (left, right) -> unit());
+
+    /** A predicate on the length and measure of a prefix of a tree, which must be monotonic as the prefix grows. */
+    private interface Position<M> {
+        boolean test(long length, M measure);
+    }
+
+    /** Measures elements and nodes alike, since below the top level of a tree every element is a node. */
+    private static final class Context<M> {
+        private final Measure<Object, M> measure;
+
+        private final Tree<M> empty = new Empty<>();
+
+        @SuppressWarnings("unchecked") // safe because a context only ever measures elements of the tree it was made for
+        Context(Measure<?, M> measure) {
+            this.measure = (Measure<Object, M>) measure;
+        }
+
+        M measure(Object element) {
+            if (element instanceof Node) {
+                @SuppressWarnings("unchecked") // safe because a tree only contains nodes of its own measure
+                var node = (Node<M>) element;
+                return node.measure;
+            } else {
+                return this.measure.measure(element);
+            }
+        }
+
+        long length(Object element) {
+            return element instanceof Node ? ((Node<?>) element).length : 1;
+        }
+
+        M combine(M left, M right) {
+            return this.measure.combine(left, right);
+        }
+
+        M measure(Object[] digit) {
+            var measure = this.measure(digit[0]);
+            for (var index = 1; index < digit.length; index++) {
+                measure = this.combine(measure, this.measure(digit[index]));
+            }
+            return measure;
+        }
+
+        long length(Object[] digit) {
+            long length = 0;
+            for (var element : digit) {
+                length += this.length(element);
+            }
+            return length;
+        }
+
+        Node<M> node(Object... children) {
+            return new Node<>(children, this.length(children), this.measure(children));
+        }
+
+        /** Group two to twelve elements into nodes of two or three. */
+        Object[] nodes(Object[] elements) {
+            var nodes = new Object[(elements.length + 2) / 3];
+            var from = 0;
+            for (var index = 0; index < nodes.length; index++) {
+                var remaining = elements.length - from;
+                var width = remaining == 4 || remaining == 2 ? 2 : 3;
+                nodes[index] = this.node(Arrays.copyOfRange(elements, from, from + width));
+                from += width;
+            }
+            return nodes;
+        }
+
+        /** A tree of one to four elements. */
+        Tree<M> tree(Object[] digit) {
+            switch (digit.length) {
+                case 0:
+                    return this.empty;
+                case 1:
+                    return new Single<>(digit[0]);
+                default:
+                    var half = digit.length / 2;
+                    return new Deep<>(
+                        this,
+                        Arrays.copyOfRange(digit, 0, half),
+                        this.empty,
+                        Arrays.copyOfRange(digit, half, digit.length)
+                    );
+            }
+        }
+    }
+
+    /** Two or three elements grouped together, with their cached length and measure. */
+    private static final class Node<M> {
+        private final Object[] children;
+
+        private final long length;
+
+        private final M measure;
+
+        Node(Object[] children, long length, M measure) {
+            this.children = children;
+            this.length = length;
+            this.measure = measure;
+        }
+    }
+
+    /** The result of splitting a tree around the element at which a position predicate first holds. */
+    private static final class Split<M> {
+        private final Tree<M> left;
+
+        private final Object element;
+
+        private final Tree<M> right;
+
+        Split(Tree<M> left, Object element, Tree<M> right) {
+            this.left = left;
+            this.element = element;
+            this.right = right;
+        }
+    }
+
+    private static abstract class Tree<M> {
+        abstract long length();
+
+        abstract M measure(Context<M> context);
+
+        abstract Tree<M> cons(Context<M> context, Object element);
+
+        abstract Tree<M> snoc(Context<M> context, Object element);
+
+        /** The first element, or null if empty. */
+        abstract Object head();
+
+        /** The last element, or null if empty. */
+        abstract Object last();
+
+        /** All but the first element, which must exist. */
+        abstract Tree<M> tail(Context<M> context);
+
+        /** All but the last element, which must exist. */
+        abstract Tree<M> initial(Context<M> context);
+
+        /**
+         * Split this non-empty tree around the first element at which the predicate holds, given the length and
+         * measure of everything to the left of this tree. If the predicate never holds, split around the last element.
+         */
+        abstract Split<M> split(Context<M> context, Position<M> position, long length, M measure);
+
+        /** The first element at which the predicate holds, like split, but without building the pieces. */
+        abstract Object find(Context<M> context, Position<M> position, long length, M measure);
+
+        /** Lazily flatten this tree into a sequence of its leaf elements, followed by another sequence. */
+        abstract Sequence<Object> elements(Sequence<Object> rest);
+
+        abstract void forEach(Consumer<Object> action);
+    }
+
+    private static final class Empty<M> extends Tree<M> {
+        @Override
+        long length() {
+            return 0;
+        }
+
+        @Override
+        M measure(Context<M> context) {
+            return context.measure.identity();
+        }
+
+        @Override
+        Tree<M> cons(Context<M> context, Object element) {
+            return new Single<>(element);
+        }
+
+        @Override
+        Tree<M> snoc(Context<M> context, Object element) {
+            return new Single<>(element);
+        }
+
+        @Override
+        Object head() {
+            return null;
+        }
+
+        @Override
+        Object last() {
+            return null;
+        }
+
+        @Override
+        Tree<M> tail(Context<M> context) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        Tree<M> initial(Context<M> context) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        Split<M> split(Context<M> context, Position<M> position, long length, M measure) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        Object find(Context<M> context, Position<M> position, long length, M measure) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        Sequence<Object> elements(Sequence<Object> rest) {
+            return rest;
+        }
+
+        @Override
+        void forEach(Consumer<Object> action) {}
+    }
+
+    private static final class Single<M> extends Tree<M> {
+        private final Object element;
+
+        Single(Object element) {
+            this.element = element;
+        }
+
+        @Override
+        long length() {
+            return element instanceof Node ? ((Node<?>) element).length : 1;
+        }
+
+        @Override
+        M measure(Context<M> context) {
+            return context.measure(this.element);
+        }
+
+        @Override
+        Tree<M> cons(Context<M> context, Object element) {
+            return new Deep<>(context, new Object[] {element}, context.empty, new Object[] {this.element});
+        }
+
+        @Override
+        Tree<M> snoc(Context<M> context, Object element) {
+            return new Deep<>(context, new Object[] {this.element}, context.empty, new Object[] {element});
+        }
+
+        @Override
+        Object head() {
+            return this.element;
+        }
+
+        @Override
+        Object last() {
+            return this.element;
+        }
+
+        @Override
+        Tree<M> tail(Context<M> context) {
+            return context.empty;
+        }
+
+        @Override
+        Tree<M> initial(Context<M> context) {
+            return context.empty;
+        }
+
+        @Override
+        Split<M> split(Context<M> context, Position<M> position, long length, M measure) {
+            return new Split<>(context.empty, this.element, context.empty);
+        }
+
+        @Override
+        Object find(Context<M> context, Position<M> position, long length, M measure) {
+            return FingerTree.find(context, position, length, measure, this.element);
+        }
+
+        @Override
+        Sequence<Object> elements(Sequence<Object> rest) {
+            return FingerTree.elements(this.element, rest);
+        }
+
+        @Override
+        void forEach(Consumer<Object> action) {
+            FingerTree.forEach(this.element, action);
+        }
+    }
+
+    /**
+     * Two digits of one to four elements each, around a lazily built middle tree of nodes. The length and measure of
+     * the middle tree are tracked separately, so that they are known without building it.
+     *
+     * <p>Before suspending another update of the middle tree, the previous one is forced, so that at most one update is
+     * ever pending per level and forcing a middle tree never recurses more deeply than the tree itself.
+     */
+    private static final class Deep<M> extends Tree<M> {
+        private final Object[] prefix;
+
+        private final Supplier<Tree<M>> middle;
+
+        private final long middleLength;
+
+        private final M middleMeasure;
+
+        private final Object[] suffix;
+
+        private final long length;
+
+        private final M measure;
+
+        Deep(Context<M> context, Object[] prefix, Tree<M> middle, Object[] suffix) {
+            this(context, prefix, () -> middle, middle.length(), middle.measure(context), suffix);
+        }
+
+        Deep(Context<M> context, Object[] prefix, Supplier<Tree<M>> middle, long middleLength, M middleMeasure, Object[] suffix) {
+            this.prefix = prefix;
+            this.middle = middle;
+            this.middleLength = middleLength;
+            this.middleMeasure = middleMeasure;
+            this.suffix = suffix;
+            this.length = context.length(prefix) + middleLength + context.length(suffix);
+            this.measure = context.combine(
+                context.combine(context.measure(prefix), middleMeasure),
+                context.measure(suffix)
+            );
+        }
+
+        @Override
+        long length() {
+            return this.length;
+        }
+
+        @Override
+        M measure(Context<M> context) {
+            return this.measure;
+        }
+
+        @Override
+        Tree<M> cons(Context<M> context, Object element) {
+            if (this.prefix.length < 4) {
+                var prefix = new Object[this.prefix.length + 1];
+                prefix[0] = element;
+                System.arraycopy(this.prefix, 0, prefix, 1, this.prefix.length);
+                return new Deep<>(context, prefix, this.middle, this.middleLength, this.middleMeasure, this.suffix);
+            } else {
+                var node = context.node(this.prefix[1], this.prefix[2], this.prefix[3]);
+                var middle = this.middle.get();
+                return new Deep<>(
+                    context,
+                    new Object[] {element, this.prefix[0]},
+                    Functions.memoize(() -> middle.cons(context, node)),
+                    this.middleLength + node.length,
+                    context.combine(node.measure, this.middleMeasure),
+                    this.suffix
+                );
+            }
+        }
+
+        @Override
+        Tree<M> snoc(Context<M> context, Object element) {
+            if (this.suffix.length < 4) {
+                var suffix = Arrays.copyOf(this.suffix, this.suffix.length + 1);
+                suffix[this.suffix.length] = element;
+                return new Deep<>(context, this.prefix, this.middle, this.middleLength, this.middleMeasure, suffix);
+            } else {
+                var node = context.node(this.suffix[0], this.suffix[1], this.suffix[2]);
+                var middle = this.middle.get();
+                return new Deep<>(
+                    context,
+                    this.prefix,
+                    Functions.memoize(() -> middle.snoc(context, node)),
+                    this.middleLength + node.length,
+                    context.combine(this.middleMeasure, node.measure),
+                    new Object[] {this.suffix[3], element}
+                );
+            }
+        }
+
+        @Override
+        Object head() {
+            return this.prefix[0];
+        }
+
+        @Override
+        Object last() {
+            return this.suffix[this.suffix.length - 1];
+        }
+
+        @Override
+        Tree<M> tail(Context<M> context) {
+            if (this.prefix.length > 1) {
+                return new Deep<>(
+                    context,
+                    Arrays.copyOfRange(this.prefix, 1, this.prefix.length),
+                    this.middle,
+                    this.middleLength,
+                    this.middleMeasure,
+                    this.suffix
+                );
+            } else {
+                return FingerTree.deepLeft(context, new Object[0], this.middle.get(), this.suffix);
+            }
+        }
+
+        @Override
+        Tree<M> initial(Context<M> context) {
+            if (this.suffix.length > 1) {
+                return new Deep<>(
+                    context,
+                    this.prefix,
+                    this.middle,
+                    this.middleLength,
+                    this.middleMeasure,
+                    Arrays.copyOf(this.suffix, this.suffix.length - 1)
+                );
+            } else {
+                return FingerTree.deepRight(context, this.prefix, this.middle.get(), new Object[0]);
+            }
+        }
+
+        @Override
+        Split<M> split(Context<M> context, Position<M> position, long length, M measure) {
+            var prefixLength = length + context.length(this.prefix);
+            var prefixMeasure = context.combine(measure, context.measure(this.prefix));
+            if (position.test(prefixLength, prefixMeasure)) {
+                var index = FingerTree.split(context, position, length, measure, this.prefix);
+                return new Split<>(
+                    context.tree(Arrays.copyOfRange(this.prefix, 0, index)),
+                    this.prefix[index],
+                    FingerTree.deepLeft(
+                        context,
+                        Arrays.copyOfRange(this.prefix, index + 1, this.prefix.length),
+                        this.middle.get(),
+                        this.suffix
+                    )
+                );
+            }
+            var middleLength = prefixLength + this.middleLength;
+            var middleMeasure = context.combine(prefixMeasure, this.middleMeasure);
+            if (this.middleLength > 0 && position.test(middleLength, middleMeasure)) {
+                var split = this.middle.get().split(context, position, prefixLength, prefixMeasure);
+                @SuppressWarnings("unchecked") // safe because the elements of the middle tree are nodes
+                var node = (Node<M>) split.element;
+                var leftLength = prefixLength + split.left.length();
+                var leftMeasure = context.combine(prefixMeasure, split.left.measure(context));
+                var index = FingerTree.split(context, position, leftLength, leftMeasure, node.children);
+                return new Split<>(
+                    FingerTree.deepRight(
+                        context,
+                        this.prefix,
+                        split.left,
+                        Arrays.copyOfRange(node.children, 0, index)
+                    ),
+                    node.children[index],
+                    FingerTree.deepLeft(
+                        context,
+                        Arrays.copyOfRange(node.children, index + 1, node.children.length),
+                        split.right,
+                        this.suffix
+                    )
+                );
+            }
+            var index = FingerTree.split(context, position, middleLength, middleMeasure, this.suffix);
+            return new Split<>(
+                FingerTree.deepRight(
+                    context,
+                    this.prefix,
+                    this.middle.get(),
+                    Arrays.copyOfRange(this.suffix, 0, index)
+                ),
+                this.suffix[index],
+                context.tree(Arrays.copyOfRange(this.suffix, index + 1, this.suffix.length))
+            );
+        }
+
+        @Override
+        Object find(Context<M> context, Position<M> position, long length, M measure) {
+            for (var element : this.prefix) {
+                var nextLength = length + context.length(element);
+                var nextMeasure = context.combine(measure, context.measure(element));
+                if (position.test(nextLength, nextMeasure)) {
+                    return FingerTree.find(context, position, length, measure, element);
+                }
+                length = nextLength;
+                measure = nextMeasure;
+            }
+            if (this.middleLength > 0) {
+                var nextLength = length + this.middleLength;
+                var nextMeasure = context.combine(measure, this.middleMeasure);
+                if (position.test(nextLength, nextMeasure)) {
+                    return this.middle.get().find(context, position, length, measure);
+                }
+                length = nextLength;
+                measure = nextMeasure;
+            }
+            for (var index = 0; index < this.suffix.length - 1; index++) {
+                var element = this.suffix[index];
+                var nextLength = length + context.length(element);
+                var nextMeasure = context.combine(measure, context.measure(element));
+                if (position.test(nextLength, nextMeasure)) {
+                    return FingerTree.find(context, position, length, measure, element);
+                }
+                length = nextLength;
+                measure = nextMeasure;
+            }
+            return FingerTree.find(context, position, length, measure, this.suffix[this.suffix.length - 1]);
+        }
+
+        @Override
+        Sequence<Object> elements(Sequence<Object> rest) {
+            return FingerTree.elements(
+                this.prefix,
+                0,
+                Sequence.lazy(() -> this.middle.get().elements(FingerTree.elements(this.suffix, 0, rest)))
+            );
+        }
+
+        @Override
+        void forEach(Consumer<Object> action) {
+            for (var element : this.prefix) {
+                FingerTree.forEach(element, action);
+            }
+            this.middle.get().forEach(action);
+            for (var element : this.suffix) {
+                FingerTree.forEach(element, action);
+            }
+        }
+    }
+
+    /** A deep tree whose prefix may be empty, borrowing the first node of the middle tree if it is. */
+    private static <M> Tree<M> deepLeft(Context<M> context, Object[] prefix, Tree<M> middle, Object[] suffix) {
+        if (prefix.length > 0) {
+            return new Deep<>(context, prefix, middle, suffix);
+        } else if (middle.length() == 0) {
+            return context.tree(suffix);
+        } else {
+            @SuppressWarnings("unchecked") // safe because the elements of the middle tree are nodes
+            var node = (Node<M>) middle.head();
+            return new Deep<>(context, node.children, middle.tail(context), suffix);
+        }
+    }
+
+    /** A deep tree whose suffix may be empty, borrowing the last node of the middle tree if it is. */
+    private static <M> Tree<M> deepRight(Context<M> context, Object[] prefix, Tree<M> middle, Object[] suffix) {
+        if (suffix.length > 0) {
+            return new Deep<>(context, prefix, middle, suffix);
+        } else if (middle.length() == 0) {
+            return context.tree(prefix);
+        } else {
+            @SuppressWarnings("unchecked") // safe because the elements of the middle tree are nodes
+            var node = (Node<M>) middle.last();
+            return new Deep<>(context, prefix, middle.initial(context), node.children);
+        }
+    }
+
+    /** The index of the element of a digit at which the predicate first holds, or else the last index. */
+    private static <M> int split(Context<M> context, Position<M> position, long length, M measure, Object[] digit) {
+        for (var index = 0; index < digit.length - 1; index++) {
+            length += context.length(digit[index]);
+            measure = context.combine(measure, context.measure(digit[index]));
+            if (position.test(length, measure)) {
+                return index;
+            }
+        }
+        return digit.length - 1;
+    }
+
+    /** Descend through the nodes containing the leaf element at which the predicate first holds. */
+    private static <M> Object find(Context<M> context, Position<M> position, long length, M measure, Object element) {
+        while (element instanceof Node) {
+            @SuppressWarnings("unchecked") // safe because a tree only contains nodes of its own measure
+            var node = (Node<M>) element;
+            var index = FingerTree.split(context, position, length, measure, node.children);
+            for (var child = 0; child < index; child++) {
+                length += context.length(node.children[child]);
+                measure = context.combine(measure, context.measure(node.children[child]));
+            }
+            element = node.children[index];
+        }
+        return element;
+    }
+
+    /** Concatenate two trees with up to four elements in between, at the level of those trees. */
+    private static <M> Tree<M> concatenate(Context<M> context, Tree<M> left, Object[] elements, Tree<M> right) {
+        if (left.length() == 0) {
+            for (var index = elements.length - 1; index >= 0; index--) {
+                right = right.cons(context, elements[index]);
+            }
+            return right;
+        } else if (right.length() == 0) {
+            for (var element : elements) {
+                left = left.snoc(context, element);
+            }
+            return left;
+        } else if (left instanceof Single) {
+            return FingerTree.concatenate(context, context.empty, elements, right).cons(context, left.head());
+        } else if (right instanceof Single) {
+            return FingerTree.concatenate(context, left, elements, context.empty).snoc(context, right.head());
+        } else {
+            var first = (Deep<M>) left;
+            var second = (Deep<M>) right;
+            var middle = new Object[first.suffix.length + elements.length + second.prefix.length];
+            System.arraycopy(first.suffix, 0, middle, 0, first.suffix.length);
+            System.arraycopy(elements, 0, middle, first.suffix.length, elements.length);
+            System.arraycopy(second.prefix, 0, middle, first.suffix.length + elements.length, second.prefix.length);
+            var nodes = context.nodes(middle);
+            var leftMiddle = first.middle.get();
+            var rightMiddle = second.middle.get();
+            return new Deep<>(
+                context,
+                first.prefix,
+                Functions.memoize(() -> FingerTree.concatenate(context, leftMiddle, nodes, rightMiddle)),
+                first.middleLength + context.length(nodes) + second.middleLength,
+                context.combine(context.combine(first.middleMeasure, context.measure(nodes)), second.middleMeasure),
+                second.suffix
+            );
+        }
+    }
+
+    private static Sequence<Object> elements(Object element, Sequence<Object> rest) {
+        return element instanceof Node ? FingerTree.elements(((Node<?>) element).children, 0, rest) : Sequence.cons(
+            element,
+            rest
+        );
+    }
+
+    private static Sequence<Object> elements(Object[] digit, int index, Sequence<Object> rest) {
+        if (index == digit.length - 1) {
+            return FingerTree.elements(digit[index], rest);
+        } else {
+            return FingerTree.elements(digit[index], Sequence.lazy(() -> FingerTree.elements(digit, index + 1, rest)));
+        }
+    }
+
+    private static void forEach(Object element, Consumer<Object> action) {
+        if (element instanceof Node) {
+            for (var child : ((Node<?>) element).children) {
+                FingerTree.forEach(child, action);
+            }
+        } else {
+            action.accept(element);
+        }
+    }
+
+    private static final FingerTree<?, Unit> EMPTY = new FingerTree<>(new Context<>(UNIT));
+
+    private final Context<M> context;
+
+    private final Tree<M> tree;
+
+    private FingerTree(Context<M> context) {
+        this(context, context.empty);
+    }
+
+    private FingerTree(Context<M> context, Tree<M> tree) {
+        this.context = context;
+        this.tree = tree;
+    }
+
+    private FingerTree<T, M> with(Tree<M> tree) {
+        return tree == this.tree ? this : new FingerTree<>(this.context, tree);
+    }
+
+    /**
+     * The empty finger tree, measuring only length.
+     *
+     * @see FingerTree#empty(Measure)
+     * @see FingerTree#of(Object...)
+     */
+    @SuppressWarnings("unchecked") // safe because the empty tree never produces any elements
+    public static <T> FingerTree<T, Unit> empty() {
+        return (FingerTree<T, Unit>) EMPTY;
+    }
+
+    /**
+     * The empty finger tree with a given measure.
+     *
+     * @see FingerTree#empty()
+     * @see FingerTree#from(Measure, Iterable)
+     */
+    public static <T, M> FingerTree<T, M> empty(Measure<? super T, M> measure) {
+        return (Object) measure == UNIT ? FingerTree.cast(FingerTree.<T>empty()) : new FingerTree<>(new Context<>(measure));
+    }
+
+    @SuppressWarnings("unchecked") // only used when the measure is known to be the trivial measure
+    private static <T, M> FingerTree<T, M> cast(FingerTree<T, ?> tree) {
+        return (FingerTree<T, M>) tree;
+    }
+
+    /**
+     * A finger tree of the given elements, in order, measuring only length.
+     *
+     * @see FingerTree#from(Iterable)
+     */
+    @SafeVarargs
+    public static <T> FingerTree<T, Unit> of(T... elements) {
+        var tree = FingerTree.<T>empty();
+        for (var element : elements) {
+            tree = tree.append(element);
+        }
+        return tree;
+    }
+
+    /**
+     * A finger tree of the elements of an iterable, in iteration order, measuring only length.
+     *
+     * @see FingerTree#from(Measure, Iterable)
+     * @see FingerTree#sequence()
+     */
+    public static <T> FingerTree<T, Unit> from(Iterable<? extends T> iterable) {
+        return FingerTree.from(Measure.unit(), iterable);
+    }
+
+    /**
+     * A finger tree of the elements of an iterable, in iteration order, with a given measure.
+     *
+     * @see FingerTree#from(Iterable)
+     */
+    public static <T, M> FingerTree<T, M> from(Measure<? super T, M> measure, Iterable<? extends T> iterable) {
+        var empty = FingerTree.<T, M>empty(measure);
+        var tree = empty.tree;
+        for (T element : iterable) {
+            tree = tree.snoc(empty.context, requireNonNull(element));
+        }
+        return empty.with(tree);
+    }
+
+    /** The number of elements in this tree. */
+    public long length() {
+        return this.tree.length();
+    }
+
+    /** True if and only if this tree contains no elements. */
+    public boolean isEmpty() {
+        return this.tree.length() == 0;
+    }
+
+    /**
+     * The combined measure of all of the elements of this tree.
+     *
+     * <p>This takes constant time, because every subtree caches its measure.
+     */
+    public M measure() {
+        return this.tree.measure(this.context);
+    }
+
+    /**
+     * Add an element to the front of this tree, in amortized constant time.
+     *
+     * @see FingerTree#append(Object)
+     */
+    public FingerTree<T, M> cons(T element) {
+        requireNonNull(element);
+        return this.with(this.tree.cons(this.context, element));
+    }
+
+    /**
+     * Add an element to the end of this tree, in amortized constant time.
+     *
+     * @see FingerTree#cons(Object)
+     * @see FingerTree#concatenate(FingerTree)
+     */
+    public FingerTree<T, M> append(T element) {
+        requireNonNull(element);
+        return this.with(this.tree.snoc(this.context, element));
+    }
+
+    /**
+     * Add the elements of another tree to the end of this tree, in time logarithmic in the length of the shorter one.
+     *
+     * <p>If the other tree has a different measure, its elements are appended one at a time instead.
+     *
+     * @see FingerTree#append(Object)
+     */
+    public FingerTree<T, M> concatenate(FingerTree<T, M> tree) {
+        if (tree.context.measure != this.context.measure) {
+            var result = this.tree;
+            for (var element : tree) {
+                result = result.snoc(this.context, element);
+            }
+            return this.with(result);
+        } else {
+            return this.with(FingerTree.concatenate(this.context, this.tree, new Object[0], tree.tree));
+        }
+    }
+
+    /**
+     * The first element of this tree, if it is non-empty.
+     *
+     * @see FingerTree#last()
+     */
+    public Maybe<T> head() {
+        return this.element(this.tree.head());
+    }
+
+    /**
+     * The last element of this tree, if it is non-empty.
+     *
+     * @see FingerTree#head()
+     */
+    public Maybe<T> last() {
+        return this.element(this.tree.last());
+    }
+
+    @SuppressWarnings("unchecked") // safe because only elements of type T are stored at the top of a tree
+    private Maybe<T> element(Object element) {
+        return element == null ? Maybe.empty() : Maybe.of((T) element);
+    }
+
+    /**
+     * All but the first element of this tree, if it is non-empty.
+     *
+     * @see FingerTree#initial()
+     */
+    public Maybe<FingerTree<T, M>> tail() {
+        return this.isEmpty() ? Maybe.empty() : Maybe.of(this.with(this.tree.tail(this.context)));
+    }
+
+    /**
+     * All but the last element of this tree, if it is non-empty.
+     *
+     * @see FingerTree#tail()
+     */
+    public Maybe<FingerTree<T, M>> initial() {
+        return this.isEmpty() ? Maybe.empty() : Maybe.of(this.with(this.tree.initial(this.context)));
+    }
+
+    /**
+     * Return a value defined in terms of the head and the tail of this tree if it is non-empty, otherwise return a
+     * lazy default value.
+     *
+     * @param <R> the type of the result
+     *
+     * @see Sequence#match(BiFunction, Supplier)
+     */
+    public <R> R match(BiFunction<? super T, ? super FingerTree<T, M>, ? extends R> function, Supplier<? extends R> otherwise) {
+        if (this.isEmpty()) {
+            return otherwise.get();
+        } else {
+            return function.apply(this.head().orThrow(), this.with(this.tree.tail(this.context)));
+        }
+    }
+
+    /**
+     * The element at a given index, if it exists, in time logarithmic in the distance from the nearer end.
+     *
+     * @see Sequence#element(long)
+     */
+    @SuppressWarnings("unchecked") // safe because find only returns leaf elements
+    public Maybe<T> element(long index) {
+        if (index < 0 || index >= this.length()) {
+            return Maybe.empty();
+        } else {
+            return Maybe.of(
+                (T) this.tree.find(this.context, (length, measure) -> length > index, 0, this.context.measure.identity())
+            );
+        }
+    }
+
+    /**
+     * The first element at which the measure of the elements up to and including it satisfies a predicate, if any.
+     *
+     * <p>The predicate must be monotonic: once it holds for some prefix of this tree, it must hold for every longer
+     * prefix. For example, with a {@link Measure#sum(ToLongFunction) sum} of nonnegative weights, this finds the
+     * element at which the running total first exceeds a bound, in logarithmic time.
+     *
+     * @see FingerTree#split(Predicate)
+     */
+    @SuppressWarnings("unchecked") // safe because find only returns leaf elements
+    public Maybe<T> find(Predicate<? super M> predicate) {
+        if (this.isEmpty() || !predicate.test(this.measure())) {
+            return Maybe.empty();
+        } else {
+            return Maybe.of(
+                (T) this.tree.find(
+                    this.context,
+                    (length, measure) -> predicate.test(measure),
+                    0,
+                    this.context.measure.identity()
+                )
+            );
+        }
+    }
+
+    /**
+     * Split this tree into the longest prefix whose measure does not satisfy a monotonic predicate, and the rest,
+     * which starts with the {@link FingerTree#find(Predicate) first element} at which the predicate holds.
+     *
+     * @see FingerTree#find(Predicate)
+     * @see FingerTree#splitAt(long)
+     */
+    public Pair<FingerTree<T, M>, FingerTree<T, M>> split(Predicate<? super M> predicate) {
+        if (this.isEmpty() || !predicate.test(this.measure())) {
+            return Pair.of(this, FingerTree.empty(this.context));
+        } else {
+            return this.split((length, measure) -> predicate.test(measure));
+        }
+    }
+
+    /**
+     * Split this tree into the elements before a given index and the elements from that index on.
+     *
+     * @see FingerTree#take(long)
+     * @see FingerTree#skip(long)
+     */
+    public Pair<FingerTree<T, M>, FingerTree<T, M>> splitAt(long index) {
+        if (index <= 0) {
+            return Pair.of(FingerTree.empty(this.context), this);
+        } else if (index >= this.length()) {
+            return Pair.of(this, FingerTree.empty(this.context));
+        } else {
+            return this.split((length, measure) -> length > index);
+        }
+    }
+
+    private Pair<FingerTree<T, M>, FingerTree<T, M>> split(Position<M> position) {
+        var split = this.tree.split(this.context, position, 0, this.context.measure.identity());
+        return Pair.of(
+            new FingerTree<>(this.context, split.left),
+            new FingerTree<>(this.context, split.right.cons(this.context, split.element))
+        );
+    }
+
+    private static <T, M> FingerTree<T, M> empty(Context<M> context) {
+        return new FingerTree<>(context);
+    }
+
+    /**
+     * The first {@code length} elements of this tree.
+     *
+     * @see FingerTree#splitAt(long)
+     */
+    public FingerTree<T, M> take(long length) {
+        return this.splitAt(length).first();
+    }
+
+    /**
+     * All but the first {@code length} elements of this tree.
+     *
+     * @see FingerTree#splitAt(long)
+     */
+    public FingerTree<T, M> skip(long length) {
+        return this.splitAt(length).second();
+    }
+
+    /**
+     * Lazily view this tree as a sequence, flattening nodes only as their elements are reached.
+     *
+     * @see FingerTree#from(Iterable)
+     */
+    @SuppressWarnings("unchecked") // safe because only elements of type T are stored at the leaves of a tree
+    public Sequence<T> sequence() {
+        return (Sequence<T>) (Sequence<?>) this.tree.elements(Sequence.empty());
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this.sequence().iterator();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // safe because only elements of type T are stored at the leaves of a tree
+    public void forEach(Consumer<? super T> action) {
+        requireNonNull(action);
+        this.tree.forEach(element -> action.accept((T) element));
+    }
+
+    /**
+     * Return true if and only if the argument is a finger tree with the same elements as this tree in the same order,
+     * regardless of their measures.
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (object instanceof FingerTree) {
+            var other = (FingerTree<?, ?>) object;
+            return this.length() == other.length() && this.sequence().equals(other.sequence());
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Return the hash code of this tree, following the contract of {@code List.hashCode()}.
+     *
+     * @see java.util.List#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return this.sequence().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.sequence().toString();
+    }
+}
@@ -13,8 +13,11 @@
 
 package io.github.gdejohn.procrastination;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Comparator;
 import java.util.concurrent.Callable;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
@@ -44,38 +47,188 @@ public final class Functions {
     /**
      * A thread-safe Supplier that computes its value at most once, delegating to the given Supplier, and caches the
      * result.
+     *
+     * <p>Once the value has been computed, reading it is a single volatile read, without locking. Threads that ask for
+     * the value while another thread is computing it wait for that computation to finish, rather than computing it
+     * again. If the given Supplier throws an exception, nothing is cached, and the next invocation tries again.
+     *
+     * @see Functions#memoizeRacy(Supplier)
      */
     public static <T> Supplier<T> memoize(Supplier<? extends T> supplier) {
         requireNonNull(supplier);
+        return supplier instanceof Memoized ? cast(supplier) : new Memoized<>(supplier);
+    }
+
+    /**
+     * A thread-safe Supplier that caches the result of the given Supplier, without ever blocking.
+     *
+     * <p>Unlike {@link Functions#memoize(Supplier)}, threads that race to compute the value may each invoke the given
+     * Supplier, and the first result to be published wins, so this is only appropriate if the given Supplier is
+     * idempotent and free of side effects. In exchange, no thread ever waits on another.
+     *
+     * @see Functions#memoize(Supplier)
+     */
+    public static <T> Supplier<T> memoizeRacy(Supplier<? extends T> supplier) {
+        requireNonNull(supplier);
+        return supplier instanceof Memoized || supplier instanceof Racy ? cast(supplier) : new Racy<>(supplier);
+    }
+
+    /** Marks a memoized Supplier whose value has not been computed yet. */
+    private static final Object UNINITIALIZED = new Object();
+
+    /** Stands in for a cached null, so that null can be distinguished from an uninitialized value. */
+    private static final Object NULL = new Object();
+
+    private static Object mask(Object value) {
+        return value == null ? NULL : value;
+    }
 
-        class Proxy implements Supplier<T> {
-            private boolean initialized = false;
+    private static <T> T unmask(Object value) {
+        @SuppressWarnings("unchecked") // safe because only results of the principal are cached
+        var result = (T) (value == NULL ? null : value);
+        return result;
+    }
+
+    private static VarHandle handle(Class<?> type, String name) {
+        try {
+            return MethodHandles.lookup().findVarHandle(type, name, Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Marks a memoized Supplier whose value is being computed, with no other threads waiting for it yet. */
+    private static final Object COMPUTING = new Object();
+
+    /**
+     * Computes its value at most once.
+     *
+     * <p>The state is either {@code UNINITIALIZED}, {@code COMPUTING}, a stack of {@code Waiter}s parked until the
+     * computation finishes, or the (masked) result. An uncontended computation allocates nothing: a waiter is only
+     * pushed when a second thread arrives while the value is being computed.
+     */
+    private static final class Memoized<T> implements Supplier<T> {
+        private static final VarHandle STATE = handle(Memoized.class, "state");
+
+        /** Only read by the thread that owns the computation, and cleared once the result is cached. */
+        private Supplier<? extends T> principal;
 
-            private Supplier<T> delegate;
+        /**
+         * The thread computing the value, if any. Other threads may read a stale value, but never the current thread,
+         * because only the owner ever writes it.
+         */
+        private Thread owner;
+
+        private volatile Object state = UNINITIALIZED;
+
+        Memoized(Supplier<? extends T> principal) {
+            this.principal = principal;
+        }
 
-            Proxy(Supplier<? extends T> principal) {
-                requireNonNull(principal);
-                this.delegate = () -> {
-                    synchronized(this) {
-                        if(!this.initialized) {
-                            T result = principal.get();
-                            this.delegate = () -> result;
-                            this.initialized = true;
+        @Override
+        public T get() {
+            var state = this.state;
+            return state == UNINITIALIZED || pending(state) ? this.compute() : unmask(state);
+        }
+
+        private T compute() {
+            for (;;) {
+                var state = this.state;
+                if (state == UNINITIALIZED) {
+                    if (STATE.compareAndSet(this, UNINITIALIZED, COMPUTING)) {
+                        this.owner = Thread.currentThread();
+                        Object outcome = UNINITIALIZED;
+                        try {
+                            T result = this.principal.get();
+                            this.principal = null;
+                            outcome = mask(result);
                             return result;
-                        } else {
-                            return this.delegate.get();
+                        } finally {
+                            this.owner = null;
+                            Waiter.release(STATE.getAndSet(this, outcome));
                         }
                     }
-                };
+                } else if (pending(state)) {
+                    if (this.owner == Thread.currentThread()) {
+                        return this.principal.get(); // reentrant, like a monitor
+                    }
+                    var waiter = new Waiter(state == COMPUTING ? null : (Waiter) state);
+                    if (STATE.compareAndSet(this, state, waiter)) {
+                        this.await();
+                    }
+                } else {
+                    return unmask(state);
+                }
             }
+        }
 
-            @Override
-            public T get() {
-                return this.delegate.get();
+        /** True if and only if the state is a computation in progress. */
+        private static boolean pending(Object state) {
+            return state == COMPUTING || state instanceof Waiter;
+        }
+
+        /** Park until the value has been computed or the computation has failed. */
+        private void await() {
+            var interrupted = false;
+            while (pending(this.state)) {
+                LockSupport.park(this);
+                interrupted |= Thread.interrupted();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
         }
+    }
+
+    /** A thread parked on a computation in progress, and the threads that were already parked before it. */
+    private static final class Waiter {
+        private final Thread thread = Thread.currentThread();
+
+        private final Waiter next;
+
+        Waiter(Waiter next) {
+            this.next = next;
+        }
 
-        return supplier instanceof Proxy ? (Proxy) supplier : new Proxy(supplier);
+        /** Unpark the waiters in the state that a computation replaced, if any. */
+        static void release(Object state) {
+            if (state instanceof Waiter) {
+                for (var waiter = (Waiter) state; waiter != null; waiter = waiter.next) {
+                    LockSupport.unpark(waiter.thread);
+                }
+            }
+        }
+    }
+
+    /** Computes its value at least once, publishing the first result with a compare-and-set. */
+    private static final class Racy<T> implements Supplier<T> {
+        private static final VarHandle VALUE = handle(Racy.class, "value");
+
+        private volatile Supplier<? extends T> principal;
+
+        private volatile Object value = UNINITIALIZED;
+
+        Racy(Supplier<? extends T> principal) {
+            this.principal = principal;
+        }
+
+        @Override
+        public T get() {
+            var value = this.value;
+            if (value != UNINITIALIZED) {
+                return unmask(value);
+            }
+            var principal = this.principal;
+            if (principal == null) {
+                return unmask(this.value);
+            }
+            T result = principal.get();
+            if (VALUE.compareAndSet(this, UNINITIALIZED, mask(result))) {
+                this.principal = null;
+                return result;
+            }
+            return unmask(this.value);
+        }
     }
 
     /**
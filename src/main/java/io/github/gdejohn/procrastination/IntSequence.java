@@ -0,0 +1,967 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Spliterator.IMMUTABLE;
+import static java.util.Spliterator.ORDERED;
+
+/**
+ * A lazily evaluated, persistent, ordered collection of zero or more {@code int} values, possibly infinite, allowing
+ * duplicates.
+ *
+ * <p>This is the {@code int} specialization of {@link Sequence}, and the model for {@link LongSequence} and
+ * {@link DoubleSequence}. It has the same recursive structure (either {@link IntSequence#empty() empty}, or
+ * {@link IntSequence#cons(int, IntSequence) constructed} from a head and a tail), the same
+ * {@link IntSequence#lazy(Supplier) laziness}, and the same {@link IntSequence#memoize() memoization}, but its
+ * elements are never boxed. Terminal operations run in loops rather than recursion, reading arrays and ranges
+ * directly, so they are stack-safe and allocate next to nothing.
+ *
+ * <p>Convert to and from other representations with {@link IntSequence#boxed()},
+ * {@link IntSequence#mapToObj(IntFunction)}, {@link IntSequence#stream()}, {@link IntSequence#memoize(IntStream)}, and
+ * {@link Sequence#mapToInt(java.util.function.ToIntFunction)}.
+ *
+ * @see Sequence
+ * @see LongSequence
+ * @see DoubleSequence
+ */
+public abstract class IntSequence {
+    /**
+     * A function of the head and tail of a non-empty {@code IntSequence}.
+     *
+     * @param <R> the type of the result
+     *
+     * @see IntSequence#match(Match, Supplier)
+     */
+    @FunctionalInterface
+    public interface Match<R> {
+        R apply(int head, IntSequence tail);
+    }
+
+    private static abstract class Proxy extends IntSequence {
+        protected Proxy() {}
+
+        protected abstract IntSequence principal();
+
+        @Override
+        public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+            return this.principal().match(function, otherwise);
+        }
+
+        @Override
+        public <R> R matchLazy(BiFunction<? super IntSupplier, ? super IntSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+            return this.principal().matchLazy(function, otherwise);
+        }
+    }
+
+    private static final IntSequence EMPTY = new IntSequence() {
+        @Override
+        public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+            return otherwise.get();
+        }
+
+        @Override
+        public <R> R matchLazy(BiFunction<? super IntSupplier, ? super IntSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+            return otherwise.get();
+        }
+
+        @Override
+        public IntSequence memoize() {
+            return this;
+        }
+    };
+
+    /**
+     * A non-empty run of elements looked up by index, followed by the rest of a sequence, so that sequences backed by
+     * arrays or ranges can be traversed with tight loops.
+     *
+     * <p>Reading an element is cheap and has no side effects, so indexed sequences count as memoized as long as the
+     * rest is memoized.
+     */
+    private static abstract class Indexed extends IntSequence {
+        final long from;
+
+        final long to;
+
+        final IntSequence rest;
+
+        Indexed(long from, long to, IntSequence rest) {
+            this.from = from;
+            this.to = to;
+            this.rest = rest.memoize();
+        }
+
+        /** The element at a given index, which must be in bounds. */
+        abstract int get(long index);
+
+        /** The elements in a given range of indices of the same source, followed by another sequence. */
+        abstract IntSequence slice(long from, long to, IntSequence rest);
+
+        long size() {
+            return this.to - this.from;
+        }
+
+        @Override
+        public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+            return function.apply(this.get(this.from), this.slice(this.from + 1, this.to, this.rest));
+        }
+
+        @Override
+        public <R> R matchLazy(BiFunction<? super IntSupplier, ? super IntSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+            return function.apply(
+                (IntSupplier) () -> this.get(this.from),
+                this.slice(this.from + 1, this.to, this.rest)
+            );
+        }
+
+        @Override
+        public IntSequence memoize() {
+            return this;
+        }
+    }
+
+    /** A slice of an array followed by the rest of a sequence. */
+    private static final class Chunk extends Indexed {
+        private final int[] elements;
+
+        Chunk(int[] elements, long from, long to, IntSequence rest) {
+            super(from, to, rest);
+            this.elements = elements;
+        }
+
+        @Override
+        int get(long index) {
+            return this.elements[(int) index];
+        }
+
+        @Override
+        IntSequence slice(long from, long to, IntSequence rest) {
+            return from < to ? new Chunk(this.elements, from, to, rest) : rest;
+        }
+    }
+
+    /** A slice of an arithmetic progression with a common difference of one, followed by the rest of a sequence. */
+    private static final class Range extends Indexed {
+        private final long first;
+
+        Range(long first, long from, long to, IntSequence rest) {
+            super(from, to, rest);
+            this.first = first;
+        }
+
+        @Override
+        int get(long index) {
+            return (int) (this.first + index);
+        }
+
+        @Override
+        IntSequence slice(long from, long to, IntSequence rest) {
+            return from < to ? new Range(this.first, from, to, rest) : rest;
+        }
+    }
+
+    /**
+     * A sequence followed by a queue of further sequences.
+     *
+     * <p>Concatenating onto a concatenation appends to its queue instead of wrapping it, and a concatenation that turns
+     * out to begin with another concatenation splices the other queue in front of its own, so nesting depth never
+     * accumulates, however the concatenations were built.
+     */
+    private static final class Concatenation extends IntSequence.Proxy {
+        private final IntSequence first;
+
+        private final FingerTree<IntSequence, Unit> rest;
+
+        Concatenation(IntSequence first, FingerTree<IntSequence, Unit> rest) {
+            this.first = first;
+            this.rest = rest;
+        }
+
+        /** A sequence followed by another, flattening the first one if it is already a concatenation. */
+        static IntSequence of(IntSequence first, IntSequence second) {
+            if (first instanceof Concatenation) {
+                var concatenation = (Concatenation) first;
+                return new Concatenation(concatenation.first, concatenation.rest.append(second));
+            } else {
+                return new Concatenation(first, FingerTree.of(second));
+            }
+        }
+
+        @Override
+        protected IntSequence principal() {
+            var first = this.first;
+            var rest = this.rest;
+            while (true) {
+                if (first instanceof Concatenation) {
+                    var concatenation = (Concatenation) first;
+                    first = concatenation.first;
+                    rest = concatenation.rest.concatenate(rest);
+                    continue;
+                }
+                var resolved = IntSequence.resolve(first);
+                if (rest.isEmpty()) {
+                    return resolved;
+                } else if (resolved instanceof Indexed) {
+                    var indexed = (Indexed) resolved;
+                    return indexed.slice(indexed.from, indexed.to, new Concatenation(indexed.rest, rest));
+                }
+                var queue = rest;
+                var cell = resolved.match(
+                    (head, tail) -> IntSequence.cons(head, new Concatenation(tail, queue)),
+                    (IntSequence) null
+                );
+                if (cell != null) {
+                    return cell;
+                }
+                first = rest.head().orThrow();
+                rest = rest.tail().orThrow();
+            }
+        }
+    }
+
+    /**
+     * The only constructor of this class, declared private so that the static factory methods declared inside of this
+     * class can see it, but nothing else can.
+     */
+    private IntSequence() {}
+
+    /** Strip away any proxies around a sequence, evaluating them. */
+    private static IntSequence resolve(IntSequence sequence) {
+        while (sequence instanceof IntSequence.Proxy) {
+            sequence = ((IntSequence.Proxy) sequence).principal();
+        }
+        return sequence;
+    }
+
+    /** A sequence that delegates pattern matching to a lazily evaluated sequence. */
+    public static IntSequence lazy(Supplier<? extends IntSequence> sequence) {
+        requireNonNull(sequence);
+        return new IntSequence.Proxy() {
+            @Override
+            protected IntSequence principal() {
+                return IntSequence.resolve(sequence.get());
+            }
+        };
+    }
+
+    /**
+     * The empty sequence.
+     *
+     * @see IntSequence#cons(int, IntSequence)
+     * @see IntSequence#of(int...)
+     */
+    public static IntSequence empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Construct a non-empty sequence.
+     *
+     * @param head the first element of the sequence
+     * @param tail the rest of the elements of the sequence
+     *
+     * @see IntSequence#empty()
+     * @see IntSequence#cons(int, Supplier)
+     */
+    public static IntSequence cons(int head, IntSequence tail) {
+        requireNonNull(tail);
+        return new IntSequence() {
+            @Override
+            public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply(head, tail);
+            }
+
+            @Override
+            public <R> R matchLazy(BiFunction<? super IntSupplier, ? super IntSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply((IntSupplier) () -> head, tail);
+            }
+        };
+    }
+
+    /** Construct a non-empty sequence with a lazily evaluated tail. */
+    public static IntSequence cons(int head, Supplier<? extends IntSequence> tail) {
+        requireNonNull(tail);
+        return new IntSequence() {
+            @Override
+            public <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply(head, tail.get());
+            }
+
+            @Override
+            public <R> R matchLazy(BiFunction<? super IntSupplier, ? super IntSequence, ? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply((IntSupplier) () -> head, tail.get());
+            }
+        };
+    }
+
+    /**
+     * A sequence of zero or more elements.
+     *
+     * @see IntSequence#from(int[])
+     */
+    public static IntSequence of(int... elements) {
+        return IntSequence.from(elements);
+    }
+
+    /** A lazy view of an array as a sequence. */
+    public static IntSequence from(int[] array) {
+        return array.length == 0 ? EMPTY : new Chunk(array, 0, array.length, EMPTY);
+    }
+
+    /**
+     * A memoized sequence of the elements produced by a stream.
+     *
+     * <p>The sequence must be {@link IntSequence#memoize() memoized} because streams can only be traversed once.
+     */
+    public static IntSequence memoize(IntStream stream) {
+        return IntSequence.memoize(stream.iterator());
+    }
+
+    /**
+     * A memoized sequence of the elements produced by an iterator.
+     *
+     * <p>The sequence must be {@link IntSequence#memoize() memoized} because iterators can only be traversed once.
+     */
+    public static IntSequence memoize(PrimitiveIterator.OfInt iterator) {
+        requireNonNull(iterator);
+        return IntSequence.lazy(
+            () -> iterator.hasNext() ? IntSequence.cons(iterator.nextInt(), IntSequence.memoize(iterator)) : EMPTY
+        ).memoize();
+    }
+
+    /**
+     * The closed interval of consecutive integers from {@code from} to {@code to}, or the empty sequence if
+     * {@code from} is greater than {@code to}.
+     */
+    public static IntSequence range(int from, int to) {
+        return from > to ? EMPTY : new Range(from, 0, (long) to - from + 1, EMPTY);
+    }
+
+    /**
+     * An infinite sequence where each element after the first is defined in terms of the preceding element.
+     *
+     * @param initial the first element of the sequence
+     * @param next takes an element of the sequence and returns the next element
+     */
+    public static IntSequence iterate(int initial, IntUnaryOperator next) {
+        requireNonNull(next);
+        return IntSequence.cons(initial, () -> IntSequence.iterate(next.applyAsInt(initial), next));
+    }
+
+    /**
+     * Return a value defined in terms of the head and tail of this sequence if it is non-empty, otherwise return a
+     * lazy default value.
+     *
+     * @param <R> the type of the result
+     *
+     * @see IntSequence#match(Match, Object)
+     * @see IntSequence#matchLazy(BiFunction, Supplier)
+     */
+    public abstract <R> R match(Match<? extends R> function, Supplier<? extends R> otherwise);
+
+    /**
+     * Return a value defined in terms of the head and tail of this sequence if it is non-empty, otherwise return a
+     * default value.
+     *
+     * @param <R> the type of the result
+     *
+     * @see IntSequence#match(Match, Supplier)
+     */
+    public <R> R match(Match<? extends R> function, R otherwise) {
+        return this.match(function, () -> otherwise);
+    }
+
+    /**
+     * Return a value defined in terms of the lazy head and the tail of this sequence if it is non-empty, otherwise
+     * return a lazy default value.
+     *
+     * @param <R> the type of the result
+     *
+     * @see IntSequence#match(Match, Supplier)
+     */
+    public abstract <R> R matchLazy(BiFunction<? super IntSupplier, ? super IntSequence, ? extends R> function, Supplier<? extends R> otherwise);
+
+    /**
+     * A sequence that only computes each element at most once, the first time it is asked for, delegating to this
+     * sequence and caching the result.
+     */
+    public IntSequence memoize() {
+        return IntSequence.memoize(this);
+    }
+
+    private static IntSequence memoize(IntSequence sequence) {
+        class MemoizedSequence extends IntSequence.Proxy {
+            private final Supplier<IntSequence> principal;
+
+            MemoizedSequence(Supplier<IntSequence> principal) {
+                this.principal = principal;
+            }
+
+            @Override
+            protected IntSequence principal() {
+                return this.principal.get();
+            }
+
+            @Override
+            public IntSequence memoize() {
+                return this;
+            }
+        }
+
+        if (sequence instanceof MemoizedSequence) {
+            return sequence;
+        } else {
+            Supplier<IntSequence> principal = Functions.memoize(
+                () -> {
+                    var resolved = IntSequence.resolve(sequence);
+                    if (resolved instanceof Indexed || resolved == EMPTY) {
+                        return resolved.memoize();
+                    } else {
+                        return resolved.match(
+                            (head, tail) -> IntSequence.cons(head, tail.memoize()),
+                            EMPTY
+                        );
+                    }
+                }
+            );
+            return new MemoizedSequence(principal);
+        }
+    }
+
+    /** Force the evaluation of every element of this sequence, copying them into an array. */
+    public IntSequence eager() {
+        return IntSequence.from(this.array());
+    }
+
+    /** True if and only if this sequence has no elements. */
+    public boolean isEmpty() {
+        return this.matchLazy((head, tail) -> false, () -> true);
+    }
+
+    /** The first element of this sequence, if this sequence is non-empty. */
+    public OptionalInt head() {
+        return this.match((head, tail) -> OptionalInt.of(head), OptionalInt::empty);
+    }
+
+    /** The elements of this sequence excluding the head, if this sequence is non-empty. */
+    public Maybe<IntSequence> tail() {
+        return this.matchLazy((head, tail) -> Maybe.of(tail), Maybe::empty);
+    }
+
+    /**
+     * The nonnegative number of elements in this sequence.
+     *
+     * @throws ArithmeticException if the length overflows a long
+     */
+    public long length() {
+        long length = 0;
+        for (var sequence = IntSequence.resolve(this); sequence != EMPTY; sequence = IntSequence.resolve(sequence)) {
+            if (sequence instanceof Indexed) {
+                var indexed = (Indexed) sequence;
+                length = Math.addExact(length, indexed.size());
+                sequence = indexed.rest;
+            } else {
+                length = Math.incrementExact(length);
+                sequence = sequence.matchLazy((head, tail) -> tail, IntSequence::empty);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Combine the elements of this sequence into a single result, accumulating from the left.
+     *
+     * @see IntSequence#sum()
+     */
+    public int foldLeft(int initial, IntBinaryOperator function) {
+        requireNonNull(function);
+        var result = initial;
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            result = function.applyAsInt(result, cursor.nextInt());
+        }
+        return result;
+    }
+
+    /**
+     * The sum of the elements of this sequence, widened to a long.
+     *
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public long sum() {
+        long sum = 0;
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            sum = Math.addExact(sum, cursor.nextInt());
+        }
+        return sum;
+    }
+
+    /** The greatest element of this sequence, if this sequence is non-empty. */
+    public OptionalInt maximum() {
+        var cursor = new Cursor(this);
+        if (cursor.hasNext()) {
+            var maximum = cursor.nextInt();
+            while (cursor.hasNext()) {
+                maximum = Math.max(maximum, cursor.nextInt());
+            }
+            return OptionalInt.of(maximum);
+        } else {
+            return OptionalInt.empty();
+        }
+    }
+
+    /** The least element of this sequence, if this sequence is non-empty. */
+    public OptionalInt minimum() {
+        var cursor = new Cursor(this);
+        if (cursor.hasNext()) {
+            var minimum = cursor.nextInt();
+            while (cursor.hasNext()) {
+                minimum = Math.min(minimum, cursor.nextInt());
+            }
+            return OptionalInt.of(minimum);
+        } else {
+            return OptionalInt.empty();
+        }
+    }
+
+    /** The arithmetic mean of the elements of this sequence, if this sequence is non-empty. */
+    public OptionalDouble average() {
+        long count = 0;
+        double sum = 0;
+        for (var cursor = new Cursor(this); cursor.hasNext(); count++) {
+            sum += cursor.nextInt();
+        }
+        return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum / count);
+    }
+
+    /** True if and only if at least one element of this sequence satisfies a predicate. */
+    public boolean any(IntPredicate predicate) {
+        requireNonNull(predicate);
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            if (predicate.test(cursor.nextInt())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** True if and only if every element of this sequence satisfies a predicate. */
+    public boolean all(IntPredicate predicate) {
+        requireNonNull(predicate);
+        return !this.any(predicate.negate());
+    }
+
+    /** The first element of this sequence that satisfies a predicate, if such an element exists. */
+    public OptionalInt find(IntPredicate predicate) {
+        requireNonNull(predicate);
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            var element = cursor.nextInt();
+            if (predicate.test(element)) {
+                return OptionalInt.of(element);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /** Perform an action on each element of this sequence. */
+    public void forEach(IntConsumer action) {
+        requireNonNull(action);
+        new Cursor(this).forEachRemaining(action);
+    }
+
+    /** Lazily apply a function to each element of this sequence. */
+    public IntSequence map(IntUnaryOperator function) {
+        requireNonNull(function);
+        return IntSequence.lazy(
+            () -> this.match(
+                (head, tail) -> IntSequence.cons(function.applyAsInt(head), tail.map(function)),
+                EMPTY
+            )
+        );
+    }
+
+    /** Lazily apply a function to each element of this sequence, boxing the results into a sequence. */
+    public <R> Sequence<R> mapToObj(IntFunction<? extends R> function) {
+        requireNonNull(function);
+        return Sequence.lazy(
+            () -> this.match(
+                (head, tail) -> Sequence.cons(function.apply(head), tail.mapToObj(function)),
+                Sequence.empty()
+            )
+        );
+    }
+
+    /** Lazily apply a function to each element of this sequence, producing a {@code long} sequence. */
+    public LongSequence mapToLong(IntToLongFunction function) {
+        requireNonNull(function);
+        return LongSequence.lazy(
+            () -> this.match(
+                (head, tail) -> LongSequence.cons(function.applyAsLong(head), tail.mapToLong(function)),
+                LongSequence.empty()
+            )
+        );
+    }
+
+    /** Lazily apply a function to each element of this sequence, producing a {@code double} sequence. */
+    public DoubleSequence mapToDouble(IntToDoubleFunction function) {
+        requireNonNull(function);
+        return DoubleSequence.lazy(
+            () -> this.match(
+                (head, tail) -> DoubleSequence.cons(function.applyAsDouble(head), tail.mapToDouble(function)),
+                DoubleSequence.empty()
+            )
+        );
+    }
+
+    /** A lazy view of this sequence with each element widened to a {@code long}. */
+    public LongSequence asLongSequence() {
+        return this.mapToLong(element -> element);
+    }
+
+    /** A lazy view of this sequence with each element widened to a {@code double}. */
+    public DoubleSequence asDoubleSequence() {
+        return this.mapToDouble(element -> element);
+    }
+
+    /** A lazy view of this sequence as a sequence of boxed elements. */
+    public Sequence<Integer> boxed() {
+        return this.mapToObj(Integer::valueOf);
+    }
+
+    /** Lazily keep only the elements of this sequence that satisfy a predicate. */
+    public IntSequence filter(IntPredicate predicate) {
+        requireNonNull(predicate);
+        return IntSequence.lazy(
+            () -> {
+                for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+                    var element = cursor.nextInt();
+                    if (predicate.test(element)) {
+                        var rest = cursor.rest();
+                        return IntSequence.cons(element, () -> rest.filter(predicate));
+                    }
+                }
+                return EMPTY;
+            }
+        );
+    }
+
+    /** The first {@code length} elements of this sequence, or all of them if there are not that many. */
+    public IntSequence take(long length) {
+        if (length <= 0) {
+            return EMPTY;
+        } else {
+            return IntSequence.lazy(
+                () -> {
+                    var sequence = IntSequence.resolve(this);
+                    if (sequence instanceof Indexed) {
+                        var indexed = (Indexed) sequence;
+                        if (length <= indexed.size()) {
+                            return indexed.slice(indexed.from, indexed.from + length, EMPTY);
+                        }
+                    }
+                    return sequence.match((head, tail) -> IntSequence.cons(head, tail.take(length - 1)), EMPTY);
+                }
+            );
+        }
+    }
+
+    /** The longest prefix of this sequence whose elements satisfy a predicate. */
+    public IntSequence takeWhile(IntPredicate predicate) {
+        requireNonNull(predicate);
+        return IntSequence.lazy(
+            () -> this.match(
+                (head, tail) -> predicate.test(head) ? IntSequence.cons(head, tail.takeWhile(predicate)) : EMPTY,
+                EMPTY
+            )
+        );
+    }
+
+    /** The elements of this sequence after the first {@code length} elements. */
+    public IntSequence skip(long length) {
+        if (length <= 0) {
+            return this;
+        } else {
+            return IntSequence.lazy(
+                () -> {
+                    var cursor = new Cursor(this);
+                    cursor.skip(length);
+                    return cursor.rest();
+                }
+            );
+        }
+    }
+
+    /** The elements of this sequence after the longest prefix whose elements satisfy a predicate. */
+    public IntSequence skipWhile(IntPredicate predicate) {
+        requireNonNull(predicate);
+        return IntSequence.lazy(
+            () -> {
+                for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+                    var element = cursor.nextInt();
+                    if (!predicate.test(element)) {
+                        return IntSequence.cons(element, cursor.rest());
+                    }
+                }
+                return EMPTY;
+            }
+        );
+    }
+
+    /** Lazily append every element of another sequence to this sequence. */
+    public IntSequence concatenate(IntSequence sequence) {
+        requireNonNull(sequence);
+        return Concatenation.of(this, sequence);
+    }
+
+    /**
+     * An unmodifiable iterator over this sequence.
+     *
+     * @see IntSequence#spliterator()
+     * @see IntSequence#stream()
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new Cursor(this);
+    }
+
+    /**
+     * A late-binding spliterator over this sequence, which is sized if this sequence is backed by arrays or ranges
+     * all the way through.
+     *
+     * @see IntSequence#iterator()
+     * @see IntSequence#stream()
+     */
+    public Spliterator.OfInt spliterator() {
+        long size = 0;
+        for (IntSequence sequence = this; sequence != EMPTY && size >= 0; ) {
+            if (sequence instanceof Indexed) {
+                var indexed = (Indexed) sequence;
+                size += indexed.size();
+                sequence = indexed.rest;
+            } else {
+                size = -1;
+            }
+        }
+        if (size >= 0) {
+            return Spliterators.spliterator(this.iterator(), size, ORDERED | IMMUTABLE);
+        } else {
+            return Spliterators.spliteratorUnknownSize(this.iterator(), ORDERED);
+        }
+    }
+
+    /**
+     * A lazy view of this sequence as a stream.
+     *
+     * @see IntSequence#memoize(IntStream)
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(this.spliterator(), false);
+    }
+
+    /** An array of the elements of this sequence. */
+    public int[] array() {
+        var array = new int[16];
+        int length = 0;
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            if (length == array.length) {
+                array = Arrays.copyOf(array, Math.addExact(length, length));
+            }
+            array[length++] = cursor.nextInt();
+        }
+        return length == array.length ? array : Arrays.copyOf(array, length);
+    }
+
+    /**
+     * Return true if and only if the argument is a {@code IntSequence} with the same elements in the same order.
+     *
+     * <p>If this sequence is infinite and the argument is also an infinite sequence, they must not be equal, or this
+     * method will never return.
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (object instanceof IntSequence) {
+            var these = new Cursor(this);
+            var those = new Cursor((IntSequence) object);
+            while (these.hasNext() && those.hasNext()) {
+                if (Integer.compare(these.nextInt(), those.nextInt()) != 0) {
+                    return false;
+                }
+            }
+            return !these.hasNext() && !those.hasNext();
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Return the hash code of this sequence, following the contract of {@code List.hashCode()} for the boxed elements.
+     *
+     * <p>If this sequence is infinite, this method will never return.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (var cursor = new Cursor(this); cursor.hasNext(); ) {
+            hash = 31 * hash + Integer.hashCode(cursor.nextInt());
+        }
+        return hash;
+    }
+
+    /** Return the string representation of this sequence, truncating if there are more than thirty elements. */
+    @Override
+    public String toString() {
+        var joiner = new StringJoiner(", ", "[", "]");
+        var cursor = new Cursor(this);
+        for (int index = 0; cursor.hasNext(); index++) {
+            if (index == 30) {
+                joiner.add("...");
+                break;
+            }
+            joiner.add(String.valueOf(cursor.nextInt()));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Walks a sequence with a loop, reading indexed cells directly and matching other cells with a reusable function,
+     * so that traversal needs no recursion and allocates nothing per element.
+     */
+    private static final class Cursor implements PrimitiveIterator.OfInt {
+        private static final Supplier<Boolean> EXHAUSTED = () -> false;
+
+        /** The rest of the sequence, after the current indexed cell or the pending head, if any. */
+        private IntSequence sequence;
+
+        private Indexed indexed;
+
+        private long index;
+
+        private boolean pending = false;
+
+        private int head;
+
+        private final Match<Boolean> advance = (head, tail) -> {
+            this.head = head;
+            this.sequence = tail;
+            return true;
+        };
+
+        Cursor(IntSequence sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.pending || this.indexed != null) {
+                return true;
+            }
+            var sequence = IntSequence.resolve(this.sequence);
+            if (sequence instanceof Indexed) {
+                this.indexed = (Indexed) sequence;
+                this.index = this.indexed.from;
+                return true;
+            } else if (sequence.match(this.advance, EXHAUSTED)) {
+                this.pending = true;
+                return true;
+            } else {
+                this.sequence = EMPTY;
+                return false;
+            }
+        }
+
+        @Override
+        public int nextInt() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            } else if (this.pending) {
+                this.pending = false;
+                return this.head;
+            } else {
+                var indexed = this.indexed;
+                var element = indexed.get(this.index);
+                if (++this.index == indexed.to) {
+                    this.sequence = indexed.rest;
+                    this.indexed = null;
+                }
+                return element;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            while (this.hasNext()) {
+                var indexed = this.indexed;
+                if (indexed == null) {
+                    action.accept(this.nextInt());
+                } else {
+                    this.sequence = indexed.rest;
+                    this.indexed = null;
+                    for (long index = this.index, to = indexed.to; index < to; index++) {
+                        action.accept(indexed.get(index));
+                    }
+                }
+            }
+        }
+
+        /** Skip over at most {@code length} elements, jumping over indexed cells in constant time. */
+        void skip(long length) {
+            while (length > 0 && this.hasNext()) {
+                var indexed = this.indexed;
+                if (indexed == null) {
+                    this.pending = false;
+                    length--;
+                } else if (length < indexed.to - this.index) {
+                    this.index += length;
+                    return;
+                } else {
+                    length -= indexed.to - this.index;
+                    this.sequence = indexed.rest;
+                    this.indexed = null;
+                }
+            }
+        }
+
+        /** The remaining elements, as a sequence. */
+        IntSequence rest() {
+            if (this.pending) {
+                return IntSequence.cons(this.head, this.sequence);
+            } else if (this.indexed != null) {
+                return this.indexed.slice(this.index, this.indexed.to, this.indexed.rest);
+            } else {
+                return this.sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded cache for the cells of a {@link Sequence#memoize(MemoPolicy) memoized sequence}, deciding which computed
+ * cells to keep and which to evict, and counting hits, misses, and evictions.
+ *
+ * <p>Cells are cached by their position in the memoized sequence, so a traversal that recomputes an evicted cell picks
+ * up the cached cells after it again. An evicted cell is recomputed from the sequence that was memoized the next time
+ * it is asked for, so that sequence must be repeatable: a pipeline over arrays, ranges, or other pure sources, or a
+ * {@link Sequence#replay(java.util.function.Supplier) replayed} source, which pulls evicted regions again from a fresh
+ * iterator, rather than something that was itself {@link Sequence#memoize() memoized} or that pulls from a one-shot
+ * iterator.
+ *
+ * <p>Policies are stateful and thread-safe. Each one manages a single cache, so sequences memoized with the same policy
+ * instance share its capacity and its counters. The cells of a memoized sequence that is no longer reachable still
+ * count against the capacity of a bounded policy until they are evicted.
+ *
+ * @see Sequence#memoize(MemoPolicy)
+ * @see Sequence#memoize()
+ */
+public abstract class MemoPolicy {
+    /** The cached cells of one memoized sequence, keyed by position, and guarded by the policy that manages them. */
+    static final class Slots {
+        private final Map<Long, Slot> slots = new HashMap<>();
+    }
+
+    /** The cached value of the cell at a given position of a memoized sequence. */
+    private static final class Slot {
+        private final Slots owner;
+
+        private final long position;
+
+        /** Breaks ties between cells at the same position of different sequences. */
+        private final long id;
+
+        private final long weight;
+
+        private Object value;
+
+        Slot(Slots owner, long position, long id, long weight) {
+            this.owner = owner;
+            this.position = position;
+            this.id = id;
+            this.weight = weight;
+        }
+
+        /** Forget this slot, unless it has already been replaced. */
+        void remove() {
+            this.owner.slots.remove(this.position, this);
+        }
+    }
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private MemoPolicy() {}
+
+    /**
+     * Keep only the most recently computed cells, up to a given number of them.
+     *
+     * <p>This bounds memory for sequences traversed front to back, such as the lines of a large file read repeatedly.
+     * Runs of elements backed by arrays (e.g., the batches of {@link Sequence#replay(java.util.function.Supplier)})
+     * are cached as single cells that count as many cells as they have elements.
+     *
+     * <p>When the window is full, cells before the one being cached are evicted first, lowest position first, so a
+     * single traversal keeps the cells it computed most recently. If there are none, the cell furthest ahead is
+     * evicted instead, so a traversal that starts over doesn't push out the cells it is about to reach, and finds the
+     * end of the window still cached.
+     *
+     * @throws IllegalArgumentException if {@code cells} is not positive
+     *
+     * @see MemoPolicy#budget(long, ToLongFunction)
+     * @see MemoPolicy#soft()
+     */
+    public static MemoPolicy window(int cells) {
+        if (cells <= 0) {
+            throw new IllegalArgumentException("window must hold at least one cell: " + cells);
+        }
+        return new MemoPolicy.Bounded(cells, element -> 1);
+    }
+
+    /**
+     * Keep the most recently computed cells as long as their estimated total size fits in a given number of bytes.
+     *
+     * <p>Each cell is charged a fixed overhead plus the size of its element according to a given function, or of each
+     * of its elements if it is a run backed by an array. Cells are evicted in the same order as in a
+     * {@link MemoPolicy#window(int) window}. At least one cell is always kept, even if it is over budget on its own.
+     *
+     * @throws IllegalArgumentException if {@code bytes} is not positive
+     *
+     * @see MemoPolicy#window(int)
+     * @see MemoPolicy#soft()
+     */
+    public static MemoPolicy budget(long bytes, ToLongFunction<Object> sizeOf) {
+        requireNonNull(sizeOf);
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("budget must be positive: " + bytes);
+        }
+        return new MemoPolicy.Bounded(bytes, element -> CELL_OVERHEAD + sizeOf.applyAsLong(element));
+    }
+
+    /** The estimated number of bytes taken up by a memoized cell, not counting its element. */
+    private static final long CELL_OVERHEAD = 64;
+
+    /**
+     * Keep computed cells behind soft references, so that the garbage collector can reclaim them under memory
+     * pressure.
+     *
+     * @see MemoPolicy#window(int)
+     * @see MemoPolicy#budget(long, ToLongFunction)
+     */
+    public static MemoPolicy soft() {
+        return new MemoPolicy.Soft();
+    }
+
+    /** Holds each cell behind a soft reference, forgetting slots whose references have been cleared. */
+    private static final class Soft extends MemoPolicy {
+        /** A soft reference to the value of a slot. */
+        private static final class Value extends SoftReference<Object> {
+            private final Slot slot;
+
+            Value(Object value, Slot slot, ReferenceQueue<Object> queue) {
+                super(value, queue);
+                this.slot = slot;
+            }
+        }
+
+        private final ReferenceQueue<Object> cleared = new ReferenceQueue<>();
+
+        @Override
+        synchronized Object lookup(Slots slots, long position) {
+            this.purge();
+            var slot = slots.slots.get(position);
+            return slot == null ? null : ((Value) slot.value).get();
+        }
+
+        @Override
+        synchronized void store(Slots slots, long position, Object value, long weight) {
+            this.purge();
+            var slot = new Slot(slots, position, 0, weight);
+            slot.value = new Value(value, slot, this.cleared);
+            slots.slots.put(position, slot);
+        }
+
+        /** Forget the slots whose values have been reclaimed, counting them as evicted. */
+        private void purge() {
+            for (var value = this.cleared.poll(); value != null; value = this.cleared.poll()) {
+                var slot = ((Value) value).slot;
+                if (slot.owner.slots.get(slot.position) == slot) {
+                    slot.remove();
+                    this.evicted();
+                }
+            }
+        }
+    }
+
+    /** Evicts cells once their total weight exceeds a capacity, preferring cells behind the one being cached. */
+    private static final class Bounded extends MemoPolicy {
+        private static final Comparator<Slot> BY_POSITION = Comparator.<Slot>comparingLong(slot -> slot.position)
+            .thenComparingLong(slot -> slot.id);
+
+        private final long capacity;
+
+        private final ToLongFunction<Object> weigh;
+
+        private final TreeSet<Slot> resident = new TreeSet<>(BY_POSITION);
+
+        private long weight = 0;
+
+        private long stored = 0;
+
+        Bounded(long capacity, ToLongFunction<Object> weigh) {
+            this.capacity = capacity;
+            this.weigh = weigh;
+        }
+
+        @Override
+        long weigh(Object element) {
+            return this.weigh.applyAsLong(element);
+        }
+
+        @Override
+        synchronized Object lookup(Slots slots, long position) {
+            var slot = slots.slots.get(position);
+            return slot == null ? null : slot.value;
+        }
+
+        @Override
+        synchronized void store(Slots slots, long position, Object value, long weight) {
+            if (slots.slots.containsKey(position)) {
+                return; // computed concurrently by another thread
+            }
+            var slot = new Slot(slots, position, this.stored++, weight);
+            slot.value = value;
+            slots.slots.put(position, slot);
+            this.resident.add(slot);
+            this.weight += weight;
+            while (this.weight > this.capacity && this.resident.size() > 1) {
+                var lowest = this.resident.first();
+                var evicted = lowest.position < position ? lowest : this.resident.last();
+                this.resident.remove(evicted);
+                this.weight -= evicted.weight;
+                evicted.remove();
+                this.evicted();
+            }
+        }
+    }
+
+    /** The cached cell at a position of a memoized sequence, or null if it has not been computed or was evicted. */
+    abstract Object lookup(Slots slots, long position);
+
+    /** Cache the cell at a position of a memoized sequence, given its total weight, possibly evicting others. */
+    abstract void store(Slots slots, long position, Object value, long weight);
+
+    /** The weight of one element of a cell. */
+    long weigh(Object element) {
+        return 1;
+    }
+
+    /** Look up the cell at a position of a memoized sequence, counting a hit or a miss. */
+    final Object get(Slots slots, long position) {
+        var value = this.lookup(slots, position);
+        (value == null ? this.misses : this.hits).increment();
+        return value;
+    }
+
+    final void evicted() {
+        this.evictions.increment();
+    }
+
+    /** The number of times a cell was found in the cache. */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /** The number of times a cell was computed because it was not in the cache. */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /** The number of cells evicted from the cache so far. */
+    public long evictions() {
+        return this.evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "MemoPolicy[hits=%d, misses=%d, evictions=%d]",
+            this.hits(),
+            this.misses(),
+            this.evictions()
+        );
+    }
+}
@@ -0,0 +1,524 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A persistent, unordered mapping from non-null keys to non-null values.
+ *
+ * <p>Maps are immutable: {@link PersistentMap#put(Object, Object) put} and {@link PersistentMap#remove(Object) remove}
+ * return new maps that share all but a logarithmic number of nodes with the original. Entries are stored in a hash
+ * array mapped trie, consuming five bits of each key's hash code per level, so lookups and updates take time
+ * proportional to log<sub>32</sub>(n). Keys whose hash codes collide entirely share a single node and are compared with
+ * {@code equals()}.
+ *
+ * <p>Bulk loads ({@link PersistentMap#from(Map)}, {@link PersistentMap#toPersistentMap(Function, Function)}) go
+ * through a builder that modifies the nodes it creates in place until the result is published.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ *
+ * @see PersistentSet
+ * @see Vector
+ */
+public final class PersistentMap<K, V> {
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** Tracks the change in the number of entries caused by an update. */
+    private static final class Delta {
+        int size;
+    }
+
+    /**
+     * A node of the trie, which may only be modified in place by the builder that owns it, and only until that
+     * builder is done.
+     */
+    private static abstract class Node {
+        final Object owner;
+
+        final Object[] array;
+
+        Node(Object owner, Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+
+        /** The value mapped to a key, or null if absent. */
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(Object owner, int shift, int hash, Object key, Object value, Delta delta);
+
+        /** This node without the given key, or null if nothing would be left. */
+        abstract Node remove(Object owner, int shift, int hash, Object key, Delta delta);
+
+        /** This node with a slot of its array replaced, in place if the owner may modify it. */
+        final Node set(Object owner, int index, Object element) {
+            var node = owner != null && this.owner == owner ? this : this.copy(owner, this.array.clone());
+            node.array[index] = element;
+            return node;
+        }
+
+        abstract Node copy(Object owner, Object[] array);
+
+        /** Lazily view the entries of this node, starting from a given slot, followed by another sequence. */
+        final <K, V> Sequence<Pair<K, V>> entries(int index, Sequence<Pair<K, V>> rest) {
+            if (index >= this.array.length) {
+                return rest;
+            } else {
+                return Sequence.lazy(
+                    () -> {
+                        var key = this.array[index];
+                        var value = this.array[index + 1];
+                        var next = this.entries(index + 2, rest);
+                        if (key == null) {
+                            return ((Node) value).entries(0, next);
+                        } else {
+                            @SuppressWarnings("unchecked") // safe because only keys of type K are ever stored
+                            var pair = Pair.of((K) key, (V) value);
+                            return Sequence.cons(pair, next);
+                        }
+                    }
+                );
+            }
+        }
+
+        final void forEach(BiConsumer<Object, Object> action) {
+            for (var index = 0; index < this.array.length; index += 2) {
+                var key = this.array[index];
+                if (key == null) {
+                    ((Node) this.array[index + 1]).forEach(action);
+                } else {
+                    action.accept(key, this.array[index + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A node holding up to thirty-two slots, one per possible value of five bits of the hash code, with a bitmap of
+     * which slots are occupied. Each slot is a key followed by its value, or else null followed by a child node.
+     */
+    private static final class Bitmap extends Node {
+        private final int bitmap;
+
+        Bitmap(Object owner, int bitmap, Object[] array) {
+            super(owner, array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1)) * 2;
+        }
+
+        @Override
+        Node copy(Object owner, Object[] array) {
+            return new Bitmap(owner, this.bitmap, array);
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            var bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.bitmap & bit) == 0) {
+                return null;
+            } else {
+                var index = this.index(bit);
+                var other = this.array[index];
+                if (other == null) {
+                    return ((Node) this.array[index + 1]).find(shift + BITS, hash, key);
+                } else {
+                    return key.equals(other) ? this.array[index + 1] : null;
+                }
+            }
+        }
+
+        @Override
+        Node put(Object owner, int shift, int hash, Object key, Object value, Delta delta) {
+            var bit = 1 << ((hash >>> shift) & MASK);
+            var index = this.index(bit);
+            if ((this.bitmap & bit) == 0) {
+                delta.size++;
+                var array = new Object[this.array.length + 2];
+                System.arraycopy(this.array, 0, array, 0, index);
+                array[index] = key;
+                array[index + 1] = value;
+                System.arraycopy(this.array, index, array, index + 2, this.array.length - index);
+                return new Bitmap(owner, this.bitmap | bit, array);
+            } else {
+                var other = this.array[index];
+                var current = this.array[index + 1];
+                if (other == null) {
+                    var child = ((Node) current).put(owner, shift + BITS, hash, key, value, delta);
+                    return child == current ? this : this.set(owner, index + 1, child);
+                } else if (key.equals(other)) {
+                    return value == current ? this : this.set(owner, index + 1, value);
+                } else {
+                    delta.size++;
+                    var child = PersistentMap.node(owner, shift + BITS, other, current, hash, key, value);
+                    var node = this.set(owner, index, null);
+                    node.array[index + 1] = child;
+                    return node;
+                }
+            }
+        }
+
+        @Override
+        Node remove(Object owner, int shift, int hash, Object key, Delta delta) {
+            var bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            } else {
+                var index = this.index(bit);
+                var other = this.array[index];
+                if (other == null) {
+                    var current = (Node) this.array[index + 1];
+                    var child = current.remove(owner, shift + BITS, hash, key, delta);
+                    if (child == current) {
+                        return this;
+                    } else if (child != null) {
+                        return this.set(owner, index + 1, child);
+                    }
+                } else if (!key.equals(other)) {
+                    return this;
+                } else {
+                    delta.size--;
+                }
+                if (this.bitmap == bit) {
+                    return null;
+                } else {
+                    var array = new Object[this.array.length - 2];
+                    System.arraycopy(this.array, 0, array, 0, index);
+                    System.arraycopy(this.array, index + 2, array, index, array.length - index);
+                    return new Bitmap(owner, this.bitmap ^ bit, array);
+                }
+            }
+        }
+    }
+
+    /** A node holding keys whose hash codes are all equal, as alternating keys and values. */
+    private static final class Collision extends Node {
+        private final int hash;
+
+        Collision(Object owner, int hash, Object[] array) {
+            super(owner, array);
+            this.hash = hash;
+        }
+
+        private int index(Object key) {
+            for (var index = 0; index < this.array.length; index += 2) {
+                if (key.equals(this.array[index])) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Node copy(Object owner, Object[] array) {
+            return new Collision(owner, this.hash, array);
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash == this.hash) {
+                var index = this.index(key);
+                return index < 0 ? null : this.array[index + 1];
+            } else {
+                return null;
+            }
+        }
+
+        @Override
+        Node put(Object owner, int shift, int hash, Object key, Object value, Delta delta) {
+            if (hash == this.hash) {
+                var index = this.index(key);
+                if (index >= 0) {
+                    return this.array[index + 1] == value ? this : this.set(owner, index + 1, value);
+                } else {
+                    delta.size++;
+                    var array = new Object[this.array.length + 2];
+                    System.arraycopy(this.array, 0, array, 0, this.array.length);
+                    array[this.array.length] = key;
+                    array[this.array.length + 1] = value;
+                    return new Collision(owner, this.hash, array);
+                }
+            } else {
+                var bit = 1 << ((this.hash >>> shift) & MASK);
+                return new Bitmap(owner, bit, new Object[] {null, this}).put(owner, shift, hash, key, value, delta);
+            }
+        }
+
+        @Override
+        Node remove(Object owner, int shift, int hash, Object key, Delta delta) {
+            var index = hash == this.hash ? this.index(key) : -1;
+            if (index < 0) {
+                return this;
+            } else {
+                delta.size--;
+                if (this.array.length == 2) {
+                    return null;
+                } else {
+                    var array = new Object[this.array.length - 2];
+                    System.arraycopy(this.array, 0, array, 0, index);
+                    System.arraycopy(this.array, index + 2, array, index, array.length - index);
+                    return new Collision(owner, this.hash, array);
+                }
+            }
+        }
+    }
+
+    /** A node holding two distinct keys, below a given level. */
+    private static Node node(Object owner, int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        var hash1 = PersistentMap.hash(key1);
+        if (hash1 == hash2) {
+            return new Collision(owner, hash1, new Object[] {key1, value1, key2, value2});
+        } else {
+            var delta = new Delta();
+            return EMPTY_NODE.put(owner, shift, hash1, key1, value1, delta).put(owner, shift, hash2, key2, value2, delta);
+        }
+    }
+
+    /** Spread the higher bits of a hash code downward, since the trie consumes the lowest bits first. */
+    private static int hash(Object key) {
+        var hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final Node EMPTY_NODE = new Bitmap(null, 0, new Object[0]);
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(0, EMPTY_NODE);
+
+    private final int size;
+
+    private final Node root;
+
+    private PersistentMap(int size, Node root) {
+        this.size = size;
+        this.root = root;
+    }
+
+    /**
+     * The empty map.
+     *
+     * @see PersistentMap#from(Map)
+     */
+    @SuppressWarnings("unchecked") // safe because the empty map never produces any keys or values
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * A persistent copy of a map.
+     *
+     * @throws NullPointerException if any of the keys or values are null
+     *
+     * @see PersistentMap#toPersistentMap(Function, Function)
+     */
+    public static <K, V> PersistentMap<K, V> from(Map<? extends K, ? extends V> map) {
+        var builder = new Builder<K, V>();
+        map.forEach(builder::put);
+        return builder.build();
+    }
+
+    /**
+     * A collector that accumulates elements into a map, projecting each element into a key and a value. If two
+     * elements map to the same key, the value of the one encountered later wins.
+     *
+     * @see PersistentSet#toPersistentSet()
+     */
+    public static <T, K, V> Collector<T, ?, PersistentMap<K, V>> toPersistentMap(
+            Function<? super T, ? extends K> key,
+            Function<? super T, ? extends V> value) {
+        requireNonNull(key);
+        requireNonNull(value);
+        return Collector.of(
+            Builder<K, V>::new,
+            (builder, element) -> builder.put(key.apply(element), value.apply(element)),
+            (left, right) -> {
+                right.build().forEach(left::put);
+                return left;
+            },
+            Builder::build
+        );
+    }
+
+    /**
+     * Accumulates entries into a new map by modifying the nodes it creates in place, without copying paths. Once
+     * built, the nodes are published and the builder cannot be reused.
+     */
+    static final class Builder<K, V> {
+        private Object owner = new Object();
+
+        private final Delta delta = new Delta();
+
+        private Node root = EMPTY_NODE;
+
+        void put(K key, V value) {
+            requireNonNull(key);
+            requireNonNull(value);
+            if (this.owner == null) {
+                throw new IllegalStateException("map builder cannot be reused");
+            }
+            this.root = this.root.put(this.owner, 0, PersistentMap.hash(key), key, value, this.delta);
+        }
+
+        PersistentMap<K, V> build() {
+            if (this.owner == null) {
+                throw new IllegalStateException("map builder cannot be reused");
+            }
+            this.owner = null;
+            return this.delta.size == 0 ? PersistentMap.empty() : new PersistentMap<>(this.delta.size, this.root);
+        }
+    }
+
+    /** The number of entries in this map. */
+    public int size() {
+        return this.size;
+    }
+
+    /** True if and only if this map contains no entries. */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * The value mapped to a key, if it exists.
+     *
+     * @see PersistentMap#containsKey(Object)
+     */
+    @SuppressWarnings("unchecked") // safe because only values of type V are ever stored
+    public Maybe<V> get(Object key) {
+        var value = this.root.find(0, PersistentMap.hash(key), key);
+        return value == null ? Maybe.empty() : Maybe.of((V) value);
+    }
+
+    /**
+     * True if and only if this map contains an entry for the given key.
+     *
+     * @see PersistentMap#get(Object)
+     */
+    public boolean containsKey(Object key) {
+        return this.root.find(0, PersistentMap.hash(key), key) != null;
+    }
+
+    /**
+     * This map with the given key mapped to the given value, replacing any existing value.
+     *
+     * <p>If the key is already mapped to the same value (by identity), this map is returned as is.
+     *
+     * @see PersistentMap#remove(Object)
+     */
+    public PersistentMap<K, V> put(K key, V value) {
+        requireNonNull(key);
+        requireNonNull(value);
+        var delta = new Delta();
+        var root = this.root.put(null, 0, PersistentMap.hash(key), key, value, delta);
+        return root == this.root ? this : new PersistentMap<>(this.size + delta.size, root);
+    }
+
+    /**
+     * This map without the entry for a given key, or this map as is if it has no such entry.
+     *
+     * @see PersistentMap#put(Object, Object)
+     */
+    public PersistentMap<K, V> remove(Object key) {
+        var delta = new Delta();
+        var root = this.root.remove(null, 0, PersistentMap.hash(key), key, delta);
+        if (root == this.root) {
+            return this;
+        } else {
+            return root == null ? PersistentMap.empty() : new PersistentMap<>(this.size + delta.size, root);
+        }
+    }
+
+    /**
+     * Lazily view the entries of this map as a sequence of pairs, in no particular order.
+     *
+     * @see PersistentMap#keys()
+     * @see PersistentMap#values()
+     * @see Sequence#from(Map)
+     */
+    public Sequence<Pair<K, V>> entries() {
+        return this.root.entries(0, Sequence.empty());
+    }
+
+    /**
+     * Lazily view the keys of this map as a sequence, in no particular order.
+     *
+     * @see PersistentMap#entries()
+     */
+    public Sequence<K> keys() {
+        return this.entries().map(Pair::first);
+    }
+
+    /**
+     * Lazily view the values of this map as a sequence, in the same order as {@link PersistentMap#keys()}.
+     *
+     * @see PersistentMap#entries()
+     */
+    public Sequence<V> values() {
+        return this.entries().map(Pair::second);
+    }
+
+    /** Perform an action on each key and value of this map, in no particular order. */
+    @SuppressWarnings("unchecked") // safe because only keys of type K and values of type V are ever stored
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        requireNonNull(action);
+        this.root.forEach((key, value) -> action.accept((K) key, (V) value));
+    }
+
+    /**
+     * Return true if and only if the argument is a persistent map with the same entries as this map.
+     *
+     * @see Map#equals(Object)
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (object instanceof PersistentMap) {
+            var other = (PersistentMap<?, ?>) object;
+            return this.size == other.size && this.entries().all(
+                entry -> other.get(entry.first()).match(entry.second()::equals, false)
+            );
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Return the hash code of this map, following the contract of {@code Map.hashCode()}.
+     *
+     * @see Map#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return this.entries().foldLeft(
+            0,
+            (hash, entry) -> hash + (entry.first().hashCode() ^ entry.second().hashCode())
+        );
+    }
+
+    @Override
+    public String toString() {
+        return this.entries().map(entry -> entry.first() + "=" + entry.second()).toString(", ", "{", "}");
+    }
+}
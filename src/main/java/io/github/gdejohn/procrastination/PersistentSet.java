@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import static io.github.gdejohn.procrastination.Unit.unit;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A persistent, unordered collection of distinct, non-null elements.
+ *
+ * <p>Sets are immutable: {@link PersistentSet#add(Object) add} and {@link PersistentSet#remove(Object) remove} return
+ * new sets that share all but a logarithmic number of nodes with the original, so every version remains valid and can
+ * be shared freely among threads. A set is backed by a {@link PersistentMap} from its elements to {@link Unit}.
+ *
+ * @param <T> the type of the elements of this set
+ *
+ * @see PersistentMap
+ */
+public final class PersistentSet<T> implements Iterable<T> {
+    private static final PersistentSet<?> EMPTY = new PersistentSet<>(PersistentMap.empty());
+
+    private final PersistentMap<T, Unit> map;
+
+    private PersistentSet(PersistentMap<T, Unit> map) {
+        this.map = map;
+    }
+
+    /**
+     * The empty set.
+     *
+     * @see PersistentSet#of(Object...)
+     */
+    @SuppressWarnings("unchecked") // safe because the empty set never produces any elements
+    public static <T> PersistentSet<T> empty() {
+        return (PersistentSet<T>) EMPTY;
+    }
+
+    /**
+     * A set of the given elements, ignoring duplicates.
+     *
+     * @throws NullPointerException if any of the elements are null
+     *
+     * @see PersistentSet#from(Iterable)
+     */
+    @SafeVarargs
+    public static <T> PersistentSet<T> of(T... elements) {
+        var builder = new PersistentMap.Builder<T, Unit>();
+        for (var element : elements) {
+            builder.put(element, unit());
+        }
+        return PersistentSet.wrap(builder.build());
+    }
+
+    /**
+     * A set of the elements of an iterable, ignoring duplicates.
+     *
+     * @throws NullPointerException if any of the elements are null
+     *
+     * @see PersistentSet#toPersistentSet()
+     */
+    @SuppressWarnings("unchecked") // safe because sets are immutable
+    public static <T> PersistentSet<T> from(Iterable<? extends T> iterable) {
+        if (iterable instanceof PersistentSet) {
+            return (PersistentSet<T>) iterable;
+        } else {
+            var builder = new PersistentMap.Builder<T, Unit>();
+            iterable.forEach(element -> builder.put(element, unit()));
+            return PersistentSet.wrap(builder.build());
+        }
+    }
+
+    /**
+     * A collector that accumulates elements into a set, ignoring duplicates.
+     *
+     * @see PersistentMap#toPersistentMap(Function, Function)
+     */
+    public static <T> Collector<T, ?, PersistentSet<T>> toPersistentSet() {
+        return Collector.of(
+            PersistentMap.Builder<T, Unit>::new,
+            (builder, element) -> builder.put(element, unit()),
+            (left, right) -> {
+                right.build().forEach(left::put);
+                return left;
+            },
+            builder -> PersistentSet.wrap(builder.build())
+        );
+    }
+
+    private static <T> PersistentSet<T> wrap(PersistentMap<T, Unit> map) {
+        return map.isEmpty() ? PersistentSet.empty() : new PersistentSet<>(map);
+    }
+
+    /** The number of elements in this set. */
+    public int size() {
+        return this.map.size();
+    }
+
+    /** True if and only if this set contains no elements. */
+    public boolean isEmpty() {
+        return this.map.isEmpty();
+    }
+
+    /** True if and only if the argument is an element of this set. */
+    public boolean contains(Object element) {
+        return this.map.containsKey(element);
+    }
+
+    /**
+     * This set with an element added, or this set as is if it already contains that element.
+     *
+     * @see PersistentSet#remove(Object)
+     */
+    public PersistentSet<T> add(T element) {
+        var map = this.map.put(element, unit());
+        return map == this.map ? this : new PersistentSet<>(map);
+    }
+
+    /**
+     * This set without an element, or this set as is if it does not contain that element.
+     *
+     * @see PersistentSet#add(Object)
+     */
+    public PersistentSet<T> remove(Object element) {
+        var map = this.map.remove(element);
+        return map == this.map ? this : PersistentSet.wrap(map);
+    }
+
+    /**
+     * Lazily view the elements of this set as a sequence, in no particular order.
+     *
+     * @see PersistentMap#keys()
+     */
+    public Sequence<T> sequence() {
+        return this.map.keys();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this.sequence().iterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        requireNonNull(action);
+        this.map.forEach((element, unit) -> action.accept(element));
+    }
+
+    /**
+     * Return true if and only if the argument is a persistent set with the same elements as this set.
+     *
+     * @see Set#equals(Object)
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (object instanceof PersistentSet) {
+            var other = (PersistentSet<?>) object;
+            return this.size() == other.size() && this.sequence().all(other::contains);
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Return the hash code of this set, following the contract of {@code Set.hashCode()}.
+     *
+     * @see Set#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return this.sequence().foldLeft(0, (hash, element) -> hash + element.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return this.sequence().toString(", ", "{", "}");
+    }
+}
@@ -13,7 +13,11 @@
 
 package io.github.gdejohn.procrastination;
 
+import java.lang.reflect.Array;
+import java.util.AbstractList;
 import java.util.AbstractSequentialList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -27,20 +31,29 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.BaseStream;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -58,7 +71,6 @@ import static io.github.gdejohn.procrastination.Functions.gather;
 import static io.github.gdejohn.procrastination.Functions.let;
 import static io.github.gdejohn.procrastination.Functions.uncurry;
 import static io.github.gdejohn.procrastination.Maybe.when;
-import static io.github.gdejohn.procrastination.Pair.bySecond;
 import static io.github.gdejohn.procrastination.Predicates.gather;
 import static io.github.gdejohn.procrastination.Predicates.on;
 import static io.github.gdejohn.procrastination.Trampoline.call;
@@ -68,8 +80,11 @@ import static io.github.gdejohn.procrastination.Unit.unit;
 import static java.lang.Math.multiplyExact;
 import static java.util.Comparator.naturalOrder;
 import static java.util.Objects.requireNonNull;
+import static java.util.Spliterator.IMMUTABLE;
 import static java.util.Spliterator.NONNULL;
 import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterator.SIZED;
+import static java.util.Spliterator.SUBSIZED;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.mapping;
 
@@ -90,9 +105,10 @@ import static java.util.stream.Collectors.mapping;
  *
  * <p>Sequences implement {@link Iterable}, so they can be used in for-each loops. Unlike {@link Stream streams},
  * sequences can be traversed any number of times. The trade-off is that sequences derived from one-shot sources (e.g.,
- * iterators, streams) <em>must</em> be memoized. Sequences do not support parallel processing, but it is much easier
- * to recursively define new operations on sequences than working with spliterators to define new operations on
- * streams.
+ * iterators, streams) <em>must</em> be memoized. It is much easier to recursively define new operations on sequences
+ * than working with spliterators to define new operations on streams. Sequences themselves are processed
+ * sequentially, but their spliterators can be split, so {@link Sequence#stream() parallel streams} over sequences
+ * scale across cores, especially for sequences backed by arrays or ranges, which are sized and split by index.
  *
  * <p>There are a variety of static factory methods to create sequences from other representations of aggregate data:
  *
@@ -134,6 +150,7 @@ import static java.util.stream.Collectors.mapping;
  * <li>{@link Sequence#collect(Collector) Sequence.collect(Collector)}
  * <li>{@link Sequence#collect(Supplier,BiConsumer) Sequence.collect(Supplier,BiConsumer)}
  * <li>{@link Sequence#collect(Supplier) Sequence.&lt;C extends Collection&lt;T&gt;&gt;collect(Supplier&lt;C&gt;)}
+ * <li>{@link Sequence#parallelCollect(Collector) Sequence.parallelCollect(Collector)}
  * </ul>
  *
  * <p>There's also a collector that produces sequences, and it can take advantage of parallelism:
@@ -181,6 +198,26 @@ public abstract class Sequence<T> implements Iterable<T> {
         public <R> R matchNonEmpty(Function<? super Sequence<T>, ? extends R> function, Supplier<? extends R> otherwise) {
             return this.principal().matchNonEmpty(function, otherwise);
         }
+
+        @Override
+        boolean step(Uncons<T> uncons) {
+            return this.principal().step(uncons);
+        }
+
+        @Override
+        boolean stepLazy(Uncons<T> uncons) {
+            return this.principal().stepLazy(uncons);
+        }
+
+        @Override
+        Sequence<T> next() {
+            return this.principal().next();
+        }
+
+        @Override
+        Sequence<T> push(Predicate<? super T> action, Uncons<T> uncons) {
+            return this.principal();
+        }
     }
 
     private static final Sequence<?> EMPTY = new Sequence<>() {
@@ -194,6 +231,21 @@ public abstract class Sequence<T> implements Iterable<T> {
             return otherwise.get();
         }
 
+        @Override
+        boolean step(Uncons<Object> uncons) {
+            return false;
+        }
+
+        @Override
+        long knownLength() {
+            return 0;
+        }
+
+        @Override
+        Sequence<Object> next() {
+            return null;
+        }
+
         @Override
         public Sequence<Object> memoize() {
             return this;
@@ -220,6 +272,675 @@ public abstract class Sequence<T> implements Iterable<T> {
         }
     };
 
+    /**
+     * A non-empty run of elements looked up by index, followed by the rest of a sequence, so that sequences backed by
+     * arrays or index functions can be traversed with tight loops rather than allocating a cell for every element, and
+     * split by index in constant time.
+     *
+     * <p>The elements are read on demand, but reading them is cheap and has no side effects, so indexed sequences count
+     * as memoized as long as the rest is memoized, unless they are views of storage that the caller can still change.
+     */
+    private static abstract class Indexed<T> extends Sequence<T> {
+        final long from;
+
+        final long to;
+
+        final Sequence<T> rest;
+
+        /** True if the elements are read from storage that might still change, like an array passed in by a caller. */
+        final boolean view;
+
+        Indexed(long from, long to, Sequence<T> rest, boolean view) {
+            this.from = from;
+            this.to = to;
+            this.rest = rest.memoize();
+            this.view = view;
+        }
+
+        /** The element at a given index, which must be in bounds. */
+        abstract T get(long index);
+
+        /** The elements in a given range of indices of the same source, followed by another sequence. */
+        abstract Sequence<T> slice(long from, long to, Sequence<T> rest);
+
+        long size() {
+            return this.to - this.from;
+        }
+
+        @Override
+        long knownLength() {
+            long length = 0;
+            Sequence<T> sequence = this;
+            while (sequence instanceof Indexed && length >= 0) {
+                var chunk = (Indexed<T>) sequence;
+                length = Sequence.knownSum(length, chunk.size());
+                sequence = chunk.rest;
+            }
+            return Sequence.knownSum(length, sequence.knownLength());
+        }
+
+        @Override
+        Sequence<T> next() {
+            return this.slice(this.from + 1, this.to, this.rest);
+        }
+
+        @Override
+        Sequence<T> push(Predicate<? super T> action, Uncons<T> uncons) {
+            for (long index = this.from; index < this.to; index++) {
+                if (!action.test(this.get(index))) {
+                    return null;
+                }
+            }
+            return this.rest;
+        }
+
+        <R> R foldRight(R initial, BiFunction<? super T, R, R> function, long to) {
+            var result = initial;
+            for (long index = to - 1; index >= this.from; index--) {
+                result = function.apply(this.get(index), result);
+            }
+            return result;
+        }
+
+        void forEach(Consumer<? super T> action, long from) {
+            for (long index = from; index < this.to; index++) {
+                action.accept(this.get(index));
+            }
+        }
+
+        @Override
+        boolean step(Uncons<T> uncons) {
+            uncons.head = this.get(this.from);
+            uncons.tail = this.next();
+            return true;
+        }
+
+        @Override
+        public <R> R matchLazy(BiFunction<? super Supplier<T>, ? super Sequence<T>, ? extends R> uncons, R otherwise) {
+            return uncons.apply((Supplier<T>) () -> this.get(this.from), this.next());
+        }
+
+        @Override
+        public <R> R matchLazy(BiFunction<? super Supplier<T>, ? super Sequence<T>, ? extends R> uncons, Supplier<? extends R> otherwise) {
+            return uncons.apply((Supplier<T>) () -> this.get(this.from), this.next());
+        }
+
+        @Override
+        public <R> R match(BiFunction<? super T, ? super Sequence<T>, ? extends R> uncons, R otherwise) {
+            return uncons.apply(this.get(this.from), this.next());
+        }
+
+        @Override
+        public <R> R match(BiFunction<? super T, ? super Sequence<T>, ? extends R> uncons, Supplier<? extends R> otherwise) {
+            return uncons.apply(this.get(this.from), this.next());
+        }
+
+        @Override
+        public <R> R matchNonEmpty(Function<? super Sequence<T>, ? extends R> function, R otherwise) {
+            return function.apply(this);
+        }
+
+        @Override
+        public <R> R matchNonEmpty(Function<? super Sequence<T>, ? extends R> function, Supplier<? extends R> otherwise) {
+            return function.apply(this);
+        }
+
+        @Override
+        public <R> Maybe<R> matchNonEmpty(Function<? super Sequence<T>, ? extends R> function) {
+            return Maybe.of(() -> function.apply(this));
+        }
+
+        /** This sequence as is, unless it is a view, in which case its elements are copied when first asked for. */
+        @Override
+        public Sequence<T> memoize() {
+            if (!this.view) {
+                return this;
+            }
+            var snapshot = Functions.memoize(this::copy);
+            return new Proxy<T>() {
+                @Override
+                protected Sequence<T> principal() {
+                    return snapshot.get();
+                }
+
+                @Override
+                long knownLength() {
+                    return Indexed.this.knownLength();
+                }
+
+                @Override
+                public Sequence<T> memoize() {
+                    return this;
+                }
+            };
+        }
+
+        private Sequence<T> copy() {
+            var elements = new Object[(int) this.size()];
+            for (var index = 0; index < elements.length; index++) {
+                elements[index] = this.get(this.from + index);
+            }
+            return new Chunk<>(elements, 0, elements.length, this.rest, false);
+        }
+    }
+
+    /** A slice of an array followed by the rest of a sequence. */
+    private static final class Chunk<T> extends Indexed<T> {
+        private final Object[] elements;
+
+        Chunk(Object[] elements, long from, long to, Sequence<T> rest, boolean view) {
+            super(from, to, rest, view);
+            this.elements = elements;
+        }
+
+        @Override
+        T get(long index) {
+            @SuppressWarnings("unchecked") // safe because the array only ever holds elements of type T
+            var element = (T) requireNonNull(this.elements[(int) index]);
+            return element;
+        }
+
+        @Override
+        Sequence<T> slice(long from, long to, Sequence<T> rest) {
+            return from < to ? new Chunk<>(this.elements, from, to, rest, this.view) : rest;
+        }
+
+        @Override
+        void forEach(Consumer<? super T> action, long from) {
+            var elements = this.elements;
+            for (int index = (int) from, to = (int) this.to; index < to; index++) {
+                @SuppressWarnings("unchecked") // safe because the array only ever holds elements of type T
+                var element = (T) requireNonNull(elements[index]);
+                action.accept(element);
+            }
+        }
+
+        @Override
+        Sequence<T> push(Predicate<? super T> action, Uncons<T> uncons) {
+            var elements = this.elements;
+            for (int index = (int) this.from, to = (int) this.to; index < to; index++) {
+                @SuppressWarnings("unchecked") // safe because the array only ever holds elements of type T
+                var element = (T) requireNonNull(elements[index]);
+                if (!action.test(element)) {
+                    return null;
+                }
+            }
+            return this.rest;
+        }
+    }
+
+    /** Elements computed from their indices by a pure function that is cheap enough to call again on every read. */
+    private static final class Computed<T> extends Indexed<T> {
+        private final LongFunction<? extends T> function;
+
+        Computed(LongFunction<? extends T> function, long from, long to, Sequence<T> rest, boolean view) {
+            super(from, to, rest, view);
+            this.function = function;
+        }
+
+        @Override
+        T get(long index) {
+            return requireNonNull(this.function.apply(index));
+        }
+
+        @Override
+        Sequence<T> slice(long from, long to, Sequence<T> rest) {
+            return from < to ? new Computed<>(this.function, from, to, rest, this.view) : rest;
+        }
+    }
+
+    /**
+     * A sequence followed by a queue of further segments, each of which is a sequence, a supplier of a sequence, or a
+     * nested sequence of sequences.
+     *
+     * <p>Concatenating onto a concatenation appends to its queue instead of wrapping it, and a concatenation that turns
+     * out to begin with another concatenation splices the other queue in front of its own, so nesting depth never
+     * accumulates. Each step costs a constant amount of work regardless of how the concatenations were built, and
+     * empty segments are skipped in a loop rather than by recursion.
+     */
+    private static final class Concatenation<T> extends Proxy<T> {
+        /** A segment that is a sequence of sequences, to be flattened one inner sequence at a time. */
+        private static final class Nested {
+            private final Sequence<? extends Sequence<?>> sequences;
+
+            Nested(Sequence<? extends Sequence<?>> sequences) {
+                this.sequences = sequences;
+            }
+        }
+
+        private final Sequence<T> first;
+
+        private final FingerTree<Object, Unit> rest;
+
+        Concatenation(Sequence<T> first, FingerTree<Object, Unit> rest) {
+            this.first = first;
+            this.rest = rest;
+        }
+
+        /** The sum of the known lengths of the segments, if none of them are lazy or nested. */
+        @Override
+        long knownLength() {
+            var length = this.first.knownLength();
+            for (var segment : this.rest) {
+                if (length < 0 || !(segment instanceof Sequence)) {
+                    return -1;
+                }
+                length = Sequence.knownSum(length, ((Sequence<?>) segment).knownLength());
+            }
+            return length;
+        }
+
+        /** A sequence followed by a segment, flattening the sequence if it is already a concatenation. */
+        static <T> Sequence<T> of(Sequence<T> first, Object segment) {
+            if (first instanceof Concatenation) {
+                var concatenation = (Concatenation<T>) first;
+                return new Concatenation<>(concatenation.first, concatenation.rest.append(segment));
+            } else {
+                return new Concatenation<>(first, FingerTree.of(segment));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked") // safe because every segment only produces elements of type T
+        protected Sequence<T> principal() {
+            var first = this.first;
+            var rest = this.rest;
+            var uncons = new Uncons<Sequence<T>>();
+            while (true) {
+                if (first instanceof Concatenation) {
+                    var concatenation = (Concatenation<T>) first;
+                    first = concatenation.first;
+                    rest = concatenation.rest.concatenate(rest);
+                    continue;
+                }
+                var resolved = Sequence.resolve(first);
+                if (rest.isEmpty()) {
+                    return resolved;
+                } else if (resolved instanceof Indexed) {
+                    var chunk = (Indexed<T>) resolved;
+                    return chunk.slice(chunk.from, chunk.to, new Concatenation<>(chunk.rest, rest));
+                }
+                var queue = rest;
+                var cell = resolved.matchLazy(
+                    (head, tail) -> Sequence.cons(head, new Concatenation<>(tail, queue)),
+                    (Sequence<T>) null
+                );
+                if (cell != null) {
+                    return cell;
+                }
+                var segment = rest.head().orThrow();
+                rest = rest.tail().orThrow();
+                if (segment instanceof Nested) {
+                    var sequences = (Sequence<Sequence<T>>) ((Nested) segment).sequences;
+                    if (sequences.step(uncons)) {
+                        first = uncons.head;
+                        rest = rest.cons(new Nested(uncons.tail));
+                    } else {
+                        first = Sequence.empty();
+                    }
+                } else if (segment instanceof Supplier) {
+                    first = ((Supplier<Sequence<T>>) segment).get();
+                } else {
+                    first = (Sequence<T>) segment;
+                }
+            }
+        }
+    }
+
+    /**
+     * A chain of adjacent stateless stages (map, filter, takeWhile) fused over a source sequence, producing one cell
+     * per output element instead of one per stage.
+     *
+     * <p>The stages are composed into two functions. The eager function runs every stage up to and including the last
+     * filter or takeWhile, and returns {@code SKIP} to drop an element or {@code STOP} to end the sequence. The lazy
+     * function runs the maps after that, and is only applied when a head is asked for, so mapping never forces
+     * elements that are skipped over or only counted. Either function may be absent.
+     *
+     * <p>A pipeline built by a sequence operation recomputes its cells each time it is traversed, like any other lazy
+     * view, but the pipelines in the tails of the cells it produces are memoized, like the cells of
+     * {@link Sequence#lazy(Supplier)}.
+     */
+    private static final class Pipeline<T> extends Proxy<T> {
+        private static final Object SKIP = new Object();
+
+        private static final Object STOP = new Object();
+
+        private final Sequence<Object> source;
+
+        private final Function<Object, Object> eager;
+
+        private final Function<Object, Object> lazy;
+
+        private final Supplier<Sequence<T>> principal;
+
+        @SuppressWarnings("unchecked") // safe because the stages accept the elements of the source
+        private Pipeline(Sequence<?> source, Function<Object, Object> eager, Function<Object, Object> lazy, boolean memoize) {
+            this.source = (Sequence<Object>) source;
+            this.eager = eager;
+            this.lazy = lazy;
+            this.principal = memoize ? Functions.memoize(this::evaluate) : null;
+        }
+
+        @SuppressWarnings("unchecked") // safe because the stages accept the elements of the source
+        static <T, R> Sequence<R> map(Sequence<T> source, Function<? super T, ? extends R> function) {
+            requireNonNull(function);
+            var stage = (Function<Object, Object>) function;
+            if (Pipeline.fusible(source)) {
+                var pipeline = (Pipeline<T>) source;
+                var lazy = pipeline.lazy == null ? stage : pipeline.lazy.andThen(stage);
+                return new Pipeline<>(pipeline.source, pipeline.eager, lazy, false);
+            } else {
+                return new Pipeline<>(source, null, stage, false);
+            }
+        }
+
+        static <T> Sequence<T> filter(Sequence<T> source, Predicate<? super T> predicate) {
+            requireNonNull(predicate);
+            return Pipeline.fuse(source, predicate, SKIP);
+        }
+
+        static <T> Sequence<T> takeWhile(Sequence<T> source, Predicate<? super T> predicate) {
+            requireNonNull(predicate);
+            return Pipeline.fuse(source, predicate, STOP);
+        }
+
+        /** Append a stage that passes elements satisfying a predicate, and otherwise returns a signal. */
+        @SuppressWarnings("unchecked") // safe because the stages accept the elements of the source
+        private static <T> Sequence<T> fuse(Sequence<T> source, Predicate<? super T> predicate, Object signal) {
+            Function<Object, Object> stage = element -> predicate.test((T) element) ? element : signal;
+            if (Pipeline.fusible(source)) {
+                var pipeline = (Pipeline<T>) source;
+                var lazy = pipeline.lazy;
+                if (lazy != null) {
+                    var next = stage;
+                    stage = element -> next.apply(lazy.apply(element));
+                }
+                var eager = pipeline.eager;
+                if (eager != null) {
+                    var next = stage;
+                    stage = element -> {
+                        var result = eager.apply(element);
+                        return result == SKIP || result == STOP ? result : next.apply(result);
+                    };
+                }
+                return new Pipeline<>(pipeline.source, stage, null, false);
+            } else {
+                return new Pipeline<>(source, stage, null, false);
+            }
+        }
+
+        /**
+         * True if a sequence is a pipeline that more stages can be fused onto, which rules out the memoized pipelines
+         * in the tails of cells, since rebuilding from their sources would throw away the results they have cached.
+         */
+        private static boolean fusible(Sequence<?> source) {
+            return source instanceof Pipeline && ((Pipeline<?>) source).principal == null;
+        }
+
+        @Override
+        protected Sequence<T> principal() {
+            return this.principal == null ? this.evaluate() : this.principal.get();
+        }
+
+        /** Maps preserve length, but filters and takeWhile don't. */
+        @Override
+        long knownLength() {
+            return this.eager == null ? this.source.knownLength() : -1;
+        }
+
+        @SuppressWarnings("unchecked") // safe because the last stage produces elements of type T
+        private Sequence<T> evaluate() {
+            var lazy = this.lazy;
+            if (this.eager == null) {
+                return this.source.matchLazy(
+                    (head, tail) -> Sequence.cons(
+                        Functions.memoize(() -> (T) lazy.apply(head.get())),
+                        new Pipeline<>(tail, null, lazy, true)
+                    ),
+                    Sequence.empty()
+                );
+            } else {
+                var uncons = new Uncons<Object>();
+                for (var sequence = this.source; sequence.step(uncons); sequence = uncons.tail) {
+                    var element = this.eager.apply(uncons.head);
+                    if (element == STOP) {
+                        break;
+                    } else if (element != SKIP) {
+                        var tail = new Pipeline<T>(uncons.tail, this.eager, lazy, true);
+                        if (lazy == null) {
+                            return Sequence.cons((T) element, tail);
+                        } else {
+                            return Sequence.cons(Functions.memoize(() -> (T) lazy.apply(element)), tail);
+                        }
+                    }
+                }
+                return Sequence.empty();
+            }
+        }
+
+        /**
+         * Push every element of the source through the stages in one loop, with no cells in between, unless this
+         * pipeline is a memoized tail, which hands over its cached cells instead of running the stages again.
+         */
+        @Override
+        @SuppressWarnings("unchecked") // safe because the last stage produces elements of type T
+        Sequence<T> push(Predicate<? super T> action, Uncons<T> uncons) {
+            if (this.principal != null) {
+                return this.principal.get();
+            }
+            var eager = this.eager;
+            var lazy = this.lazy;
+            var stopped = new boolean[1];
+            var exhausted = Sequence.forEachWhile(
+                this.source,
+                element -> {
+                    if (eager != null) {
+                        element = eager.apply(element);
+                        if (element == SKIP) {
+                            return true;
+                        } else if (element == STOP) {
+                            stopped[0] = true;
+                            return false;
+                        }
+                    }
+                    return action.test((T) (lazy == null ? element : lazy.apply(element)));
+                }
+            );
+            return exhausted || stopped[0] ? Sequence.empty() : null;
+        }
+    }
+
+    /**
+     * The elements of a sequence in a stable order, optionally only the first so many of them.
+     *
+     * <p>A full sort copies the elements into an array once and sorts it in place, with
+     * {@link Arrays#sort(Object[], Comparator)} if the elements are compared directly, or with a merge sort that moves
+     * an array of keys and an array of elements in lockstep if they are compared by key, so that no pairs are
+     * allocated. Taking a prefix of a sorted sequence instead selects the least elements in a single pass over the
+     * source, keeping a buffer of twice the length of the prefix that is sorted and cut back down whenever it fills
+     * up, which takes O(n log k) time and O(k) space, and skips elements that can't make the cut without buffering
+     * them.
+     */
+    private static final class Sorted<T> extends Proxy<T> {
+        /** Prefixes at least this long are sorted in full and then truncated, instead of selected. */
+        private static final long MAX_SELECTION = 1 << 16;
+
+        private final Sequence<T> source;
+
+        /** The function from elements to sort keys, or null to compare the elements directly. */
+        private final Function<Object, Object> key;
+
+        private final Comparator<Object> comparator;
+
+        /** The maximum number of elements to produce. */
+        private final long limit;
+
+        @SuppressWarnings("unchecked") // safe because the key function and comparator accept elements of type T
+        Sorted(Sequence<T> source, Function<? super T, ?> key, Comparator<?> comparator, long limit) {
+            this.source = source;
+            this.key = (Function<Object, Object>) key;
+            this.comparator = (Comparator<Object>) requireNonNull(comparator);
+            this.limit = limit;
+        }
+
+        @Override
+        public Sequence<T> take(long length) {
+            if (length < 1) {
+                return Sequence.empty();
+            }
+            return new Sorted<>(this.source, this.key, this.comparator, Math.min(length, this.limit));
+        }
+
+        @Override
+        public Maybe<T> head() {
+            return this.limit == 1 ? super.head() : this.take(1).head();
+        }
+
+        @Override
+        long knownLength() {
+            var known = this.source.knownLength();
+            return known < 0 ? -1 : Math.min(known, this.limit);
+        }
+
+        @Override
+        protected Sequence<T> principal() {
+            var known = this.source.knownLength();
+            if (this.limit == 0) {
+                return Sequence.empty();
+            } else if (this.limit < MAX_SELECTION && (known < 0 || this.limit < known)) {
+                var selection = new Selection((int) this.limit);
+                Sequence.forEachWhile(this.source, selection);
+                selection.sort();
+                var length = Math.min(selection.length, selection.limit);
+                return Sequence.chunk(selection.elements, length, Sequence.empty());
+            } else {
+                var elements = this.source.array(Object[]::new);
+                this.sort(elements, this.keys(elements, elements.length), elements.length);
+                return Sequence.chunk(elements, (int) Math.min(elements.length, this.limit), Sequence.empty());
+            }
+        }
+
+        /** The keys of the first {@code length} elements, or null if the elements are compared directly. */
+        private Object[] keys(Object[] elements, int length) {
+            if (this.key == null) {
+                return null;
+            }
+            var keys = new Object[elements.length];
+            for (var index = 0; index < length; index++) {
+                keys[index] = this.key.apply(elements[index]);
+            }
+            return keys;
+        }
+
+        /** Stably sort the first {@code length} elements, by their keys if given. */
+        private void sort(Object[] elements, Object[] keys, int length) {
+            if (keys == null) {
+                Arrays.sort(elements, 0, length, this.comparator);
+            } else {
+                Sorted.mergeSort(keys.clone(), elements.clone(), keys, elements, 0, length, this.comparator);
+            }
+        }
+
+        /**
+         * Sort a range of two source arrays of keys and elements into the same range of two destination arrays, which
+         * must start out with the same contents as the sources, and are used as scratch space along the way.
+         */
+        private static void mergeSort(Object[] sourceKeys, Object[] sourceElements, Object[] keys, Object[] elements,
+                                      int from, int to, Comparator<Object> comparator) {
+            if (to - from < 16) {
+                for (var index = from + 1; index < to; index++) {
+                    var key = keys[index];
+                    var element = elements[index];
+                    var position = index;
+                    while (position > from && comparator.compare(keys[position - 1], key) > 0) {
+                        keys[position] = keys[position - 1];
+                        elements[position] = elements[position - 1];
+                        position--;
+                    }
+                    keys[position] = key;
+                    elements[position] = element;
+                }
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            mergeSort(keys, elements, sourceKeys, sourceElements, from, middle, comparator);
+            mergeSort(keys, elements, sourceKeys, sourceElements, middle, to, comparator);
+            if (comparator.compare(sourceKeys[middle - 1], sourceKeys[middle]) <= 0) {
+                System.arraycopy(sourceKeys, from, keys, from, to - from);
+                System.arraycopy(sourceElements, from, elements, from, to - from);
+                return;
+            }
+            for (int index = from, left = from, right = middle; index < to; index++) {
+                if (right >= to || left < middle && comparator.compare(sourceKeys[left], sourceKeys[right]) <= 0) {
+                    keys[index] = sourceKeys[left];
+                    elements[index] = sourceElements[left++];
+                } else {
+                    keys[index] = sourceKeys[right];
+                    elements[index] = sourceElements[right++];
+                }
+            }
+        }
+
+        /** A buffer of candidates for the least {@code limit} elements, visited in order. */
+        private final class Selection implements Predicate<Object> {
+            private final int limit;
+
+            private final Object[] elements;
+
+            private final Object[] keys;
+
+            private int length = 0;
+
+            /** The greatest key in the buffer after it was last cut back, beyond which elements are skipped. */
+            private Object threshold;
+
+            private boolean full = false;
+
+            Selection(int limit) {
+                this.limit = limit;
+                this.elements = new Object[2 * limit];
+                this.keys = Sorted.this.key == null ? null : new Object[this.elements.length];
+            }
+
+            @Override
+            public boolean test(Object element) {
+                var key = Sorted.this.key == null ? element : Sorted.this.key.apply(element);
+                if (this.full && Sorted.this.comparator.compare(key, this.threshold) >= 0) {
+                    return true;
+                }
+                if (this.length == this.elements.length) {
+                    this.sort();
+                    this.length = this.limit;
+                    Arrays.fill(this.elements, this.limit, this.elements.length, null);
+                    if (this.keys != null) {
+                        Arrays.fill(this.keys, this.limit, this.keys.length, null);
+                    }
+                    this.threshold = this.keys == null ? this.elements[this.limit - 1] : this.keys[this.limit - 1];
+                    this.full = true;
+                    if (Sorted.this.comparator.compare(key, this.threshold) >= 0) {
+                        return true;
+                    }
+                }
+                this.elements[this.length] = element;
+                if (this.keys != null) {
+                    this.keys[this.length] = key;
+                }
+                this.length++;
+                return true;
+            }
+
+            void sort() {
+                Sorted.this.sort(this.elements, this.keys, this.length);
+            }
+        }
+    }
+
+    /** Lazily concatenate a sequence of sequences, flattening each inner sequence as it is reached. */
+    static <T> Sequence<T> flatten(Sequence<? extends Sequence<? extends T>> sequences) {
+        requireNonNull(sequences);
+        return new Concatenation<>(Sequence.empty(), FingerTree.of(new Concatenation.Nested(sequences)));
+    }
+
     /**
      * The only constructor of this class, declared private so that the static factory methods declared inside of this
      * class can see it, but nothing else can.
@@ -237,11 +958,179 @@ public abstract class Sequence<T> implements Iterable<T> {
                 while (principal instanceof Sequence.Proxy) {
                     principal = ((Sequence.Proxy<T>) principal).principal();
                 }
-                return principal.memoize();
+                return principal instanceof Indexed ? principal : principal.memoize(); // views stay views
             }
         };
     }
 
+    /**
+     * A sequence of the first {@code length} elements of an array, followed by the elements of another sequence.
+     *
+     * <p>The array is not copied, so it must not be modified afterwards.
+     */
+    static <T> Sequence<T> chunk(Object[] elements, int length, Sequence<T> rest) {
+        return length == 0 ? rest : new Chunk<>(elements, 0, length, rest, false);
+    }
+
+    /**
+     * A sequence of a given length whose elements are computed from their indices.
+     *
+     * <p>The function must be pure and cheap, because it is invoked again every time an element is read, even if the
+     * sequence is memoized.
+     */
+    static <T> Sequence<T> computed(long length, LongFunction<? extends T> function) {
+        return length == 0 ? Sequence.empty() : new Computed<>(function, 0, length, Sequence.empty(), false);
+    }
+
+    /**
+     * A sequence of a given length whose elements are read by index from storage that might still change, like an
+     * array or list passed in by a caller, so that memoizing the sequence copies the elements.
+     */
+    private static <T> Sequence<T> view(int length, IntFunction<? extends T> function) {
+        if (length == 0) {
+            return Sequence.empty();
+        }
+        return new Computed<>(index -> function.apply((int) index), 0, length, Sequence.empty(), true);
+    }
+
+    /** Strip away any proxies around a sequence, evaluating them. */
+    private static <T> Sequence<T> resolve(Sequence<T> sequence) {
+        while (sequence instanceof Sequence.Proxy) {
+            sequence = ((Sequence.Proxy<T>) sequence).principal();
+        }
+        return sequence;
+    }
+
+    /**
+     * A lazy sequence whose length can be found without evaluating it, by asking the sources it was derived from.
+     */
+    private static final class Sized<T> extends Proxy<T> {
+        private final Sequence<T> sequence;
+
+        private final LongSupplier length;
+
+        Sized(Sequence<T> sequence, LongSupplier length) {
+            this.sequence = sequence;
+            this.length = length;
+        }
+
+        @Override
+        protected Sequence<T> principal() {
+            return this.sequence;
+        }
+
+        @Override
+        long knownLength() {
+            return this.length.getAsLong();
+        }
+    }
+
+    /** A lazy sequence that reports a length computed on demand, which must be -1 if it is not known. */
+    static <T> Sequence<T> sized(Sequence<T> sequence, LongSupplier length) {
+        return new Sized<>(sequence, length);
+    }
+
+    /**
+     * The number of elements in this sequence if it is known without evaluating anything, otherwise -1.
+     *
+     * <p>Lengths are known for arrays, ranges, and collections, and they are carried through operations that
+     * determine the length of their result from the lengths of their operands, like {@code map}, {@code take}, and
+     * {@code concatenate}. Everything else, including any sequence that might be infinite, reports -1.
+     */
+    long knownLength() {
+        return -1;
+    }
+
+    /** The sum of two known lengths, or -1 if either of them is unknown or the sum overflows. */
+    private static long knownSum(long first, long second) {
+        if (first < 0 || second < 0) {
+            return -1;
+        }
+        var sum = first + second;
+        return sum < 0 ? -1 : sum;
+    }
+
+    /** A mutable head and tail, reused across every step of a traversal. */
+    private static final class Uncons<T> {
+        T head;
+
+        Sequence<T> tail;
+
+        /** The unevaluated head written by {@link Sequence#stepLazy(Uncons)} instead of {@code head}, if any. */
+        Supplier<? extends T> thunk;
+    }
+
+    /**
+     * If this sequence is non-empty, write its head and tail to a given holder and return true, otherwise return false.
+     *
+     * <p>This is the internal counterpart of {@link Sequence#match(BiFunction, Supplier)}. Traversals call it in a
+     * loop with the same holder for every element, so they don't allocate a pair of capturing lambdas per element
+     * that the JIT compiler can't get rid of once {@code match} is megamorphic.
+     */
+    abstract boolean step(Uncons<T> uncons);
+
+    /**
+     * Like {@link Sequence#step(Uncons)}, except that a non-empty sequence with a lazy head writes the supplier of its
+     * head to {@code uncons.thunk} without evaluating it, leaving {@code uncons.head} null.
+     */
+    boolean stepLazy(Uncons<T> uncons) {
+        return this.step(uncons);
+    }
+
+    /**
+     * The tail of this sequence without evaluating the head, or null if this sequence is empty.
+     *
+     * <p>This is the internal counterpart of {@link Sequence#matchLazy(BiFunction, Supplier)} for traversals that
+     * ignore the elements.
+     */
+    abstract Sequence<T> next();
+
+    /**
+     * Push zero or more leading elements of this sequence to an action, and return the rest of this sequence, or null
+     * if the action returned false.
+     *
+     * <p>This is the push-based counterpart of {@link Sequence#step(Uncons)}, driven by
+     * {@link Sequence#forEachWhile(Sequence, Predicate)}. By default it pushes one element, but a cell that knows how
+     * to produce a run of elements in a tight loop, like an array slice or a chain of fused stages, pushes them all at
+     * once. The holder is scratch space for implementations that step.
+     */
+    Sequence<T> push(Predicate<? super T> action, Uncons<T> uncons) {
+        if (this.step(uncons)) {
+            return action.test(uncons.head) ? uncons.tail : null;
+        } else {
+            return Sequence.empty();
+        }
+    }
+
+    /**
+     * Push the elements of a sequence to an action until it returns false, and return true if and only if every
+     * element was accepted.
+     *
+     * <p>Every terminal operation that visits elements in order is built on this, so that each kind of cell decides
+     * how to deliver its elements instead of being pulled apart one cell at a time.
+     */
+    private static <T> boolean forEachWhile(Sequence<T> sequence, Predicate<? super T> action) {
+        var uncons = new Uncons<T>();
+        while (sequence != EMPTY) {
+            sequence = sequence.push(action, uncons);
+            if (sequence == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Perform an action on each element of a sequence. */
+    private static <T> void forEach(Sequence<T> sequence, Consumer<? super T> action) {
+        Sequence.forEachWhile(
+            sequence,
+            element -> {
+                action.accept(element);
+                return true;
+            }
+        );
+    }
+
     /**
      * The empty sequence.
      *
@@ -312,6 +1201,18 @@ public abstract class Sequence<T> implements Iterable<T> {
                 return Maybe.of(() -> function.apply(this));
             }
 
+            @Override
+            boolean step(Uncons<T> uncons) {
+                uncons.head = head;
+                uncons.tail = Sequence.cast(tail);
+                return true;
+            }
+
+            @Override
+            Sequence<T> next() {
+                return Sequence.cast(tail);
+            }
+
             @Override
             public Sequence<T> memoize() {
                 return Sequence.cons(head, Sequence.memoize(tail));
@@ -359,6 +1260,18 @@ public abstract class Sequence<T> implements Iterable<T> {
                 return Maybe.of(() -> function.apply(this));
             }
 
+            @Override
+            boolean step(Uncons<T> uncons) {
+                uncons.head = head;
+                uncons.tail = Sequence.cast(tail.get());
+                return true;
+            }
+
+            @Override
+            Sequence<T> next() {
+                return Sequence.cast(tail.get());
+            }
+
             @Override
             public Sequence<T> memoize() {
                 return Sequence.cons(head, Sequence.memoize(tail.get()));
@@ -409,18 +1322,37 @@ public abstract class Sequence<T> implements Iterable<T> {
             }
 
             @Override
-            public <R> R matchNonEmpty(Function<? super Sequence<T>, ? extends R> function, R otherwise) {
-                return function.apply(this);
+            public <R> R matchNonEmpty(Function<? super Sequence<T>, ? extends R> function, R otherwise) {
+                return function.apply(this);
+            }
+
+            @Override
+            public <R> R matchNonEmpty(Function<? super Sequence<T>, ? extends R> function, Supplier<? extends R> otherwise) {
+                return function.apply(this);
+            }
+
+            @Override
+            public <R> Maybe<R> matchNonEmpty(Function<? super Sequence<T>, ? extends R> function) {
+                return Maybe.of(() -> function.apply(this));
+            }
+
+            @Override
+            boolean step(Uncons<T> uncons) {
+                uncons.head = requireNonNull(head.get());
+                uncons.tail = Sequence.cast(tail);
+                return true;
             }
 
             @Override
-            public <R> R matchNonEmpty(Function<? super Sequence<T>, ? extends R> function, Supplier<? extends R> otherwise) {
-                return function.apply(this);
+            boolean stepLazy(Uncons<T> uncons) {
+                uncons.thunk = head;
+                uncons.tail = Sequence.cast(tail);
+                return true;
             }
 
             @Override
-            public <R> Maybe<R> matchNonEmpty(Function<? super Sequence<T>, ? extends R> function) {
-                return Maybe.of(() -> function.apply(this));
+            Sequence<T> next() {
+                return Sequence.cast(tail);
             }
 
             @Override
@@ -476,6 +1408,25 @@ public abstract class Sequence<T> implements Iterable<T> {
                 return Maybe.of(() -> function.apply(this));
             }
 
+            @Override
+            boolean step(Uncons<T> uncons) {
+                uncons.head = requireNonNull(head.get());
+                uncons.tail = Sequence.cast(tail.get());
+                return true;
+            }
+
+            @Override
+            boolean stepLazy(Uncons<T> uncons) {
+                uncons.thunk = head;
+                uncons.tail = Sequence.cast(tail.get());
+                return true;
+            }
+
+            @Override
+            Sequence<T> next() {
+                return Sequence.cast(tail.get());
+            }
+
             @Override
             public Sequence<T> memoize() {
                 return Sequence.cons(Functions.memoize(head), Sequence.memoize(tail.get()));
@@ -562,80 +1513,89 @@ public abstract class Sequence<T> implements Iterable<T> {
 
     /**
      * A lazy view of an Iterable as a sequence.
+     *
+     * <p>The view reflects the contents of the iterable as of each traversal. Random-access lists are read by index,
+     * like arrays, other collections are {@link Sequence#replay(Supplier) replayed} from a fresh iterator on each
+     * traversal, and sequences and vectors are returned as sequences directly, so none of these cache any elements.
+     * Any other iterable is treated as if it might only support one iterator at a time, and each traversal memoizes
+     * the iterator it gets.
      */
     public static <T> Sequence<T> from(Iterable<? extends T> iterable) {
-        return Sequence.lazy(() -> Sequence.memoize(iterable.iterator()));
+        if (iterable instanceof Sequence) {
+            return Sequence.cast((Sequence<? extends T>) iterable);
+        } else if (iterable instanceof Vector) {
+            return Sequence.cast(((Vector<? extends T>) iterable).sequence());
+        } else if (iterable instanceof List && iterable instanceof RandomAccess) {
+            var list = (List<? extends T>) iterable;
+            return Sequence.sized(Sequence.lazy(() -> Sequence.view(list.size(), list::get)), list::size);
+        } else if (iterable instanceof Collection) {
+            return Sequence.sized(Sequence.replay(iterable::iterator), ((Collection<?>) iterable)::size);
+        } else {
+            return Sequence.lazy(() -> Sequence.memoize(iterable.iterator()));
+        }
     }
 
     /**
      * A lazy view of an array as a sequence.
      */
     public static <T> Sequence<T> from(T[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
+        return array.length == 0 ? Sequence.empty() : new Chunk<>(array, 0, array.length, Sequence.empty(), true);
     }
 
     /**
      * A lazy view of an array of ints as a sequence.
      */
     public static Sequence<Integer> from(int[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
+        return Sequence.view(array.length, index -> array[index]);
     }
 
     /**
      * A lazy view of an array of longs as a sequence.
      */
     public static Sequence<Long> from(long[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
+        return Sequence.view(array.length, index -> array[index]);
     }
 
     /**
      * A lazy view of an array of shorts as a sequence.
      */
     public static Sequence<Short> from(short[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
+        return Sequence.view(array.length, index -> array[index]);
     }
 
     /**
      * A lazy view of an array of bytes as a sequence.
      */
     public static Sequence<Byte> from(byte[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
+        return Sequence.view(array.length, index -> array[index]);
     }
 
     /**
      * A lazy view of an array of chars as a sequence.
      */
     public static Sequence<Character> from(char[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
+        return Sequence.view(array.length, index -> array[index]);
     }
 
     /**
      * A lazy view of an array of booleans as a sequence.
      */
     public static Sequence<Boolean> from(boolean[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
+        return Sequence.view(array.length, index -> array[index]);
     }
 
     /**
      * A lazy view of an array of floats as a sequence.
      */
     public static Sequence<Float> from(float[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
+        return Sequence.view(array.length, index -> array[index]);
     }
 
     /**
      * A lazy view of an array of doubles as a sequence.
      */
     public static Sequence<Double> from(double[] array) {
-        return Sequence.from(index -> array[index], array.length, 0);
-    }
-
-    private static <T> Sequence<T> from(IntFunction<T> array, int length, int index) {
-        if (index < length) {
-            return Sequence.cons(() -> array.apply(index), () -> Sequence.from(array, length, index + 1));
-        } else {
-            return Sequence.empty();
-        }
+        return Sequence.view(array.length, index -> array[index]);
     }
 
     /**
@@ -755,7 +1715,10 @@ public abstract class Sequence<T> implements Iterable<T> {
     /**
      * A memoized sequence of the elements produced by an iterator.
      *
-     * <p>The sequence must be {@link Sequence#memoize() memoized} because iterators can only be traversed once.
+     * <p>The sequence must be {@link Sequence#memoize() memoized} because iterators can only be traversed once. To
+     * avoid holding on to every element, replay a source of fresh iterators instead.
+     *
+     * @see Sequence#replay(Supplier)
      */
     public static <T> Sequence<T> memoize(Iterator<? extends T> iterator) {
         return Sequence.lazy(
@@ -781,6 +1744,47 @@ public abstract class Sequence<T> implements Iterable<T> {
         return Sequence.memoize(enumeration.asIterator());
     }
 
+    /**
+     * A sequence that replays a source of elements, asking for a fresh iterator every time it is traversed, instead of
+     * caching the elements like {@link Sequence#memoize(Iterator)}.
+     *
+     * <p>This trades time for space: the source is run again on every traversal, but only the elements of the
+     * traversal in progress are kept, and they can be garbage collected once it moves past them. For example,
+     * {@code replay(list::iterator)} follows the current contents of a list. {@link Sequence#memoize() Memoize} the
+     * returned sequence to recover the caching behavior for a single traversal.
+     *
+     * <p>The iterators are never closed, because a traversal can stop at any point, so they should not hold on to
+     * resources like open files.
+     *
+     * <p>Each iterator is read ahead in batches that start small and grow, so that most elements are delivered from
+     * arrays in tight loops. The iterators must not produce null elements.
+     *
+     * @see Sequence#memoize(Iterator)
+     * @see Sequence#from(Iterable)
+     */
+    public static <T> Sequence<T> replay(Supplier<? extends Iterator<? extends T>> source) {
+        requireNonNull(source);
+        return Sequence.lazy(() -> Sequence.batches(source.get(), Sequences.MIN_CHUNK_LENGTH));
+    }
+
+    private static <T> Sequence<T> batches(Iterator<? extends T> iterator, int capacity) {
+        return Sequence.lazy(
+            () -> {
+                var elements = new Object[capacity];
+                var length = 0;
+                while (length < capacity && iterator.hasNext()) {
+                    elements[length++] = requireNonNull(iterator.next());
+                }
+                if (length < capacity) {
+                    return Sequence.chunk(elements, length, Sequence.empty());
+                } else {
+                    var next = Math.min(2 * capacity, Sequences.MAX_CHUNK_LENGTH);
+                    return Sequence.chunk(elements, length, batches(iterator, next));
+                }
+            }
+        );
+    }
+
     /**
      * Safe covariant cast.
      *
@@ -983,12 +1987,12 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#and(Sequence)
      */
     public static long product(Sequence<Long> sequence) {
-        return Trampoline.evaluate(
+        return Trampoline.loop(
             sequence,
             1L,
-            product -> seq -> n -> seq.match(
-                (head, tail) -> head == 0 ? terminate(0L) : call(product, tail, multiplyExact(head, n)),
-                () -> terminate(n)
+            (seq, n, loop) -> seq.match(
+                (head, tail) -> head == 0 ? loop.done(0L) : loop.recur(tail, multiplyExact(head, n)),
+                () -> loop.done(n)
             )
         );
     }
@@ -996,6 +2000,11 @@ public abstract class Sequence<T> implements Iterable<T> {
     /**
      * A sequence that only computes each element at most once, the first time it is asked for, delegating to this
      * sequence and caching the result.
+     *
+     * <p>Views of arrays and lists are copied the first time they are traversed, so the memoized sequence doesn't see
+     * later changes to them.
+     *
+     * @see Sequence#memoize(MemoPolicy)
      */
     public Sequence<T> memoize() {
         return Sequence.memoize(this);
@@ -1036,6 +2045,82 @@ public abstract class Sequence<T> implements Iterable<T> {
         }
     }
 
+    /**
+     * A sequence that caches computed cells according to a policy, recomputing evicted cells from this sequence the
+     * next time they are asked for.
+     *
+     * <p>Unlike {@link Sequence#memoize()}, which keeps every computed cell for as long as the sequence is reachable,
+     * this bounds the memory used by long-lived sequences that are traversed repeatedly. This sequence must be
+     * repeatable, because evicted cells are recomputed from it. Cells are cached by position, so recomputing an
+     * evicted cell leads back into the cells after it that are still cached. Runs of elements backed by arrays or index
+     * functions (e.g., the elements of {@link Sequence#from(Object[])}, or the batches of
+     * {@link Sequence#replay(Supplier)}) are cached a bounded slice at a time, without copying their elements, and
+     * each slice is weighed by all of its elements.
+     *
+     * <p>Cells computed concurrently by several threads might be computed more than once.
+     *
+     * @see MemoPolicy#window(int)
+     * @see MemoPolicy#budget(long, ToLongFunction)
+     * @see MemoPolicy#soft()
+     */
+    public Sequence<T> memoize(MemoPolicy policy) {
+        requireNonNull(policy);
+        return Sequence.memoize(this, policy);
+    }
+
+    private static <T> Sequence<T> memoize(Sequence<T> sequence, MemoPolicy policy) {
+        var slots = new MemoPolicy.Slots();
+
+        class PolicyMemoizedSequence extends Sequence.Proxy<T> {
+            private final Sequence<T> source;
+
+            private final long position;
+
+            PolicyMemoizedSequence(Sequence<T> source, long position) {
+                this.source = source;
+                this.position = position;
+            }
+
+            @Override
+            protected Sequence<T> principal() {
+                @SuppressWarnings("unchecked") // the policy only ever hands back what was stored at this position
+                var principal = (Sequence<T>) policy.get(slots, this.position);
+                if (principal == null) {
+                    var resolved = Sequence.resolve(this.source);
+                    var uncons = new Uncons<T>();
+                    long weight;
+                    if (resolved instanceof Indexed) {
+                        var chunk = (Indexed<T>) resolved;
+                        var to = Math.min(chunk.to, chunk.from + Sequences.MAX_CHUNK_LENGTH);
+                        var rest = to == chunk.to ? chunk.rest : chunk.slice(to, chunk.to, chunk.rest);
+                        weight = 0;
+                        for (long index = chunk.from; index < to; index++) {
+                            weight += policy.weigh(chunk.get(index));
+                        }
+                        var tail = new PolicyMemoizedSequence(rest, this.position + (to - chunk.from));
+                        principal = chunk.slice(chunk.from, to, tail);
+                    } else if (resolved.step(uncons)) {
+                        weight = policy.weigh(uncons.head);
+                        var tail = new PolicyMemoizedSequence(uncons.tail, this.position + 1);
+                        principal = Sequence.cons(uncons.head, tail);
+                    } else {
+                        weight = 1;
+                        principal = Sequence.empty();
+                    }
+                    policy.store(slots, this.position, principal, weight);
+                }
+                return principal;
+            }
+
+            @Override
+            public Sequence<T> memoize() {
+                return this;
+            }
+        }
+
+        return new PolicyMemoizedSequence(sequence, 0);
+    }
+
     /** Force the evaluation of every element of this sequence. */
     public Sequence<T> eager() {
         return this.collect(Sequences.toSequence());
@@ -1352,7 +2437,8 @@ public abstract class Sequence<T> implements Iterable<T> {
     /** Perform an action on each element of this sequence. */
     @Override
     public void forEach(Consumer<? super T> action) {
-        this.spliterator().forEachRemaining(action);
+        requireNonNull(action);
+        Sequence.forEach(this, action);
     }
 
     /** If non-empty, perform an action on each element of this sequence, otherwise perform a default action. */
@@ -1382,6 +2468,18 @@ public abstract class Sequence<T> implements Iterable<T> {
         return StreamSupport.stream(this.spliterator(), false);
     }
 
+    /**
+     * Eagerly copy the elements of this sequence into a persistent vector, for fast random access and updates.
+     *
+     * <p>If this sequence is infinite, this method will never return.
+     *
+     * @see Vector#sequence()
+     * @see Sequence#list()
+     */
+    public Vector<T> vector() {
+        return Vector.from(this);
+    }
+
     /**
      * A lazy, copy-on-read mutable view of this sequence as a sequential-access list that prohibits null elements.
      *
@@ -1390,6 +2488,7 @@ public abstract class Sequence<T> implements Iterable<T> {
      * affect this sequence (nor could they, because sequences are structurally immutable). Manual synchronization is
      * required to safely share the list among multiple threads.
      *
+     * @see Sequence#randomAccessList()
      * @see Sequence#array(IntFunction)
      * @see Sequence#stream()
      * @see Sequence#iterator()
@@ -1567,13 +2666,163 @@ public abstract class Sequence<T> implements Iterable<T> {
 
             @Override
             public Stream<T> parallelStream() {
-                return this.stream();
+                return StreamSupport.stream(this.spliterator(), true);
             }
         }
 
         return new SequenceList(sequence);
     }
 
+    /**
+     * A lazy, unmodifiable, random-access view of this sequence as a list.
+     *
+     * <p>Elements are copied out of this sequence in order as indices are requested, into a series of arrays that
+     * double in length, so {@code get} is constant time for elements that have already been read, and reading further
+     * never copies the elements read so far. The list is safe to share among threads: reads of elements that are
+     * already available don't lock, and threads that need more elements take turns reading them.
+     *
+     * <p>{@code size()} and anything that depends on it, like {@code equals}, read the rest of this sequence unless
+     * its length is known up front, but {@code get}, {@code isEmpty}, and iterators only read as far as they need to,
+     * so they work on infinite sequences. A known length is taken when the list is created, so a list over a view of a
+     * collection holds as many elements as the collection did then, even if the collection grows afterwards.
+     *
+     * @see Sequence#list()
+     * @see Sequence#toArrayList()
+     */
+    public List<T> randomAccessList() {
+        return new RandomAccessList<>(this);
+    }
+
+    private static final class RandomAccessList<T> extends AbstractList<T> implements RandomAccess {
+        /** The length of the first array, each subsequent array being twice as long as the previous one. */
+        private static final int FIRST = 16;
+
+        /** Enough arrays to hold as many elements as the largest array could. */
+        private final Object[][] arrays = new Object[27][];
+
+        /**
+         * The exact number of elements reported by the spliterator when this list was created, or -1 if unknown. The
+         * spliterator is never read past it, so that the size of this list agrees with its elements even if the
+         * length of the sequence changes, as it can for a view of a mutable collection.
+         */
+        private final long known;
+
+        /** The source of further elements, or null once it is exhausted; guarded by this list. */
+        private Spliterator<T> spliterator;
+
+        /** The element most recently produced by the spliterator; guarded by this list. */
+        private Object next;
+
+        private final Consumer<T> sink = element -> this.next = element;
+
+        /** The number of elements available, written after the elements themselves. */
+        private volatile int filled = 0;
+
+        RandomAccessList(Sequence<T> sequence) {
+            this.spliterator = sequence.spliterator();
+            this.known = this.spliterator.getExactSizeIfKnown();
+        }
+
+        /** The array holding the element at a given index. */
+        private static int array(int index) {
+            return 31 - Integer.numberOfLeadingZeros((index >>> 4) + 1);
+        }
+
+        /** The index within its array of the element at a given index. */
+        private static int offset(int index, int array) {
+            return index - FIRST * ((1 << array) - 1);
+        }
+
+        /** True if and only if there is an element at a given nonnegative index, reading up to it if necessary. */
+        private boolean fill(int index) {
+            if (index < this.filled) {
+                return true;
+            }
+            synchronized (this) {
+                var filled = this.filled;
+                var spliterator = this.spliterator;
+                try {
+                    while (filled <= index && spliterator != null) {
+                        if (filled != this.known && spliterator.tryAdvance(this.sink)) {
+                            var array = array(filled);
+                            if (this.arrays[array] == null) {
+                                this.arrays[array] = new Object[FIRST << array];
+                            }
+                            this.arrays[array][offset(filled, array)] = this.next;
+                            this.next = null;
+                            filled++;
+                        } else {
+                            spliterator = null;
+                        }
+                    }
+                } finally {
+                    // publish the elements read so far even if the sequence throws, so they aren't overwritten later
+                    this.spliterator = spliterator;
+                    this.filled = filled;
+                }
+                return index < filled;
+            }
+        }
+
+        @SuppressWarnings("unchecked") // safe because the arrays only hold elements of the sequence
+        private T element(int index) {
+            var array = array(index);
+            return (T) this.arrays[array][offset(index, array)];
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || !this.fill(index)) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return this.element(index);
+        }
+
+        @Override
+        public int size() {
+            if (this.known >= 0 && this.known < Integer.MAX_VALUE) {
+                return (int) this.known;
+            }
+            this.fill(Integer.MAX_VALUE - 1);
+            return this.filled;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !this.fill(0);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private int cursor = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return RandomAccessList.this.fill(this.cursor);
+                }
+
+                @Override
+                public T next() {
+                    if (this.hasNext()) {
+                        return RandomAccessList.this.element(this.cursor++);
+                    } else {
+                        throw new NoSuchElementException();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            if (this.known >= 0) {
+                return Spliterators.spliterator(this.iterator(), this.known, ORDERED | NONNULL | IMMUTABLE);
+            } else {
+                return Spliterators.spliteratorUnknownSize(this.iterator(), ORDERED | NONNULL | IMMUTABLE);
+            }
+        }
+    }
+
     /**
      * An array of the elements of this sequence.
      *
@@ -1590,13 +2839,194 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#spliterator()
      */
     public <A> A[] array(IntFunction<A[]> factory) {
-        //noinspection SuspiciousToArrayCall
-        return this.stream().toArray(factory);
+        requireNonNull(factory);
+        var buffer = new Buffer<>(factory, this.knownLength());
+        Sequence.forEachWhile(
+            this,
+            element -> {
+                var index = buffer.slot();
+                ((Object[]) buffer.array)[index] = element;
+                return true;
+            }
+        );
+        return buffer.toArray();
+    }
+
+    /**
+     * A new array list of the elements of this sequence.
+     *
+     * <p>The list is allocated with exactly the right capacity if the length of this sequence is known up front.
+     *
+     * @see Sequence#array(IntFunction)
+     * @see Sequence#collect(Supplier)
+     */
+    public ArrayList<T> toArrayList() {
+        var known = this.knownLength();
+        if (known >= 0 && known <= MAX_ARRAY_LENGTH) {
+            var list = new ArrayList<T>((int) known);
+            Sequence.forEachWhile(this, list::add);
+            return list;
+        } else {
+            @SuppressWarnings("unchecked") // safe because the array only holds elements of this sequence
+            var elements = (T[]) this.array(Object[]::new);
+            var list = new ArrayList<T>(elements.length);
+            Collections.addAll(list, elements);
+            return list;
+        }
+    }
+
+    /**
+     * An array of ints computed from the elements of this sequence, without boxing the results.
+     *
+     * @see Sequence#toLongArray(ToLongFunction)
+     * @see Sequence#toDoubleArray(ToDoubleFunction)
+     * @see Sequence#mapToInt(ToIntFunction)
+     */
+    public int[] toIntArray(ToIntFunction<? super T> function) {
+        requireNonNull(function);
+        var buffer = new Buffer<>(int[]::new, this.knownLength());
+        Sequence.forEachWhile(
+            this,
+            element -> {
+                var value = function.applyAsInt(element);
+                var index = buffer.slot();
+                buffer.array[index] = value;
+                return true;
+            }
+        );
+        return buffer.toArray();
+    }
+
+    /**
+     * An array of longs computed from the elements of this sequence, without boxing the results.
+     *
+     * @see Sequence#toIntArray(ToIntFunction)
+     * @see Sequence#toDoubleArray(ToDoubleFunction)
+     * @see Sequence#mapToLong(ToLongFunction)
+     */
+    public long[] toLongArray(ToLongFunction<? super T> function) {
+        requireNonNull(function);
+        var buffer = new Buffer<>(long[]::new, this.knownLength());
+        Sequence.forEachWhile(
+            this,
+            element -> {
+                var value = function.applyAsLong(element);
+                var index = buffer.slot();
+                buffer.array[index] = value;
+                return true;
+            }
+        );
+        return buffer.toArray();
+    }
+
+    /**
+     * An array of doubles computed from the elements of this sequence, without boxing the results.
+     *
+     * @see Sequence#toIntArray(ToIntFunction)
+     * @see Sequence#toLongArray(ToLongFunction)
+     * @see Sequence#mapToDouble(ToDoubleFunction)
+     */
+    public double[] toDoubleArray(ToDoubleFunction<? super T> function) {
+        requireNonNull(function);
+        var buffer = new Buffer<>(double[]::new, this.knownLength());
+        Sequence.forEachWhile(
+            this,
+            element -> {
+                var value = function.applyAsDouble(element);
+                var index = buffer.slot();
+                buffer.array[index] = value;
+                return true;
+            }
+        );
+        return buffer.toArray();
+    }
+
+    /** The largest array length that is safe to allocate on common virtual machines. */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /** The length of the first array allocated by a buffer for a sequence of unknown length. */
+    private static final int MIN_BUFFER = 16;
+
+    /** The length at which buffers stop doubling the arrays that they allocate. */
+    private static final int MAX_BUFFER = 1 << 20;
+
+    /**
+     * Elements written into a series of arrays, each one filled before the next one is allocated, and copied once into
+     * an array of the exact length at the end.
+     *
+     * <p>Given the known length of a sequence, the first array is exactly that long, and it is returned without being
+     * copied as long as the sequence turns out to have that many elements after all.
+     *
+     * @param <A> the type of the arrays, which may have a primitive component type
+     */
+    private static final class Buffer<A> {
+        private final IntFunction<A> factory;
+
+        private final List<A> full = new ArrayList<>();
+
+        /** The total length of the full arrays. */
+        private int filled = 0;
+
+        /** The array currently being filled. */
+        A array;
+
+        private int capacity;
+
+        private int length = 0;
+
+        Buffer(IntFunction<A> factory, long known) {
+            this.factory = factory;
+            this.capacity = known < 0 ? MIN_BUFFER : (int) Math.min(known, MAX_ARRAY_LENGTH);
+            this.array = factory.apply(this.capacity);
+        }
+
+        /**
+         * The index in the current array at which to write the next element, allocating a new array if needed, so the
+         * current array must be read after calling this.
+         */
+        int slot() {
+            if (this.length == this.capacity) {
+                if (this.capacity > 0) {
+                    this.full.add(this.array);
+                }
+                this.filled += this.length;
+                var remaining = MAX_ARRAY_LENGTH - this.filled;
+                if (remaining == 0) {
+                    throw new OutOfMemoryError("sequence is too long for an array");
+                }
+                this.capacity = Math.min(Math.max(MIN_BUFFER, Math.min(2 * this.capacity, MAX_BUFFER)), remaining);
+                this.array = this.factory.apply(this.capacity);
+                this.length = 0;
+            }
+            return this.length++;
+        }
+
+        /** An array of every element written, in order. */
+        A toArray() {
+            if (this.full.isEmpty() && this.length == this.capacity) {
+                return this.array;
+            }
+            var result = this.factory.apply(this.filled + this.length);
+            var offset = 0;
+            for (var array : this.full) {
+                var length = Array.getLength(array);
+                System.arraycopy(array, 0, result, offset, length);
+                offset += length;
+            }
+            System.arraycopy(this.array, 0, result, offset, this.length);
+            return result;
+        }
     }
 
     /**
      * A late-binding spliterator over this sequence.
      *
+     * <p>The spliterator is {@link Spliterator#SIZED sized} and splits by index in constant time if this sequence is
+     * backed by arrays or ranges all the way through (e.g., {@link Sequence#from(Object[])},
+     * {@link Sequences#range(int, int)}, {@link Sequences#toSequence()}). Otherwise, it splits off batches of elements
+     * copied into arrays of arithmetically increasing size, and it is still sized if the length of this sequence is
+     * known up front, as it is for collections and for length-preserving operations like {@link Sequence#map(Function)}.
+     *
      * @see Sequence#iterator()
      * @see Sequence#stream()
      * @see Sequence#list()
@@ -1607,42 +3037,247 @@ public abstract class Sequence<T> implements Iterable<T> {
         return Sequence.spliterator(this);
     }
 
+    /** The amount by which the batches split off by the spliterator of a sequence of unknown size grow. */
+    private static final int BATCH_UNIT = 1 << 10;
+
+    /** The maximum size of the batches split off by the spliterator of a sequence of unknown size. */
+    private static final int MAX_BATCH = 1 << 25;
+
     private static <T> Spliterator<T> spliterator(Sequence<T> sequence) {
         class SequenceSpliterator implements Spliterator<T> {
             private Sequence<T> sequence;
 
+            /** The indexed cell currently being traversed, if any. */
+            private Indexed<T> chunk;
+
+            private long index;
+
+            /** The exact number of remaining elements, or -1 if unknown. */
+            private long size;
+
+            private boolean bound;
+
+            /**
+             * The exact number of remaining elements if the sequence knows its length but isn't indexed all the way
+             * through, otherwise -1, or -2 until this spliterator binds to the sequence.
+             *
+             * <p>The length of a sequence backed by a collection is read from the collection, so it has to be read when
+             * the elements start being read, not when this spliterator is created.
+             */
+            private long known;
+
+            private final Uncons<T> uncons = new Uncons<>();
+
+            /** The size of the last batch split off, if the size of this spliterator is unknown. */
+            private int batch = 0;
+
             SequenceSpliterator(Sequence<T> sequence) {
                 this.sequence = sequence;
+                this.bound = false;
+                this.known = -2;
+            }
+
+            SequenceSpliterator(Sequence<T> sequence, long size) {
+                this.sequence = sequence;
+                this.size = size;
+                this.bound = true;
+                this.known = -1;
+            }
+
+            /** The remaining elements of this spliterator. */
+            private Sequence<T> remaining() {
+                var chunk = this.chunk;
+                if (chunk != null) {
+                    this.sequence = chunk.slice(this.index, chunk.to, chunk.rest);
+                    this.chunk = null;
+                }
+                return this.sequence;
+            }
+
+            /**
+             * The exact number of remaining elements if they are indexed all the way through, otherwise -1.
+             *
+             * <p>This does not evaluate anything, so that it can be called before this spliterator binds to the
+             * sequence.
+             */
+            private long size() {
+                if (!this.bound) {
+                    long size = 0;
+                    for (var sequence = this.remaining(); sequence != Sequence.EMPTY; ) {
+                        if (sequence instanceof Indexed && size >= 0) {
+                            var indexed = (Indexed<T>) sequence;
+                            size += indexed.size();
+                            sequence = indexed.rest;
+                        } else {
+                            size = -1;
+                            break;
+                        }
+                    }
+                    this.size = size;
+                    this.bound = true;
+                }
+                return this.size;
+            }
+
+            /** Read the known length of the sequence, if this spliterator hasn't already bound to it. */
+            private long known() {
+                if (this.known == -2) {
+                    this.known = this.sequence.knownLength();
+                }
+                return this.known;
             }
 
             @Override
             public boolean tryAdvance(Consumer<? super T> action) {
-                return this.sequence.match(
-                    (head, tail) -> {
-                        action.accept(head);
-                        this.sequence = tail;
-                        return true;
-                    },
-                    () -> {
-                        this.sequence = Sequence.empty();
-                        return false;
+                this.known();
+                if (this.chunk == null) {
+                    var sequence = Sequence.resolve(this.sequence);
+                    if (!(sequence instanceof Indexed)) {
+                        if (sequence.step(this.uncons)) {
+                            var head = this.uncons.head;
+                            this.sequence = this.uncons.tail;
+                            this.uncons.head = null;
+                            this.uncons.tail = null;
+                            if (this.known > 0) {
+                                this.known--;
+                            }
+                            action.accept(head);
+                            return true;
+                        } else {
+                            this.sequence = Sequence.empty();
+                            return false;
+                        }
                     }
-                );
+                    this.chunk = (Indexed<T>) sequence;
+                    this.index = this.chunk.from;
+                }
+                var chunk = this.chunk;
+                var element = chunk.get(this.index);
+                if (++this.index == chunk.to) {
+                    this.sequence = chunk.rest;
+                    this.chunk = null;
+                }
+                if (this.size > 0) {
+                    this.size--;
+                }
+                if (this.known > 0) {
+                    this.known--;
+                }
+                action.accept(element);
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super T> action) {
+                var chunk = this.chunk;
+                if (chunk != null) {
+                    this.sequence = chunk.rest;
+                    this.chunk = null;
+                    chunk.forEach(action, this.index);
+                }
+                var sequence = this.sequence;
+                this.sequence = Sequence.empty();
+                this.size = 0;
+                this.known = 0;
+                Sequence.forEach(sequence, action);
+            }
+
+            /**
+             * Split sized spliterators in half by index, sharing the underlying arrays. Otherwise, split off a batch of
+             * elements copied into an array, growing the batch size arithmetically each time.
+             */
+            @Override
+            public Spliterator<T> trySplit() {
+                this.known();
+                var size = this.size();
+                if (size >= 0) {
+                    if (size < 2) {
+                        return null;
+                    }
+                    var half = size >>> 1;
+                    var prefix = this.prefix(half);
+                    this.sequence = this.suffix(half);
+                    this.size = size - half;
+                    return new SequenceSpliterator(prefix, half);
+                } else {
+                    class Batch implements Consumer<T> {
+                        private final Object[] elements = new Object[
+                            Math.min(SequenceSpliterator.this.batch + BATCH_UNIT, MAX_BATCH)
+                        ];
+
+                        private int length = 0;
+
+                        @Override
+                        public void accept(T element) {
+                            this.elements[this.length++] = element;
+                        }
+                    }
+
+                    var batch = new Batch();
+                    while (batch.length < batch.elements.length) {
+                        if (!this.tryAdvance(batch)) {
+                            break;
+                        }
+                    }
+                    if (batch.length == 0) {
+                        return null;
+                    }
+                    this.batch = batch.length;
+                    this.bound = false; // the rest of the elements might turn out to be indexed
+                    return new SequenceSpliterator(
+                        Sequence.chunk(batch.elements, batch.length, Sequence.empty()),
+                        batch.length
+                    );
+                }
+            }
+
+            /** The first {@code n} remaining elements, which must all be indexed. */
+            private Sequence<T> prefix(long n) {
+                var cells = new ArrayList<Indexed<T>>();
+                for (var sequence = this.remaining(); n > 0; ) {
+                    var cell = (Indexed<T>) sequence;
+                    cells.add(cell);
+                    n -= cell.size();
+                    sequence = cell.rest;
+                }
+                Sequence<T> prefix = Sequence.empty();
+                for (int index = cells.size() - 1; index >= 0; index--) {
+                    var cell = cells.get(index);
+                    prefix = cell.slice(cell.from, index == cells.size() - 1 ? cell.to + n : cell.to, prefix);
+                }
+                return prefix;
             }
 
-            @Override
-            public Spliterator<T> trySplit() {
-                return null;
+            /** The remaining elements after the first {@code n}, which must all be indexed. */
+            private Sequence<T> suffix(long n) {
+                var sequence = this.remaining();
+                for (;;) {
+                    var cell = (Indexed<T>) sequence;
+                    if (n < cell.size()) {
+                        return cell.slice(cell.from + n, cell.to, cell.rest);
+                    }
+                    n -= cell.size();
+                    sequence = cell.rest;
+                }
             }
 
             @Override
             public long estimateSize() {
-                return Long.MAX_VALUE;
+                var size = this.size();
+                var known = this.known();
+                return size >= 0 ? size : known >= 0 ? known : Long.MAX_VALUE;
             }
 
             @Override
             public int characteristics() {
-                return NONNULL;
+                // whether the length is known doesn't change, so check it without binding to the sequence
+                if (this.size() >= 0) {
+                    return ORDERED | NONNULL | SIZED | SUBSIZED | IMMUTABLE;
+                } else if ((this.known == -2 ? this.sequence.knownLength() : this.known) >= 0) {
+                    return ORDERED | NONNULL | SIZED | IMMUTABLE;
+                } else {
+                    return ORDERED | NONNULL;
+                }
             }
         }
 
@@ -1669,39 +3304,81 @@ public abstract class Sequence<T> implements Iterable<T> {
         class SequenceIterator implements Iterator<T> {
             private Sequence<T> sequence;
 
+            /** The chunk currently being traversed, if any. */
+            private Indexed<T> chunk;
+
+            private long index;
+
+            /**
+             * True if a cell has been stepped through but its head not yet returned. The head is only evaluated once
+             * it is returned, so that {@code hasNext} doesn't force it.
+             */
+            private boolean pending = false;
+
+            private final Uncons<T> uncons = new Uncons<>();
+
             SequenceIterator(Sequence<T> sequence) {
                 this.sequence = sequence;
             }
 
             @Override
             public boolean hasNext() {
-                return this.sequence.matchLazy(
-                    (head, tail) -> {
-                        this.sequence = Sequence.cons(head, tail);
-                        return true;
-                    },
-                    () -> {
-                        this.sequence = Sequence.empty();
-                        return false;
-                    }
-                );
+                if (this.pending || this.chunk != null) {
+                    return true;
+                }
+                var sequence = Sequence.resolve(this.sequence);
+                if (sequence instanceof Indexed) {
+                    this.chunk = (Indexed<T>) sequence;
+                    this.index = this.chunk.from;
+                    return true;
+                } else if (sequence.stepLazy(this.uncons)) {
+                    this.sequence = this.uncons.tail;
+                    this.uncons.tail = null;
+                    this.pending = true;
+                    return true;
+                } else {
+                    this.sequence = Sequence.empty();
+                    return false;
+                }
             }
 
             @Override
             public T next() {
-                return this.sequence.matchOrThrow(
-                    (head, tail) -> {
-                        this.sequence = tail;
-                        return head;
-                    },
-                    NoSuchElementException::new
-                );
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                } else if (this.pending) {
+                    var thunk = this.uncons.thunk;
+                    var head = thunk == null ? this.uncons.head : requireNonNull(thunk.get());
+                    this.uncons.head = null;
+                    this.uncons.thunk = null;
+                    this.pending = false;
+                    return head;
+                } else {
+                    var chunk = this.chunk;
+                    var element = chunk.get(this.index);
+                    if (++this.index == chunk.to) {
+                        this.sequence = chunk.rest;
+                        this.chunk = null;
+                    }
+                    return element;
+                }
             }
 
             @Override
             public void forEachRemaining(Consumer<? super T> action) {
-                this.sequence.forEach(action);
+                requireNonNull(action);
+                if (this.pending) {
+                    action.accept(this.next());
+                }
+                var chunk = this.chunk;
+                if (chunk != null) {
+                    this.sequence = chunk.rest;
+                    this.chunk = null;
+                    chunk.forEach(action, this.index);
+                }
+                var sequence = this.sequence;
                 this.sequence = Sequence.empty();
+                Sequence.forEach(sequence, action);
             }
 
             @Override
@@ -1726,15 +3403,15 @@ public abstract class Sequence<T> implements Iterable<T> {
             return true;
         } else if (object instanceof Sequence) {
             //noinspection RedundantCast
-            return Trampoline.evaluate(
+            return Trampoline.loop(
                 this,
                 (Sequence<?>) object,
-                equal -> sequence -> other -> sequence.matchLazy(
+                (sequence, other, loop) -> sequence.matchLazy(
                     (x, xs) -> other.match(
-                        (y, ys) -> x.get().equals(y) ? call(equal, xs, ys) : terminate(false),
-                        () -> terminate(false)
+                        (y, ys) -> x.get().equals(y) ? loop.recur(xs, ys) : loop.done(false),
+                        () -> loop.done(false)
                     ),
-                    () -> terminate(other.isEmpty())
+                    () -> loop.done(other.isEmpty())
                 )
             );
         } else {
@@ -1762,6 +3439,10 @@ public abstract class Sequence<T> implements Iterable<T> {
      */
     @Override
     public String toString() {
+        var known = this.knownLength();
+        if (known >= 0) {
+            return known > 30 ? this.take(30).toString(", ", "[", ", ...]") : this.toString(", ", "[", "]");
+        }
         var sequence = this.memoize();
         if (sequence.longerThan(30)) {
             return sequence.take(30).toString(", ", "[", ", ...]");
@@ -1806,32 +3487,31 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @throws ArithmeticException if the length overflows a long
      */
     public long length() {
-        return Trampoline.evaluate(
-            this,
-            new MutableLong(0),
-            length -> sequence -> n -> sequence.matchLazy(
-                (head, tail) -> call(length, tail, n.increment()),
-                () -> terminate(n.value)
-            )
-        );
-    }
-
-    private static class MutableLong {
-        long value;
-
-        MutableLong(long value) {
-            this.value = value;
+        var known = this.knownLength();
+        if (known >= 0) {
+            return known;
         }
-
-        MutableLong increment() {
-            this.value = Math.incrementExact(this.value);
-            return this;
+        long length = 0;
+        for (var sequence = this; ; ) {
+            sequence = Sequence.resolve(sequence);
+            if (sequence instanceof Indexed) {
+                var chunk = (Indexed<T>) sequence;
+                length = Math.addExact(length, chunk.size());
+                sequence = chunk.rest;
+            } else if ((sequence = sequence.next()) != null) {
+                length = Math.incrementExact(length);
+            } else {
+                return length;
+            }
         }
     }
 
     /** The nonnegative number of elements in this sequence, if less than or equal to a given bound. */
     public Maybe<Long> length(long bound) {
-        if (bound == Long.MAX_VALUE) {
+        var known = this.knownLength();
+        if (known >= 0) {
+            return known <= bound ? Maybe.of(known) : Maybe.empty();
+        } else if (bound == Long.MAX_VALUE) {
             return Maybe.from(this::length);
         } else if (bound >= 0) {
             return Maybe.lazy(
@@ -1866,15 +3546,15 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#shorterThan(Sequence)
      */
     public boolean longerThan(Sequence<?> sequence) {
-        return Trampoline.evaluate(
+        return Trampoline.loop(
             this,
             sequence,
-            longer -> seq -> other -> seq.matchLazy(
+            (seq, other, loop) -> seq.matchLazy(
                 (x, xs) -> other.matchLazy(
-                    (y, ys) -> call(longer, xs, ys),
-                    () -> terminate(true)
+                    (y, ys) -> loop.recur(xs, ys),
+                    () -> loop.done(true)
                 ),
-                () -> terminate(false)
+                () -> loop.done(false)
             )
         );
     }
@@ -1907,7 +3587,8 @@ public abstract class Sequence<T> implements Iterable<T> {
      * True if and only if there are no elements in this sequence.
      */
     public boolean isEmpty() {
-        return this.matchLazy(
+        var known = this.knownLength();
+        return known >= 0 ? known == 0 : this.matchLazy(
             (head, tail) -> false,
             true
         );
@@ -1933,13 +3614,8 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#or(Sequence)
      */
     public boolean any(Predicate<? super T> predicate) {
-        return Trampoline.evaluate(
-            this,
-            any -> sequence -> sequence.match(
-                (head, tail) -> predicate.test(head) ? terminate(true) : call(any, tail),
-                () -> terminate(false)
-            )
-        );
+        requireNonNull(predicate);
+        return !Sequence.forEachWhile(this, predicate.negate());
     }
 
     /**
@@ -2089,21 +3765,21 @@ public abstract class Sequence<T> implements Iterable<T> {
                 if (this.seen.contains(element)) {
                     return true;
                 } else {
-                    return Trampoline.evaluate(
+                    return Trampoline.loop(
                         this.rest,
-                        contains -> seq -> seq.match(
+                        (seq, loop) -> seq.match(
                             (head, tail) -> {
                                 this.seen.add(head);
                                 if (head.equals(element)) {
                                     this.rest = tail;
-                                    return terminate(true);
+                                    return loop.done(true);
                                 } else {
-                                    return call(contains, tail);
+                                    return loop.recur(tail);
                                 }
                             },
                             () -> {
                                 this.rest = Sequence.empty();
-                                return terminate(false);
+                                return loop.done(false);
                             }
                         )
                     );
@@ -2119,15 +3795,15 @@ public abstract class Sequence<T> implements Iterable<T> {
      * this sequence.
      */
     public boolean hasPrefix(Sequence<? extends T> prefix) {
-        return Trampoline.evaluate(
+        return Trampoline.loop(
             this,
             prefix,
-            hasPrefix -> sequence -> other -> other.matchLazy(
+            (sequence, other, loop) -> other.matchLazy(
                 (y, ys) -> sequence.match(
-                    (x, xs) -> x.equals(y.get()) ? call(hasPrefix, xs, ys) : terminate(false),
-                    () -> terminate(false)
+                    (x, xs) -> x.equals(y.get()) ? loop.recur(xs, ys) : loop.done(false),
+                    () -> loop.done(false)
                 ),
-                () -> terminate(true)
+                () -> loop.done(true)
             )
         );
     }
@@ -2151,19 +3827,15 @@ public abstract class Sequence<T> implements Iterable<T> {
 
     /** True if and only if all of the given elements appear somewhere in this sequence in their same order. */
     public boolean hasSubsequence(Sequence<? extends T> subsequence) {
-        return Trampoline.evaluate(
+        return Trampoline.loop(
             this,
             subsequence,
-            hasSubsequence -> sequence -> other -> other.matchLazy(
+            (sequence, other, loop) -> other.matchLazy(
                 (y, ys) -> sequence.match(
-                    (x, xs) -> x.equals(y.get()) ? call(hasSubsequence, xs, ys) : call(
-                        hasSubsequence,
-                        xs,
-                        other
-                    ),
-                    () -> terminate(false)
+                    (x, xs) -> x.equals(y.get()) ? loop.recur(xs, ys) : loop.recur(xs, other),
+                    () -> loop.done(false)
                 ),
-                () -> terminate(true)
+                () -> loop.done(true)
             )
         );
     }
@@ -2189,15 +3861,27 @@ public abstract class Sequence<T> implements Iterable<T> {
      */
     public Maybe<T> last() {
         return Maybe.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
-                last -> sequence -> sequence.matchLazy(
-                    (head, tail) -> tail.matchNonEmpty(
-                        rest -> call(last, rest),
-                        () -> terminate(Maybe.of(head))
-                    ),
-                    () -> terminate(Maybe.empty())
-                )
+                (sequence, loop) -> {
+                    var resolved = Sequence.resolve(sequence);
+                    if (resolved instanceof Indexed) {
+                        var chunk = (Indexed<T>) resolved;
+                        if (chunk.rest.isEmpty()) {
+                            return loop.done(Maybe.of(chunk.get(chunk.to - 1)));
+                        } else {
+                            return loop.recur(chunk.rest);
+                        }
+                    } else {
+                        return resolved.matchLazy(
+                            (head, tail) -> tail.matchNonEmpty(
+                                rest -> loop.recur(rest),
+                                () -> loop.done(Maybe.of(head))
+                            ),
+                            () -> loop.done(Maybe.empty())
+                        );
+                    }
+                }
             )
         );
     }
@@ -2216,14 +3900,15 @@ public abstract class Sequence<T> implements Iterable<T> {
     /** The element of this sequence at a given index, if the index is in bounds. */
     public Maybe<T> element(long index) {
         return index < 0 ? Maybe.empty() : Maybe.lazy(
-            () -> Trampoline.evaluate(
-                this,
-                index,
-                element -> sequence -> n -> sequence.matchLazy(
-                    (head, tail) -> n == 0 ? terminate(Maybe.of(head)) : call(element, tail, n - 1),
-                    () -> terminate(Maybe.empty())
-                )
-            )
+            () -> {
+                var sequence = Sequence.drop(this, index);
+                if (sequence instanceof Indexed) {
+                    var chunk = (Indexed<T>) sequence;
+                    return Maybe.of(chunk.get(chunk.from));
+                } else {
+                    return sequence.matchLazy((head, tail) -> Maybe.of(head), Maybe.empty());
+                }
+            }
         );
     }
 
@@ -2239,14 +3924,25 @@ public abstract class Sequence<T> implements Iterable<T> {
 
     /** The first element of this sequence that satisfies a predicate, if such an element exists. */
     public Maybe<T> find(Predicate<? super T> predicate) {
+        requireNonNull(predicate);
         return Maybe.lazy(
-            () -> Trampoline.evaluate(
-                this,
-                find -> sequence -> sequence.match(
-                    (head, tail) -> predicate.test(head) ? terminate(Maybe.of(head)) : call(find, tail),
-                    () -> terminate(Maybe.empty())
-                )
-            )
+            () -> {
+                var found = new Object[1];
+                Sequence.forEachWhile(
+                    this,
+                    element -> {
+                        if (predicate.test(element)) {
+                            found[0] = element;
+                            return false;
+                        } else {
+                            return true;
+                        }
+                    }
+                );
+                @SuppressWarnings("unchecked") // safe because only elements of this sequence are stored
+                var element = (T) found[0];
+                return Maybe.nullable(element);
+            }
         );
     }
 
@@ -2254,12 +3950,12 @@ public abstract class Sequence<T> implements Iterable<T> {
     public Maybe<Long> index(T element) {
         requireNonNull(element);
         return Maybe.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
                 0L,
-                index -> sequence -> n -> n < 0 ? terminate(Maybe.empty()) : sequence.match(
-                    (head, tail) -> head.equals(element) ? terminate(Maybe.of(n)) : call(index, tail, n + 1),
-                    () -> terminate(Maybe.empty())
+                (sequence, n, loop) -> n < 0 ? loop.done(Maybe.empty()) : sequence.match(
+                    (head, tail) -> head.equals(element) ? loop.done(Maybe.of(n)) : loop.recur(tail, n + 1),
+                    () -> loop.done(Maybe.empty())
                 )
             )
         );
@@ -2273,14 +3969,20 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Functions#flip(BiFunction)
      */
     public <R> R foldLeft(R initial, BiFunction<R, ? super T, R> function) {
-        return Trampoline.evaluate(
+        requireNonNull(function);
+        var result = new Object[] {initial};
+        Sequence.forEachWhile(
             this,
-            initial,
-            fold -> sequence -> result -> sequence.match(
-                (head, tail) -> call(fold, tail, function.apply(result, head)),
-                () -> terminate(result)
-            )
+            element -> {
+                @SuppressWarnings("unchecked") // safe because only results of the function are stored
+                var accumulator = (R) result[0];
+                result[0] = function.apply(accumulator, element);
+                return true;
+            }
         );
+        @SuppressWarnings("unchecked") // safe because only results of the function are stored
+        var folded = (R) requireNonNull(result[0]);
+        return folded;
     }
 
     /**
@@ -2297,7 +3999,33 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @param <R> the type of the result
      */
     public <R> R foldRight(R initial, BiFunction<? super T, R, R> function) {
-        return this.reverse().foldLeft(initial, flip(function));
+        requireNonNull(function);
+        return Sequence.rightFold(this, initial, function).evaluate();
+    }
+
+    /**
+     * A right fold as a trampoline whose continuations are the pending applications of the reducing function, so that
+     * it runs in constant stack space without reversing the sequence. Indexed cells are folded backwards by index.
+     */
+    private static <T, R> Trampoline<R> rightFold(Sequence<T> sequence, R initial, BiFunction<? super T, R, R> function) {
+        return call(
+            () -> {
+                var resolved = Sequence.resolve(sequence);
+                if (resolved instanceof Indexed) {
+                    var chunk = (Indexed<T>) resolved;
+                    return Sequence.rightFold(chunk.rest, initial, function).map(
+                        result -> chunk.foldRight(result, function, chunk.to)
+                    );
+                } else {
+                    return resolved.match(
+                        (head, tail) -> Sequence.rightFold(tail, initial, function).map(
+                            result -> function.apply(head, result)
+                        ),
+                        () -> terminate(initial)
+                    );
+                }
+            }
+        );
     }
 
     /**
@@ -2305,7 +4033,13 @@ public abstract class Sequence<T> implements Iterable<T> {
      * from the right, using the last element as the initial value if this sequence is non-empty.
      */
     public Maybe<T> foldRight(BiFunction<T, T, T> operator) {
-        return this.reverse().foldLeft(flip(operator));
+        requireNonNull(operator);
+        return Maybe.lazy(
+            () -> this.foldRight(
+                Maybe.<T>empty(),
+                (element, result) -> Maybe.of(result.match(value -> operator.apply(element, value), element))
+            )
+        );
     }
 
     /**
@@ -2316,15 +4050,15 @@ public abstract class Sequence<T> implements Iterable<T> {
      * result, allowing it to work on infinite sequences.
      */
     public <R> R foldRight(R initial, Function<? super T, ? extends Either<? extends R, ? extends Function<R, R>>> function) {
-        return Trampoline.evaluate(
+        return Trampoline.loop(
             this,
             Sequence.<Function<R, R>>empty(),
-            fold -> sequence -> reversed -> sequence.match(
+            (sequence, reversed, loop) -> sequence.match(
                 (head, tail) -> function.apply(head).match(
-                    left -> terminate(reversed.foldLeft(left, uncurry(Functions::apply))),
-                    right -> call(fold, tail, Sequence.cons(right, reversed))
+                    left -> loop.done(reversed.foldLeft(left, uncurry(Functions::apply))),
+                    right -> loop.recur(tail, Sequence.cons(right, reversed))
                 ),
-                () -> terminate(reversed.foldLeft(initial, uncurry(Functions::apply)))
+                () -> loop.done(reversed.foldLeft(initial, uncurry(Functions::apply)))
             )
         );
     }
@@ -2338,18 +4072,18 @@ public abstract class Sequence<T> implements Iterable<T> {
      */
     public Maybe<T> foldRight(Function<T, Either<T, Function<T, T>>> operator) {
         return Maybe.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
                 Sequence.<Function<T, T>>empty(),
-                fold -> sequence -> reversed -> sequence.match(
+                (sequence, reversed, loop) -> sequence.match(
                     (head, tail) -> tail.matchNonEmpty(
                         rest -> operator.apply(head).match(
-                            left -> terminate(Maybe.of(() -> reversed.foldLeft(left, uncurry(Functions::apply)))),
-                            right -> call(fold, rest, Sequence.cons(right, reversed))
+                            left -> loop.done(Maybe.of(() -> reversed.foldLeft(left, uncurry(Functions::apply)))),
+                            right -> loop.recur(rest, Sequence.cons(right, reversed))
                         ),
-                        () -> terminate(Maybe.of(() -> reversed.foldLeft(head, uncurry(Functions::apply))))
+                        () -> loop.done(Maybe.of(() -> reversed.foldLeft(head, uncurry(Functions::apply))))
                     ),
-                    () -> terminate(Maybe.empty())
+                    () -> loop.done(Maybe.empty())
                 )
             )
         );
@@ -2394,7 +4128,19 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#collect(Supplier,BiConsumer)
      */
     public <C extends Collection<? super T>> C collect(Supplier<C> collection) {
-        return this.collect(collection, Collection::add);
+        var result = collection.get();
+        var known = this.knownLength();
+        if (result instanceof ArrayList && known > 0 && known <= MAX_ARRAY_LENGTH) {
+            ((ArrayList<?>) result).ensureCapacity(result.size() + (int) known);
+        }
+        Sequence.forEachWhile(
+            this,
+            element -> {
+                result.add(element);
+                return true;
+            }
+        );
+        return result;
     }
 
     /**
@@ -2421,6 +4167,105 @@ public abstract class Sequence<T> implements Iterable<T> {
         return collector.finisher().apply(this.collect(collector.supplier(), collector.accumulator()));
     }
 
+    /**
+     * Combine the elements of this sequence into a single result in parallel, on the common fork/join pool.
+     *
+     * <p>The identity must be an identity for the combiner, and the accumulator and combiner must be associative,
+     * non-interfering, stateless, and compatible with each other, just like the arguments of
+     * {@link Stream#reduce(Object, BiFunction, BinaryOperator)}. If this sequence is infinite, this method will never
+     * return.
+     *
+     * @param <R> the type of the result
+     *
+     * @see Sequence#parallelReduce(Object, BiFunction, BinaryOperator, ForkJoinPool)
+     * @see Sequence#parallelCollect(Collector)
+     * @see Sequence#foldLeft(Object, BiFunction)
+     */
+    public <R> R parallelReduce(R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner) {
+        return this.parallelReduce(identity, accumulator, combiner, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Combine the elements of this sequence into a single result in parallel, on a given fork/join pool.
+     *
+     * <p>This sequence is split into chunks according to its {@link Sequence#spliterator() spliterator}, and the
+     * chunks are reduced concurrently and then combined. Sequences that are known to be short are reduced
+     * sequentially, without involving the pool. If this sequence is infinite, this method will never return.
+     *
+     * @param <R> the type of the result
+     *
+     * @see Sequence#parallelReduce(Object, BiFunction, BinaryOperator)
+     * @see Sequence#parallelCollect(Collector, ForkJoinPool)
+     */
+    public <R> R parallelReduce(R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner, ForkJoinPool pool) {
+        requireNonNull(accumulator);
+        requireNonNull(combiner);
+        return Sequence.parallel(this, pool, stream -> stream.reduce(identity, accumulator, combiner));
+    }
+
+    /**
+     * Combine the elements of this sequence into a single, mutable result in parallel using a collector, on the common
+     * fork/join pool.
+     *
+     * <p>Unlike {@link Sequence#collect(Collector)}, this method makes use of the combiner of the collector. If this
+     * sequence is infinite, this method will never return.
+     *
+     * @see Sequence#parallelCollect(Collector, ForkJoinPool)
+     * @see Sequence#parallelReduce(Object, BiFunction, BinaryOperator)
+     * @see Sequence#collect(Collector)
+     */
+    public <A, R> R parallelCollect(Collector<? super T, A, ? extends R> collector) {
+        return this.parallelCollect(collector, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Combine the elements of this sequence into a single, mutable result in parallel using a collector, on a given
+     * fork/join pool.
+     *
+     * <p>Sequences that are known to be short are collected sequentially, without involving the pool. If this sequence
+     * is infinite, this method will never return.
+     *
+     * @see Sequence#parallelCollect(Collector)
+     * @see Sequence#parallelReduce(Object, BiFunction, BinaryOperator, ForkJoinPool)
+     */
+    public <A, R> R parallelCollect(Collector<? super T, A, ? extends R> collector, ForkJoinPool pool) {
+        requireNonNull(collector);
+        return Sequence.parallel(this, pool, stream -> stream.collect(collector));
+    }
+
+    /** Sized sequences with fewer elements than this are processed sequentially by parallel terminal operations. */
+    private static final long PARALLEL_THRESHOLD = 1 << 13;
+
+    private static <T, R> R parallel(Sequence<T> sequence, ForkJoinPool pool, Function<Stream<T>, R> operation) {
+        var spliterator = sequence.spliterator();
+        return Sequence.parallel(
+            pool,
+            spliterator.getExactSizeIfKnown(),
+            parallel -> operation.apply(StreamSupport.stream(spliterator, parallel))
+        );
+    }
+
+    /**
+     * Run a task over a given number of elements (or -1 if unknown) on a given pool, telling it whether to fork.
+     *
+     * <p>If there are known to be too few elements to be worth forking, the task runs sequentially on the current
+     * thread. Otherwise, since fork/join tasks fork into the pool of the current thread, or else the common pool, the
+     * task runs on the current thread only if it is a worker of the given pool, or if the given pool is the common
+     * pool and the current thread is not a worker of any other pool; it is submitted to the given pool otherwise.
+     */
+    static <R> R parallel(ForkJoinPool pool, long size, Function<Boolean, R> task) {
+        requireNonNull(pool);
+        if (size >= 0 && size < PARALLEL_THRESHOLD) {
+            return task.apply(false);
+        }
+        var current = ForkJoinTask.getPool();
+        if (current == pool || (current == null && pool == ForkJoinPool.commonPool())) {
+            return task.apply(true);
+        } else {
+            return pool.submit(() -> task.apply(true)).join();
+        }
+    }
+
     /**
      * Impose on this sequence a given order on its elements.
      *
@@ -2431,7 +4276,7 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#strictlyDecreasing(Comparator)
      */
     public Sequence<T> sort(Comparator<? super T> comparator) {
-        return Sequence.lazy(() -> Sequence.memoize(this.stream().sorted(comparator)));
+        return new Sorted<>(this, null, comparator, Long.MAX_VALUE);
     }
 
     /**
@@ -2439,8 +4284,7 @@ public abstract class Sequence<T> implements Iterable<T> {
      *
      * <p>{@code sequence.sort(function)} is equivalent to {@code sequence.sort(Comparator.comparing(function)}, but in
      * the former case, {@code function} is only invoked once per element, which is useful if it is expensive. The
-     * trade-off is more indirection and object creation: each element must be mapped to a pair holding the element and
-     * the result of the function, and then after sorting, the pairs must be mapped back to the elements.
+     * results of the function are held in an array alongside the elements while sorting, so no pairs are allocated.
      *
      * @see Sequence#sort(Comparator)
      * @see Sequence#sort(Function, Comparator)
@@ -2455,34 +4299,93 @@ public abstract class Sequence<T> implements Iterable<T> {
      *
      * <p>{@code sequence.sort(function,comparator)} is equivalent to
      * {@code sequence.sort(Comparator.comparing(function,comparator)}, but in the former case, {@code function} is
-     * only invoked once per element, which is useful if it is expensive. The trade-off is more indirection and object
-     * creation: each element must be mapped to a pair holding the element and the result of the function, and then
-     * after sorting, the pairs must be mapped back to the elements.
+     * only invoked once per element, which is useful if it is expensive. The results of the function are held in an
+     * array alongside the elements while sorting, so no pairs are allocated.
      *
      * @see Sequence#sort(Comparator)
      * @see Sequence#sort(Function)
      * @see Comparator#comparing(Function, Comparator)
      */
     public <R> Sequence<T> sort(Function<? super T, ? extends R> function, Comparator<? super R> comparator) {
-        return this.map(
-            element -> Pair.of(element, function.apply(element))
-        ).sort(
-            bySecond(comparator)
-        ).map(
-            Pair::first
+        return new Sorted<>(this, requireNonNull(function), comparator, Long.MAX_VALUE);
+    }
+
+    /**
+     * Impose on this sequence a given order on its elements, sorting in parallel on the common fork/join pool.
+     *
+     * @see Sequence#parallelSort(Comparator, ForkJoinPool)
+     * @see Sequence#sort(Comparator)
+     * @see Sequences#parallelSort(Sequence)
+     */
+    public Sequence<T> parallelSort(Comparator<? super T> comparator) {
+        return this.parallelSort(comparator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Impose on this sequence a given order on its elements, sorting in parallel on a given fork/join pool.
+     *
+     * <p>The first time the returned sequence is traversed, the elements of this sequence are copied into an array,
+     * which is sorted with {@link Arrays#parallelSort(Object[], Comparator)} and then lazily viewed in place by this
+     * and every later traversal. The sort is stable. Sequences that turn out to be short are sorted sequentially, without involving the pool, as are all
+     * sequences if the parallelism of the common pool is one, which {@code Arrays.parallelSort} consults. Unlike
+     * {@link Sequence#sort(Comparator)}, taking a prefix of the returned sequence still sorts every element. If this
+     * sequence is infinite, traversing the returned sequence will never return.
+     *
+     * @see Sequence#parallelSort(Comparator)
+     * @see Sequences#parallelSortInts(Sequence, ForkJoinPool)
+     * @see Sequences#parallelSortLongs(Sequence, ForkJoinPool)
+     */
+    public Sequence<T> parallelSort(Comparator<? super T> comparator, ForkJoinPool pool) {
+        requireNonNull(comparator);
+        requireNonNull(pool);
+        Supplier<Sequence<T>> sorted = Functions.memoize(
+            () -> {
+                @SuppressWarnings("unchecked") // safe because the array only holds elements of this sequence
+                var array = (T[]) this.array(Object[]::new);
+                var elements = Sequence.parallel(
+                    pool,
+                    array.length,
+                    parallel -> {
+                        if (parallel) {
+                            Arrays.parallelSort(array, comparator);
+                        } else {
+                            Arrays.sort(array, comparator);
+                        }
+                        return array;
+                    }
+                );
+                return Sequence.chunk(elements, elements.length, Sequence.empty());
+            }
         );
+        return Sequence.sized(Sequence.lazy(sorted), this::knownLength);
     }
 
     /** Reverse the order of this sequence. */
     public Sequence<T> reverse() {
+        return Sequence.sized(this.reversed(), this::knownLength);
+    }
+
+    private Sequence<T> reversed() {
         return Sequence.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
                 Sequence.<T>empty(),
-                reverse -> sequence -> reversed -> sequence.matchLazy(
-                    (head, tail) -> call(reverse, tail, Sequence.cons(head, reversed)),
-                    () -> terminate(reversed)
-                )
+                (sequence, reversed, loop) -> {
+                    var resolved = Sequence.resolve(sequence);
+                    if (resolved instanceof Indexed) {
+                        var chunk = (Indexed<T>) resolved;
+                        var last = chunk.to - 1;
+                        return loop.recur(
+                            chunk.rest,
+                            new Computed<>(index -> chunk.get(last - index), 0, chunk.size(), reversed, chunk.view)
+                        );
+                    } else {
+                        return resolved.matchLazy(
+                            (head, tail) -> loop.recur(tail, Sequence.cons(head, reversed)),
+                            () -> loop.done(reversed)
+                        );
+                    }
+                }
             )
         );
     }
@@ -2619,15 +4522,7 @@ public abstract class Sequence<T> implements Iterable<T> {
 
     /** The elements of this sequence that satisfy a predicate. */
     public Sequence<T> filter(Predicate<? super T> predicate) {
-        return Sequence.lazy(
-            () -> Trampoline.evaluate(
-                this,
-                filter -> sequence -> sequence.match(
-                    (x, xs) -> predicate.test(x) ? terminate(cons(x, xs.filter(predicate))) : call(filter, xs),
-                    () -> terminate(Sequence.empty())
-                )
-            )
-        );
+        return Pipeline.filter(this, predicate);
     }
 
     /**
@@ -2648,30 +4543,38 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#slice(long, long)
      */
     public Sequence<T> take(long length) {
-        return length < 1 ? Sequence.empty() : Sequence.lazy(
-            () -> this.matchLazy(
-                (head, tail) -> Sequence.cons(head, tail.take(length - 1)),
-                Sequence.empty()
-            )
-        );
+        return length < 1 ? Sequence.empty() : Sequence.sized(this.prefix(length), () -> {
+            var known = this.knownLength();
+            return known < 0 ? -1 : Math.min(known, length);
+        });
     }
 
-    /** The longest prefix of this sequence such that every element satisfies a predicate. */
-    public Sequence<T> takeWhile(Predicate<? super T> predicate) {
+    private Sequence<T> prefix(long length) {
         return Sequence.lazy(
-            () -> this.match(
-                (head, tail) -> {
-                    if (predicate.test(head)) {
-                        return Sequence.cons(head, tail.takeWhile(predicate));
+            () -> {
+                var resolved = Sequence.resolve(this);
+                if (resolved instanceof Indexed) {
+                    var chunk = (Indexed<T>) resolved;
+                    if (length <= chunk.size()) {
+                        return chunk.slice(chunk.from, chunk.from + length, Sequence.empty());
                     } else {
-                        return Sequence.empty();
+                        return chunk.slice(chunk.from, chunk.to, chunk.rest.prefix(length - chunk.size()));
                     }
-                },
-                Sequence.empty()
-            )
+                } else {
+                    return resolved.matchLazy(
+                        (head, tail) -> Sequence.cons(head, length == 1 ? Sequence.empty() : tail.prefix(length - 1)),
+                        Sequence.empty()
+                    );
+                }
+            }
         );
     }
 
+    /** The longest prefix of this sequence such that every element satisfies a predicate. */
+    public Sequence<T> takeWhile(Predicate<? super T> predicate) {
+        return Pipeline.takeWhile(this, predicate);
+    }
+
     /** Take as many elements of this sequence as another sequence produces. */
     public Sequence<T> takeWhile(Sequence<?> sequence) {
         return Sequence.lazy(
@@ -2695,26 +4598,43 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#slice(long, long)
      */
     public Sequence<T> skip(long length) {
-        return length <= 0 ? this : Sequence.lazy(
-            () -> Trampoline.evaluate(
-                this,
-                length,
-                skip -> sequence -> n -> n == 0 ? terminate(sequence) : sequence.matchLazy(
-                    (head, tail) -> call(skip, tail, n - 1),
-                    () -> terminate(Sequence.empty())
-                )
-            )
-        );
+        return length <= 0 ? this : Sequence.sized(Sequence.lazy(() -> Sequence.drop(this, length)), () -> {
+            var known = this.knownLength();
+            return known < 0 ? -1 : Math.max(0, known - length);
+        });
+    }
+
+    /**
+     * Eagerly skip over a given number of elements of a sequence without evaluating them, jumping over indexed cells in
+     * constant time.
+     */
+    private static <T> Sequence<T> drop(Sequence<T> sequence, long length) {
+        while (length > 0) {
+            sequence = Sequence.resolve(sequence);
+            if (sequence instanceof Indexed) {
+                var chunk = (Indexed<T>) sequence;
+                if (length < chunk.size()) {
+                    return chunk.slice(chunk.from + length, chunk.to, chunk.rest);
+                }
+                length -= chunk.size();
+                sequence = chunk.rest;
+            } else if ((sequence = sequence.next()) == null) {
+                return Sequence.empty();
+            } else {
+                length--;
+            }
+        }
+        return sequence;
     }
 
     /** The elements following the longest prefix of elements of this sequence that satisfy a predicate. */
     public Sequence<T> skipWhile(Predicate<? super T> predicate) {
         return Sequence.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
-                skip -> sequence -> sequence.match(
-                    (head, tail) -> predicate.test(head) ? call(skip, tail) : terminate(Sequence.cons(head, tail)),
-                    () -> terminate(Sequence.empty())
+                (sequence, loop) -> sequence.match(
+                    (head, tail) -> predicate.test(head) ? loop.recur(tail) : loop.done(Sequence.cons(head, tail)),
+                    () -> loop.done(Sequence.empty())
                 )
             )
         );
@@ -2723,15 +4643,15 @@ public abstract class Sequence<T> implements Iterable<T> {
     /** Skip as many elements of this sequence as another sequence produces. */
     public Sequence<T> skipWhile(Sequence<?> sequence) {
         return Sequence.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
                 sequence,
-                skip -> seq -> other -> other.matchLazy(
+                (seq, other, loop) -> other.matchLazy(
                     (y, ys) -> seq.matchLazy(
-                        (x, xs) -> call(skip, xs, ys),
-                        () -> terminate(Sequence.empty())
+                        (x, xs) -> loop.recur(xs, ys),
+                        () -> loop.done(Sequence.empty())
                     ),
-                    () -> terminate(seq)
+                    () -> loop.done(seq)
                 )
             )
         );
@@ -2817,20 +4737,20 @@ public abstract class Sequence<T> implements Iterable<T> {
     /** Filter out the longest prefix of another sequence that is a subsequence of this sequence. */
     public Sequence<T> delete(Sequence<? extends T> sequence) {
         return Sequence.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
                 sequence,
-                delete -> xs_ -> ys_ -> ys_.matchLazy(
+                (xs_, ys_, loop) -> ys_.matchLazy(
                     (y, ys) -> xs_.match(
                         (x, xs) -> let(
                             y.get(),
-                            y_ -> x.equals(y_) ? call(delete, xs, ys) : terminate(
+                            y_ -> x.equals(y_) ? loop.recur(xs, ys) : loop.done(
                                 Sequence.cons(x, xs.delete(Sequence.cons(y_, ys)))
                             )
                         ),
-                        () -> terminate(Sequence.empty())
+                        () -> loop.done(Sequence.empty())
                     ),
-                    terminate(xs_)
+                    () -> loop.done(xs_)
                 )
             )
         );
@@ -2857,7 +4777,7 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#deduplicate(Comparator)
      */
     public Sequence<T> deduplicate() {
-        return Sequence.lazy(() -> this.filter(new HashSet<>()::add).memoize());
+        return Sequence.lazy(() -> this.filter(new HashSet<>()::add)).memoize();
     }
 
     /**
@@ -2871,7 +4791,7 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequences#deduplicate(Sequence)
      */
     public Sequence<T> deduplicate(Function<? super T, ?> function) {
-        return Sequence.lazy(() -> this.filter(Predicates.compose(new HashSet<>()::add, function)).memoize());
+        return Sequence.lazy(() -> this.filter(Predicates.compose(new HashSet<>()::add, function))).memoize();
     }
 
     /**
@@ -2919,13 +4839,30 @@ public abstract class Sequence<T> implements Iterable<T> {
     /** A view of this sequence with the given element at the given index instead of the original element. */
     public Sequence<T> replace(long index, T element) {
         return index < 0 ? this : Sequence.lazy(
-            () -> this.matchLazy(
-                (head, tail) -> index == 0 ? Sequence.cons(element, tail) : Sequence.cons(
-                    head,
-                    tail.replace(index - 1, element)
-                ),
-                Sequence.empty()
-            )
+            () -> {
+                var resolved = Sequence.resolve(this);
+                if (resolved instanceof Indexed) {
+                    var chunk = (Indexed<T>) resolved;
+                    if (index < chunk.size()) {
+                        var position = chunk.from + index;
+                        return chunk.slice(
+                            chunk.from,
+                            position,
+                            Sequence.cons(element, chunk.slice(position + 1, chunk.to, chunk.rest))
+                        );
+                    } else {
+                        return chunk.slice(chunk.from, chunk.to, chunk.rest.replace(index - chunk.size(), element));
+                    }
+                } else {
+                    return resolved.matchLazy(
+                        (head, tail) -> index == 0 ? Sequence.cons(element, tail) : Sequence.cons(
+                            head,
+                            tail.replace(index - 1, element)
+                        ),
+                        Sequence.empty()
+                    );
+                }
+            }
         );
     }
 
@@ -2971,10 +4908,53 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#apply(Sequence)
      */
     public <R> Sequence<R> map(Function<? super T, ? extends R> function) {
-        return Sequence.lazy(
-            () -> this.matchLazy(
-                (head, tail) -> Sequence.cons(() -> function.apply(head.get()), tail.map(function)),
-                Sequence.empty()
+        return Pipeline.map(this, function);
+    }
+
+    /**
+     * Apply a function to each element of this sequence, producing a sequence of unboxed {@code int} values.
+     *
+     * @see Sequence#map(Function)
+     * @see IntSequence#boxed()
+     */
+    public IntSequence mapToInt(ToIntFunction<? super T> function) {
+        requireNonNull(function);
+        return IntSequence.lazy(
+            () -> this.match(
+                (head, tail) -> IntSequence.cons(function.applyAsInt(head), tail.mapToInt(function)),
+                IntSequence.empty()
+            )
+        );
+    }
+
+    /**
+     * Apply a function to each element of this sequence, producing a sequence of unboxed {@code long} values.
+     *
+     * @see Sequence#map(Function)
+     * @see LongSequence#boxed()
+     */
+    public LongSequence mapToLong(ToLongFunction<? super T> function) {
+        requireNonNull(function);
+        return LongSequence.lazy(
+            () -> this.match(
+                (head, tail) -> LongSequence.cons(function.applyAsLong(head), tail.mapToLong(function)),
+                LongSequence.empty()
+            )
+        );
+    }
+
+    /**
+     * Apply a function to each element of this sequence, producing a sequence of unboxed {@code double} values.
+     *
+     * @see Sequence#map(Function)
+     * @see DoubleSequence#boxed()
+     */
+    public DoubleSequence mapToDouble(ToDoubleFunction<? super T> function) {
+        requireNonNull(function);
+        return DoubleSequence.lazy(
+            () -> this.match(
+                (head, tail) -> DoubleSequence.cons(function.applyAsDouble(head), tail.mapToDouble(function)),
+                DoubleSequence.empty()
             )
         );
     }
@@ -3067,12 +5047,20 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#zip(BiFunction)
      */
     public <U, R> Sequence<R> zip(Sequence<? extends U> sequence, BiFunction<? super T, ? super U, ? extends R> function) {
+        return Sequence.sized(this.zipped(sequence, function), () -> {
+            var first = this.knownLength();
+            var second = sequence.knownLength();
+            return first < 0 || second < 0 ? -1 : Math.min(first, second);
+        });
+    }
+
+    private <U, R> Sequence<R> zipped(Sequence<? extends U> sequence, BiFunction<? super T, ? super U, ? extends R> function) {
         return Sequence.lazy(
             () -> this.matchLazy(
                 (x, xs) -> sequence.matchLazy(
                     (y, ys) -> Sequence.cons(
                         () -> function.apply(x.get(), y.get()),
-                        xs.zip(ys, function)
+                        xs.zipped(ys, function)
                     ),
                     Sequence.empty()
                 ),
@@ -3169,7 +5157,7 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequences#longs()
      */
     public <R> Sequence<R> index(BiFunction<? super Long, ? super T, ? extends R> function) {
-        return Sequences.longs().zip(this, function);
+        return Sequence.sized(Sequences.longs().zipped(this, function), this::knownLength);
     }
 
     /**
@@ -3222,12 +5210,8 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequences#concatenate(Sequence)
      */
     public Sequence<T> concatenate(Sequence<? extends T> sequence) {
-        return Sequence.lazy(
-            () -> this.matchLazy(
-                (head, tail) -> Sequence.cons(head, tail.concatenate(sequence)),
-                sequence
-            )
-        );
+        requireNonNull(sequence);
+        return sequence == EMPTY ? this : Concatenation.of(this, sequence);
     }
 
     /**
@@ -3240,12 +5224,7 @@ public abstract class Sequence<T> implements Iterable<T> {
      */
     public Sequence<T> concatenate(Supplier<? extends Sequence<? extends T>> sequence) {
         requireNonNull(sequence);
-        return Sequence.lazy(
-            () -> this.matchLazy(
-                (head, tail) -> Sequence.cons(head, tail.concatenate(sequence)),
-                sequence
-            )
-        );
+        return Concatenation.of(this, sequence);
     }
 
     /** Each element of this sequence paired with the subsequence excluding that element. */
@@ -3297,7 +5276,20 @@ public abstract class Sequence<T> implements Iterable<T> {
 
     /** The sequence of partial results of a right fold over this sequence. */
     public <R> Sequence<R> scanRight(R initial, BiFunction<? super T, R, R> function) {
-        return this.reverse().scanLeft(initial, flip(function)).reverse();
+        requireNonNull(function);
+        return Sequence.lazy(() -> Sequence.rightScan(this, initial, function).evaluate());
+    }
+
+    /** The partial results of a right fold as a trampoline, consing each one onto the results that follow it. */
+    private static <T, R> Trampoline<Sequence<R>> rightScan(Sequence<T> sequence, R initial, BiFunction<? super T, R, R> function) {
+        return call(
+            () -> sequence.match(
+                (head, tail) -> Sequence.rightScan(tail, initial, function).map(
+                    results -> Sequence.cons(function.apply(head, results.head().orThrow()), results)
+                ),
+                () -> terminate(Sequence.of(initial))
+            )
+        );
     }
 
     /**
@@ -3308,7 +5300,23 @@ public abstract class Sequence<T> implements Iterable<T> {
      * @see Sequence#scanLeft(BiFunction)
      */
     public Sequence<T> scanRight(BiFunction<T, T, T> operator) {
-        return this.reverse().scanLeft(flip(operator)).reverse();
+        requireNonNull(operator);
+        return Sequence.lazy(() -> Sequence.rightScan(this, operator).evaluate());
+    }
+
+    /** The partial results of a right fold using the last element as the initial value, as a trampoline. */
+    private static <T> Trampoline<Sequence<T>> rightScan(Sequence<T> sequence, BiFunction<T, T, T> operator) {
+        return call(
+            () -> sequence.match(
+                (head, tail) -> Sequence.rightScan(tail, operator).map(
+                    results -> results.match(
+                        (partial, rest) -> Sequence.cons(operator.apply(head, partial), results),
+                        () -> Sequence.of(head)
+                    )
+                ),
+                () -> terminate(Sequence.empty())
+            )
+        );
     }
 
     /**
@@ -3319,20 +5327,20 @@ public abstract class Sequence<T> implements Iterable<T> {
      */
     public <R> Sequence<R> scanRight(R initial, Function<? super T, ? extends Either<? extends R, ? extends Function<R, R>>> function) {
         return Sequence.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
                 Sequence.<Function<R, R>>empty(),
-                scan -> sequence -> reversed -> sequence.match(
+                (sequence, reversed, loop) -> sequence.match(
                     (head, tail) -> function.apply(head).match(
-                        left -> terminate(
+                        left -> loop.done(
                             Sequences.concatenate(
                                 reversed.scanLeft(left, uncurry(Functions::apply)).reverse(),
                                 tail.scanRight(initial, function)
                             )
                         ),
-                        right -> call(scan, tail, Sequence.cons(right, reversed))
+                        right -> loop.recur(tail, Sequence.cons(right, reversed))
                     ),
-                    () -> terminate(reversed.scanLeft(initial, uncurry(Functions::apply)).reverse())
+                    () -> loop.done(reversed.scanLeft(initial, uncurry(Functions::apply)).reverse())
                 )
             )
         );
@@ -3347,23 +5355,23 @@ public abstract class Sequence<T> implements Iterable<T> {
      */
     public Sequence<T> scanRight(Function<T, Either<T, Function<T, T>>> operator) {
         return Sequence.lazy(
-            () -> Trampoline.evaluate(
+            () -> Trampoline.loop(
                 this,
                 Sequence.<Function<T, T>>empty(),
-                scan -> sequence -> reversed -> sequence.match(
+                (sequence, reversed, loop) -> sequence.match(
                     (head, tail) -> tail.matchNonEmpty(
                         rest -> operator.apply(head).match(
-                            left -> terminate(
+                            left -> loop.done(
                                 Sequences.concatenate(
                                     reversed.scanLeft(left, uncurry(Functions::apply)).reverse(),
                                     rest.scanRight(operator)
                                 )
                             ),
-                            right -> call(scan, rest, Sequence.cons(right, reversed))
+                            right -> loop.recur(rest, Sequence.cons(right, reversed))
                         ),
-                        () -> terminate(reversed.scanLeft(head, uncurry(Functions::apply)).reverse())
+                        () -> loop.done(reversed.scanLeft(head, uncurry(Functions::apply)).reverse())
                     ),
-                    () -> terminate(Sequence.empty())
+                    () -> loop.done(Sequence.empty())
                 )
             )
         );
@@ -13,10 +13,20 @@
 
 package io.github.gdejohn.procrastination;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
@@ -32,8 +42,7 @@ import static io.github.gdejohn.procrastination.Functions.let;
 import static io.github.gdejohn.procrastination.Pair.duplicate;
 import static io.github.gdejohn.procrastination.Predicates.compose;
 import static io.github.gdejohn.procrastination.Predicates.gather;
-import static io.github.gdejohn.procrastination.Trampoline.call;
-import static io.github.gdejohn.procrastination.Trampoline.terminate;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
@@ -44,6 +53,22 @@ import static java.util.concurrent.CompletableFuture.completedFuture;
  * constructors.
  */
 public final class Sequences {
+    /**
+     * The capacity of the first array allocated by {@link Sequences#toSequence()}, and of the first batch read by
+     * {@link Sequence#replay(java.util.function.Supplier)}.
+     */
+    static final int MIN_CHUNK_LENGTH = 16;
+
+    /**
+     * The capacity at which {@link Sequences#toSequence()} and {@link Sequence#replay(java.util.function.Supplier)}
+     * stop doubling the arrays that they allocate, which also bounds the runs cached by
+     * {@link Sequence#memoize(MemoPolicy)}.
+     */
+    static final int MAX_CHUNK_LENGTH = 4096;
+
+    /** The number of bytes that {@link Sequences#lines(FileChannel, Charset)} reads at a time. */
+    private static final int READ_LENGTH = 1 << 16;
+
     private Sequences() {
         throw new AssertionError("this class is not intended to be instantiated");
     }
@@ -82,12 +107,7 @@ public final class Sequences {
      * @see Sequence#concatenate(Sequence)
      */
     public static <T> Sequence<T> concatenate(Sequence<? extends Sequence<? extends T>> sequences) {
-        return Sequence.lazy(
-            () -> sequences.skipWhile(Sequence::isEmpty).match(
-                (sequence, rest) -> Sequences.concatenate(sequence, Sequences.concatenate(rest)),
-                Sequence.empty()
-            )
-        );
+        return Sequence.flatten(sequences);
     }
 
     /**
@@ -441,6 +461,106 @@ public final class Sequences {
         return Sequence.cast(sequence.sort(Comparator.naturalOrder()));
     }
 
+    /**
+     * Impose on a sequence the natural order of its elements, sorting in parallel on the common fork/join pool.
+     *
+     * @see Sequence#parallelSort(Comparator) Sequence.parallelSort(Comparator)
+     * @see Sequences#sort(Sequence)
+     * @see Sequences#parallelSortInts(Sequence)
+     * @see Sequences#parallelSortLongs(Sequence)
+     */
+    public static <T extends Comparable<? super T>> Sequence<T> parallelSort(Sequence<? extends T> sequence) {
+        return Sequence.cast(sequence.parallelSort(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Sort a sequence of integers in ascending order in parallel, on the common fork/join pool.
+     *
+     * @see Sequences#parallelSortInts(Sequence, ForkJoinPool)
+     */
+    public static Sequence<Integer> parallelSortInts(Sequence<Integer> sequence) {
+        return Sequences.parallelSortInts(sequence, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sort a sequence of integers in ascending order in parallel, on a given fork/join pool.
+     *
+     * <p>The first time the returned sequence is traversed, the elements are unboxed into an {@code int} array, which
+     * is sorted with {@link Arrays#parallelSort(int[])}, and the returned sequence lazily boxes them back out of that
+     * array as they are reached.
+     *
+     * @throws NullPointerException when traversed, if any of the elements are null
+     *
+     * @see Sequence#parallelSort(Comparator, ForkJoinPool) Sequence.parallelSort(Comparator, ForkJoinPool)
+     * @see Sequences#parallelSortLongs(Sequence, ForkJoinPool)
+     */
+    public static Sequence<Integer> parallelSortInts(Sequence<Integer> sequence, ForkJoinPool pool) {
+        requireNonNull(pool);
+        Supplier<Sequence<Integer>> sorted = Functions.memoize(
+            () -> {
+                var array = sequence.toIntArray(Integer::intValue);
+                var elements = Sequence.parallel(
+                    pool,
+                    array.length,
+                    parallel -> {
+                        if (parallel) {
+                            Arrays.parallelSort(array);
+                        } else {
+                            Arrays.sort(array);
+                        }
+                        return array;
+                    }
+                );
+                return Sequence.computed(elements.length, index -> elements[(int) index]);
+            }
+        );
+        return Sequence.sized(Sequence.lazy(sorted), sequence::knownLength);
+    }
+
+    /**
+     * Sort a sequence of longs in ascending order in parallel, on the common fork/join pool.
+     *
+     * @see Sequences#parallelSortLongs(Sequence, ForkJoinPool)
+     */
+    public static Sequence<Long> parallelSortLongs(Sequence<Long> sequence) {
+        return Sequences.parallelSortLongs(sequence, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sort a sequence of longs in ascending order in parallel, on a given fork/join pool.
+     *
+     * <p>The first time the returned sequence is traversed, the elements are unboxed into a {@code long} array, which
+     * is sorted with {@link Arrays#parallelSort(long[])}, and the returned sequence lazily boxes them back out of that
+     * array as they are reached.
+     *
+     * @throws NullPointerException when traversed, if any of the elements are null
+     *
+     * @see Sequence#parallelSort(Comparator, ForkJoinPool) Sequence.parallelSort(Comparator, ForkJoinPool)
+     * @see Sequences#parallelSortInts(Sequence, ForkJoinPool)
+     */
+    public static Sequence<Long> parallelSortLongs(Sequence<Long> sequence, ForkJoinPool pool) {
+        requireNonNull(pool);
+        Supplier<Sequence<Long>> sorted = Functions.memoize(
+            () -> {
+                var array = sequence.toLongArray(Long::longValue);
+                var elements = Sequence.parallel(
+                    pool,
+                    array.length,
+                    parallel -> {
+                        if (parallel) {
+                            Arrays.parallelSort(array);
+                        } else {
+                            Arrays.sort(array);
+                        }
+                        return array;
+                    }
+                );
+                return Sequence.computed(elements.length, index -> elements[(int) index]);
+            }
+        );
+        return Sequence.sized(Sequence.lazy(sorted), sequence::knownLength);
+    }
+
     /**
      * Split this sequence into runs of elements that are equivalent according to their natural order.
      *
@@ -498,18 +618,18 @@ public final class Sequences {
      * @see Sequences#lexicographically() Sequence.lexicographically()
      */
     public static <T> Comparator<Sequence<T>> lexicographically(Comparator<? super T> comparator) {
-        return (left, right) -> Trampoline.evaluate(
+        return (left, right) -> Trampoline.loop(
             left,
             right,
-            f -> x_xs -> y_ys -> x_xs.match(
+            (x_xs, y_ys, loop) -> x_xs.match(
                 (x, xs) -> y_ys.match(
                     (y, ys) -> let(
                         comparator.compare(x, y),
-                        comparison -> comparison == 0 ? call(f, xs, ys) : terminate(comparison)
+                        comparison -> comparison == 0 ? loop.recur(xs, ys) : loop.done(comparison)
                     ),
-                    () -> terminate(1)
+                    () -> loop.done(1)
                 ),
-                () -> terminate(y_ys.isEmpty() ? 0 : -1)
+                () -> loop.done(y_ys.isEmpty() ? 0 : -1)
             )
         );
     }
@@ -544,87 +664,106 @@ public final class Sequences {
     /**
      * Collect elements into a sequence, preserving any order imposed by the source.
      *
-     * <p>All of the collector functions run in constant time, allowing optimal speedup for parallel reductions.
+     * <p>The accumulator and combiner run in constant time, allowing optimal speedup for parallel reductions. Elements
+     * are accumulated into arrays, and the resulting sequence reads them directly from those arrays, so it does not
+     * allocate a cell for every element.
      */
     public static <T> Collector<T, ?, Sequence<T>> toSequence() {
         class SequenceBuilder {
-            abstract class Node {
-                abstract void append(T element);
+            /** A full array of elements, linked to the next one. */
+            class Segment {
+                private final Object[] elements;
 
-                abstract void concatenate(SequenceBuilder elements);
+                private final int length;
 
-                abstract Sequence<T> sequence();
-            }
+                private Segment next;
 
-            private final Node EMPTY = new Node() {
-                @Override
-                void append(T element) {
-                    SequenceBuilder.this.last = SequenceBuilder.this.first = new NonEmpty(element);
+                Segment(Object[] elements, int length) {
+                    this.elements = elements;
+                    this.length = length;
                 }
+            }
 
-                @Override
-                void concatenate(SequenceBuilder elements) {
-                    SequenceBuilder.this.first = elements.first;
-                    SequenceBuilder.this.last = elements.last;
-                }
+            private Segment first;
 
-                @Override
-                Sequence<T> sequence() {
-                    return Sequence.empty();
-                }
-            };
+            private Segment last;
 
-            class NonEmpty extends Node {
-                private final T head;
+            private int segments = 0;
 
-                private Node tail = EMPTY;
+            /** The array currently being filled in, which doubles in capacity each time it runs out of room. */
+            private Object[] buffer;
 
-                NonEmpty(T head) {
-                    this.head = head;
-                }
+            private int size = 0;
 
-                @Override
-                void append(T element) {
-                    SequenceBuilder.this.last = this.tail = new NonEmpty(element);
-                }
+            private boolean built = false;
 
-                @Override
-                void concatenate(SequenceBuilder elements) {
-                    this.tail = elements.first;
-                    SequenceBuilder.this.last = elements.last;
+            void append(T element) {
+                requireNonNull(element, "sequences do not permit null elements");
+                this.checkNotBuilt();
+                if (this.buffer == null) {
+                    this.buffer = new Object[MIN_CHUNK_LENGTH];
+                } else if (this.size == this.buffer.length) {
+                    var capacity = Math.min(this.buffer.length << 1, MAX_CHUNK_LENGTH);
+                    this.flush();
+                    this.buffer = new Object[capacity];
                 }
+                this.buffer[this.size++] = element;
+            }
 
-                @Override
-                Sequence<T> sequence() {
-                    return Sequence.cons(this.head, () -> this.tail.sequence());
+            private void flush() {
+                if (this.size > 0) {
+                    var segment = new Segment(this.buffer, this.size);
+                    if (this.first == null) {
+                        this.first = segment;
+                    } else {
+                        this.last.next = segment;
+                    }
+                    this.last = segment;
+                    this.segments++;
                 }
+                this.buffer = null;
+                this.size = 0;
             }
 
-            private Node first = this.EMPTY;
-
-            private Node last = this.EMPTY;
-
-            void append(T element) {
-                requireNonNull(element, "sequences do not permit null elements");
-                requireNonNull(this.last, "sequence builder cannot be reused");
-                this.last.append(element);
+            private void checkNotBuilt() {
+                if (this.built) {
+                    throw new IllegalStateException("sequence builder cannot be reused");
+                }
             }
 
             SequenceBuilder concatenate(SequenceBuilder elements) {
-                requireNonNull(this.last, "sequence builder cannot be reused");
-                requireNonNull(elements.first, "sequence builder cannot be reused");
-                requireNonNull(elements.last, "sequence builder cannot be reused");
-                this.last.concatenate(elements);
-                elements.first = null;
-                elements.last = null;
+                this.checkNotBuilt();
+                elements.checkNotBuilt();
+                this.flush();
+                if (elements.first != null) {
+                    if (this.first == null) {
+                        this.first = elements.first;
+                    } else {
+                        this.last.next = elements.first;
+                    }
+                    this.last = elements.last;
+                    this.segments += elements.segments;
+                }
+                this.buffer = elements.buffer;
+                this.size = elements.size;
+                elements.built = true;
                 return this;
             }
 
             Sequence<T> build() {
-                requireNonNull(this.first, "sequence builder cannot be reused");
-                var sequence = this.first.sequence();
-                this.first = null;
-                this.last = null;
+                this.checkNotBuilt();
+                this.flush();
+                this.built = true;
+                var segments = new ArrayList<Segment>(this.segments);
+                for (var segment = this.first; segment != null; segment = segment.next) {
+                    segments.add(segment);
+                }
+                this.first = this.last = null;
+                Sequence<T> sequence = Sequence.empty();
+                for (int index = segments.size() - 1; index >= 0; index--) {
+                    var segment = segments.get(index);
+                    sequence = Sequence.chunk(segment.elements, segment.length, sequence);
+                }
                 return sequence;
             }
         }
@@ -666,11 +805,7 @@ public final class Sequences {
      * @see Sequences#rationals()
      */
     public static Sequence<Integer> ints() {
-        return ints(0);
-    }
-
-    private static Sequence<Integer> ints(int origin) {
-        return Sequence.cons(origin, () -> origin < Integer.MAX_VALUE ? ints(origin + 1) : Sequence.empty());
+        return range(0, Integer.MAX_VALUE);
     }
 
     /**
@@ -768,18 +903,11 @@ public final class Sequences {
      * @see Sequences#range(long, long)
      */
     public static Sequence<Integer> range(int from, int to) {
-        return Sequence.cons(
-            from,
-            () -> {
-                if (from < to) {
-                    return range(from + 1, to);
-                } else if (from > to) {
-                    return range(from - 1, to);
-                } else {
-                    return Sequence.empty();
-                }
-            }
-        );
+        if (from <= to) {
+            return Sequence.computed((long) to - from + 1, index -> (int) (from + index));
+        } else {
+            return Sequence.computed((long) from - to + 1, index -> (int) (from - index));
+        }
     }
 
     /**
@@ -789,13 +917,22 @@ public final class Sequences {
      * @see Sequences#range(int, int)
      */
     public static Sequence<Long> range(long from, long to) {
+        long distance = from <= to ? to - from : from - to;
+        if (distance >= 0 && distance < Long.MAX_VALUE) {
+            return Sequence.computed(distance + 1, from <= to ? index -> from + index : index -> from - index);
+        } else {
+            return enumerate(from, to); // more elements than fit in a long
+        }
+    }
+
+    private static Sequence<Long> enumerate(long from, long to) {
         return Sequence.cons(
             from,
             () -> {
                 if (from < to) {
-                    return range(from + 1, to);
+                    return enumerate(from + 1, to);
                 } else if (from > to) {
-                    return range(from - 1, to);
+                    return enumerate(from - 1, to);
                 } else {
                     return Sequence.empty();
                 }
@@ -811,4 +948,196 @@ public final class Sequences {
         T[] values = from.getDeclaringClass().getEnumConstants();
         return range(from.ordinal(), to.ordinal()).map(ordinal -> values[ordinal]);
     }
+
+    /**
+     * Lazily split the remaining bytes of a buffer into lines, viewing each line in place as characters, one per byte,
+     * as in ISO-8859-1.
+     *
+     * <p>A line is terminated by a line feed, a carriage return, or a carriage return followed by a line feed, and the
+     * terminators are not included. The lines are views into the buffer rather than copies, so calling
+     * {@code toString()} on a line is the only thing that copies it, and a {@link MappedByteBuffer} can be scanned
+     * without reading the file into the heap. The lines are exact for ASCII and ISO-8859-1 text, and for other
+     * ASCII-compatible encodings, like UTF-8, each multi-byte character shows up as several characters.
+     *
+     * <p>Like {@link java.nio.CharBuffer}, the lines are equal to each other if they have the same characters, but they
+     * are never equal to strings, so use {@code toString()} to compare a line to a string, e.g., with
+     * {@code lines(buffer).map(CharSequence::toString).contains("foo")}.
+     *
+     * <p>The buffer is scanned again every time the returned sequence is traversed, so nothing is cached beyond the
+     * traversal in progress. The position and limit of the buffer are read once, and the buffer must not be modified
+     * afterwards.
+     *
+     * @see Sequences#lines(FileChannel, Charset)
+     */
+    public static Sequence<CharSequence> lines(ByteBuffer buffer) {
+        var bytes = buffer.asReadOnlyBuffer();
+        return lines(bytes, bytes.position(), bytes.limit());
+    }
+
+    private static Sequence<CharSequence> lines(ByteBuffer buffer, int from, int to) {
+        return Sequence.lazy(
+            () -> {
+                var lines = new ArrayList<CharSequence>();
+                var start = from;
+                var index = from;
+                while (index < to && lines.size() < MAX_CHUNK_LENGTH) {
+                    var current = buffer.get(index);
+                    if (current == '\n' || current == '\r') {
+                        lines.add(new Latin1(buffer, start, index - start));
+                        if (current == '\r' && index + 1 < to && buffer.get(index + 1) == '\n') {
+                            index++;
+                        }
+                        start = ++index;
+                    } else {
+                        index++;
+                    }
+                }
+                if (index == to && start < to) {
+                    lines.add(new Latin1(buffer, start, to - start));
+                    start = to;
+                }
+                var rest = start < to ? lines(buffer, start, to) : Sequence.<CharSequence>empty();
+                return Sequence.chunk(lines.toArray(), lines.size(), rest);
+            }
+        );
+    }
+
+    /** A run of bytes in a buffer, viewed as characters without copying. */
+    private static final class Latin1 implements CharSequence {
+        private final ByteBuffer buffer;
+
+        private final int offset;
+
+        private final int length;
+
+        Latin1(ByteBuffer buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, this.length);
+            return (char) (this.buffer.get(this.offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, this.length);
+            return new Latin1(this.buffer, this.offset + start, end - start);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            } else if (object instanceof Latin1) {
+                var that = (Latin1) object;
+                if (this.length != that.length) {
+                    return false;
+                }
+                for (var index = 0; index < this.length; index++) {
+                    if (this.buffer.get(this.offset + index) != that.buffer.get(that.offset + index)) {
+                        return false;
+                    }
+                }
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        /** The same as the hash code of the string of these characters. */
+        @Override
+        public int hashCode() {
+            var hash = 0;
+            for (var index = 0; index < this.length; index++) {
+                hash = 31 * hash + (this.buffer.get(this.offset + index) & 0xFF);
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            var bytes = new byte[this.length];
+            for (var index = 0; index < bytes.length; index++) {
+                bytes[index] = this.buffer.get(this.offset + index);
+            }
+            return new String(bytes, ISO_8859_1);
+        }
+    }
+
+    /**
+     * Lazily read the lines of a file channel from the beginning, decoding each line with a given charset.
+     *
+     * <p>The file is read in chunks with positional reads, which neither depend on nor change the position of the
+     * channel, and every chunk is turned into a run of lines at once. Line terminators are the same as for
+     * {@link Sequences#lines(ByteBuffer)}, so the charset must encode line feeds and carriage returns as single bytes,
+     * like UTF-8, ISO-8859-1, and US-ASCII do.
+     *
+     * <p>Nothing is cached beyond the traversal in progress: every traversal of the returned sequence reads the file
+     * again, so it reflects the current contents of the file, and a large file can be traversed repeatedly without
+     * keeping its lines in the heap. {@link Sequence#memoize() Memoize} the sequence to read the file only once. The
+     * channel is not closed, and must stay open for as long as the sequence is traversed.
+     *
+     * @throws UncheckedIOException if reading from the channel fails during a traversal
+     *
+     * @see Sequences#lines(ByteBuffer)
+     */
+    public static Sequence<String> lines(FileChannel channel, Charset charset) {
+        requireNonNull(channel);
+        requireNonNull(charset);
+        return lines(channel, charset, 0, READ_LENGTH);
+    }
+
+    private static Sequence<String> lines(FileChannel channel, Charset charset, long position, int capacity) {
+        return Sequence.lazy(
+            () -> {
+                var buffer = ByteBuffer.allocate(capacity);
+                boolean end;
+                try {
+                    int read;
+                    do {
+                        read = channel.read(buffer, position + buffer.position());
+                    } while (read >= 0 && buffer.hasRemaining());
+                    end = read < 0;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                var bytes = buffer.array();
+                var length = buffer.position();
+                var lines = new ArrayList<String>();
+                var start = 0;
+                for (var index = 0; index < length; index++) {
+                    var current = bytes[index];
+                    if (current == '\n' || current == '\r') {
+                        if (current == '\r' && index + 1 == length && !end) {
+                            break; // a line feed might follow in the next chunk
+                        }
+                        lines.add(new String(bytes, start, index - start, charset));
+                        if (current == '\r' && index + 1 < length && bytes[index + 1] == '\n') {
+                            index++;
+                        }
+                        start = index + 1;
+                    }
+                }
+                if (end && start < length) {
+                    lines.add(new String(bytes, start, length - start, charset));
+                    start = length;
+                }
+                if (lines.isEmpty()) {
+                    // either the file is exhausted, or the next line doesn't fit in the buffer
+                    return end ? Sequence.<String>empty() : lines(channel, charset, position, Math.multiplyExact(capacity, 2));
+                } else {
+                    return Sequence.chunk(lines.toArray(), lines.size(), lines(channel, charset, position + start, READ_LENGTH));
+                }
+            }
+        );
+    }
 }
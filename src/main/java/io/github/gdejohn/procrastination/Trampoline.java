@@ -13,6 +13,8 @@
 
 package io.github.gdejohn.procrastination;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
@@ -37,12 +39,18 @@ import static java.util.Objects.requireNonNull;
  * <li>suspend each recursive call in a {@link Supplier} lambda expression and wrap with {@code call()}.
  * </ol>
  *
- * <p>This approach cleanly extends to mutual recursion.
+ * <p>This approach cleanly extends to mutual recursion. Recursion that is not in tail position can be trampolined
+ * with {@link Trampoline#flatMap(Function) flatMap()} and {@link Trampoline#map(Function) map()}.
  *
  * <p>Instead of delegating to a private trampolined helper method to hide the implementation details of tail recursion
  * and trampolining, tail-recursive computations can be defined inline with the static helper methods
  * {@link Trampoline#evaluate(Object, UnaryOperator)} and {@link Trampoline#execute(Object, UnaryOperator)}.
  *
+ * <p>Those helpers allocate a suspended call (and, for several parameters, a chain of partially applied functions)
+ * on every bounce. Hot loops can use {@link Trampoline#loop(Object, Loop.Body)} and
+ * {@link Trampoline#loop(Object, Object, BiLoop.Body)} instead, which reuse a single mutable frame for every
+ * iteration.
+ *
  * @param <T> the type of the value that this trampoline computes
  */
 public abstract class Trampoline<T> {
@@ -54,17 +62,86 @@ public abstract class Trampoline<T> {
         return false;
     }
 
+    /** A trampoline followed by a function of its result, which is evaluated with an explicit continuation stack. */
+    private static final class FlatMap<T, R> extends Trampoline<R> {
+        private final Trampoline<? extends T> trampoline;
+
+        private final Function<? super T, ? extends Trampoline<? extends R>> function;
+
+        FlatMap(Trampoline<? extends T> trampoline, Function<? super T, ? extends Trampoline<? extends R>> function) {
+            this.trampoline = trampoline;
+            this.function = function;
+        }
+
+        @Override
+        protected Trampoline<? extends R> bounce() {
+            throw new AssertionError("flat-mapped trampolines should never be bounced");
+        }
+    }
+
     /**
      * The result of the computation that this trampoline represents.
      *
-     * <p>This method runs in constant stack space.
+     * <p>This method runs in constant stack space, even if the computation was built with arbitrarily nested calls to
+     * {@link Trampoline#flatMap(Function) flatMap()} and {@link Trampoline#map(Function) map()}, because pending
+     * continuations are kept on the heap.
      */
+    @SuppressWarnings("unchecked") // safe because each continuation only gets the result it was flat-mapped onto
     public T evaluate() {
-        Trampoline<? extends T> trampoline = this;
-        do {
-            trampoline = trampoline.bounce();
-        } while (!trampoline.finished());
-        return trampoline.evaluate();
+        Trampoline<?> trampoline = this;
+        Deque<Function<Object, ? extends Trampoline<?>>> continuations = null;
+        while (true) {
+            if (trampoline instanceof FlatMap) {
+                var flatMap = (FlatMap<?, ?>) trampoline;
+                if (continuations == null) {
+                    continuations = new ArrayDeque<>();
+                }
+                continuations.push((Function<Object, ? extends Trampoline<?>>) flatMap.function);
+                trampoline = flatMap.trampoline;
+            } else if (!trampoline.finished()) {
+                trampoline = trampoline.bounce();
+            } else if (continuations == null || continuations.isEmpty()) {
+                return (T) trampoline.evaluate();
+            } else {
+                trampoline = continuations.pop().apply(trampoline.evaluate());
+            }
+        }
+    }
+
+    /**
+     * A trampoline that evaluates this trampoline and then continues with a trampolined function of the result.
+     *
+     * <p>Unlike {@link Trampoline#call(Supplier) call()}, which only supports tail calls, this can express recursion
+     * where work remains after the recursive call, like a right fold, in constant stack space:
+     *
+     * <pre>    {@code static <T, R> Trampoline<R> foldRight(Sequence<T> sequence, R initial, BiFunction<T, R, R> function) {
+     *        return call(
+     *            () -> sequence.match(
+     *                (head, tail) -> foldRight(tail, initial, function).map(result -> function.apply(head, result)),
+     *                () -> terminate(initial)
+     *            )
+     *        );
+     *    }}</pre>
+     *
+     * @param <R> the type of the result
+     *
+     * @see Trampoline#map(Function)
+     */
+    public <R> Trampoline<R> flatMap(Function<? super T, ? extends Trampoline<? extends R>> function) {
+        requireNonNull(function);
+        return new FlatMap<>(this, function);
+    }
+
+    /**
+     * A trampoline that evaluates this trampoline and then applies a function to the result.
+     *
+     * @param <R> the type of the result
+     *
+     * @see Trampoline#flatMap(Function)
+     */
+    public <R> Trampoline<R> map(Function<? super T, ? extends R> function) {
+        requireNonNull(function);
+        return this.flatMap(value -> terminate(function.apply(value)));
     }
 
     /**
@@ -384,4 +461,178 @@ public abstract class Trampoline<T> {
     public static <T, U, V, W> void execute(T first, U second, V third, W fourth, UnaryOperator<Function<T, Function<U, Function<V, Function<W, Trampoline<Unit>>>>>> action) {
         apply(fix(action), first, second, third, fourth).evaluate();
     }
+
+    /**
+     * A mutable frame reused across every iteration of {@link Trampoline#loop(Object, Loop.Body)}, holding either the
+     * argument of the next iteration or the result.
+     *
+     * @param <T> the type of the loop variable
+     * @param <R> the type of the result
+     *
+     * @see BiLoop
+     */
+    public static final class Loop<T, R> {
+        /**
+         * The body of a loop, which must return the result of either {@link Loop#recur(Object) recur()} or
+         * {@link Loop#done(Object) done()} on the frame it is given.
+         *
+         * @param <T> the type of the loop variable
+         * @param <R> the type of the result
+         */
+        @FunctionalInterface
+        public interface Body<T, R> {
+            Loop<T, R> apply(T argument, Loop<T, R> loop);
+        }
+
+        private T argument;
+
+        private R result;
+
+        private Loop(T argument) {
+            this.argument = argument;
+        }
+
+        /**
+         * Continue with another iteration.
+         *
+         * <p>In the context of tail recursion, this represents a recursive case.
+         */
+        public Loop<T, R> recur(T argument) {
+            this.argument = argument;
+            return this;
+        }
+
+        /**
+         * Finish the loop with a result.
+         *
+         * <p>In the context of tail recursion, this represents a base case.
+         */
+        public Loop<T, R> done(R result) {
+            this.result = requireNonNull(result);
+            return this;
+        }
+    }
+
+    /**
+     * A mutable frame reused across every iteration of {@link Trampoline#loop(Object, Object, BiLoop.Body)}, holding
+     * either the arguments of the next iteration or the result.
+     *
+     * @param <T> the type of the first loop variable
+     * @param <U> the type of the second loop variable
+     * @param <R> the type of the result
+     *
+     * @see Loop
+     */
+    public static final class BiLoop<T, U, R> {
+        /**
+         * The body of a loop, which must return the result of either {@link BiLoop#recur(Object, Object) recur()}
+         * or {@link BiLoop#done(Object) done()} on the frame it is given.
+         *
+         * @param <T> the type of the first loop variable
+         * @param <U> the type of the second loop variable
+         * @param <R> the type of the result
+         */
+        @FunctionalInterface
+        public interface Body<T, U, R> {
+            BiLoop<T, U, R> apply(T first, U second, BiLoop<T, U, R> loop);
+        }
+
+        private T first;
+
+        private U second;
+
+        private R result;
+
+        private BiLoop(T first, U second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        /**
+         * Continue with another iteration.
+         *
+         * <p>In the context of tail recursion, this represents a recursive case.
+         */
+        public BiLoop<T, U, R> recur(T first, U second) {
+            this.first = first;
+            this.second = second;
+            return this;
+        }
+
+        /**
+         * Finish the loop with a result.
+         *
+         * <p>In the context of tail recursion, this represents a base case.
+         */
+        public BiLoop<T, U, R> done(R result) {
+            this.result = requireNonNull(result);
+            return this;
+        }
+    }
+
+    /**
+     * Run a tail-recursive computation of one variable as a loop, reusing a single frame for every iteration.
+     *
+     * <p>Unlike {@link Trampoline#evaluate(Object, UnaryOperator)}, this reuses a single frame instead of allocating
+     * a trampoline per step, though a body that matches on a sequence may still allocate its lambdas. For example:
+     *
+     * <pre>    {@code static <T> Maybe<T> find(Sequence<T> sequence, Predicate<T> predicate) {
+     *        return Trampoline.loop(
+     *            sequence,
+     *            (seq, loop) -> seq.match(
+     *                (head, tail) -> predicate.test(head) ? loop.done(Maybe.of(head)) : loop.recur(tail),
+     *                () -> loop.done(Maybe.empty())
+     *            )
+     *        );
+     *    }}</pre>
+     *
+     * <p>This method runs in constant stack space.
+     *
+     * @throws IllegalStateException if the body returns a frame other than the one it was given
+     *
+     * @see Trampoline#loop(Object, Object, BiLoop.Body)
+     */
+    public static <T, R> R loop(T argument, Loop.Body<T, R> body) {
+        var loop = new Loop<T, R>(argument);
+        do {
+            if (body.apply(loop.argument, loop) != loop) {
+                throw new IllegalStateException("loop body must return its own frame");
+            }
+        } while (loop.result == null);
+        return loop.result;
+    }
+
+    /**
+     * Run a tail-recursive computation of two variables as a loop, reusing a single frame for every iteration.
+     *
+     * <p>Unlike {@link Trampoline#evaluate(Object, Object, UnaryOperator)}, this reuses a single frame instead of
+     * allocating a trampoline per step, though a body that matches on a sequence may still allocate its lambdas. For
+     * example:
+     *
+     * <pre>    {@code static long length(Sequence<?> sequence) {
+     *        return Trampoline.loop(
+     *            sequence,
+     *            0L,
+     *            (seq, n, loop) -> seq.match(
+     *                (head, tail) -> loop.recur(tail, n + 1),
+     *                () -> loop.done(n)
+     *            )
+     *        );
+     *    }}</pre>
+     *
+     * <p>This method runs in constant stack space.
+     *
+     * @throws IllegalStateException if the body returns a frame other than the one it was given
+     *
+     * @see Trampoline#loop(Object, Loop.Body)
+     */
+    public static <T, U, R> R loop(T first, U second, BiLoop.Body<T, U, R> body) {
+        var loop = new BiLoop<T, U, R>(first, second);
+        do {
+            if (body.apply(loop.first, loop.second, loop) != loop) {
+                throw new IllegalStateException("loop body must return its own frame");
+            }
+        } while (loop.result == null);
+        return loop.result;
+    }
 }
@@ -0,0 +1,687 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A persistent, indexed collection of non-null elements.
+ *
+ * <p>Vectors are immutable: every operation that would modify a vector instead returns a new vector, sharing all but
+ * a logarithmic number of nodes with the original. Elements are stored in the leaves of a 32-way trie, with the last
+ * leaf kept outside the trie as a tail buffer, so that random access and updates take time proportional to
+ * log<sub>32</sub>(n), and appending is amortized constant time. Unlike {@link Sequence sequences}, vectors are
+ * strict, finite, and fully evaluated, which makes them safe to share freely among threads as snapshots.
+ *
+ * <p>Vectors convert to and from sequences cheaply: {@link Vector#sequence()} lazily views the leaves of the trie as
+ * indexed chunks without copying them, and {@link Sequence#vector()} builds a vector in a single pass, mutating nodes
+ * in place until the result is published.
+ *
+ * @param <T> the type of the elements of this vector
+ *
+ * @see Sequence
+ * @see Vector#toVector()
+ */
+public final class Vector<T> implements Iterable<T> {
+    private static final int BITS = 5;
+
+    private static final int WIDTH = 1 << BITS;
+
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * An interior node of the trie, or a leaf.
+     *
+     * <p>A node may only be modified in place by the builder that owns it, and only until that builder is done.
+     */
+    private static final class Node {
+        private final Object owner;
+
+        private final Object[] array;
+
+        Node(Object owner, Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+    }
+
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+
+    private static final Vector<?> EMPTY = new Vector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+
+    /** The number of index bits consumed above the leaves of the trie. */
+    private final int shift;
+
+    private final Node root;
+
+    private final Object[] tail;
+
+    private Vector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * The empty vector.
+     *
+     * @see Vector#of(Object...)
+     */
+    @SuppressWarnings("unchecked") // safe because the empty vector never produces any elements
+    public static <T> Vector<T> empty() {
+        return (Vector<T>) EMPTY;
+    }
+
+    /**
+     * A vector of the given elements, in order.
+     *
+     * @throws NullPointerException if any of the elements are null
+     *
+     * @see Vector#from(Iterable)
+     */
+    @SafeVarargs
+    public static <T> Vector<T> of(T... elements) {
+        var builder = new Builder<T>(Vector.empty());
+        for (var element : elements) {
+            builder.add(element);
+        }
+        return builder.build();
+    }
+
+    /**
+     * A vector of the elements of an iterable, in iteration order.
+     *
+     * <p>If the iterable is a vector, it is returned as is.
+     *
+     * @throws NullPointerException if any of the elements are null
+     *
+     * @see Sequence#vector()
+     */
+    @SuppressWarnings("unchecked") // safe because vectors are immutable
+    public static <T> Vector<T> from(Iterable<? extends T> iterable) {
+        if (iterable instanceof Vector) {
+            return (Vector<T>) iterable;
+        } else {
+            var builder = new Builder<T>(Vector.empty());
+            iterable.forEach(builder::add);
+            return builder.build();
+        }
+    }
+
+    /**
+     * A collector that accumulates elements into a vector, in encounter order.
+     *
+     * @see Sequences#toSequence()
+     */
+    public static <T> Collector<T, ?, Vector<T>> toVector() {
+        return Collector.of(
+            () -> new Builder<T>(Vector.empty()),
+            Builder::add,
+            (left, right) -> left.addAll(right.build()),
+            Builder::build
+        );
+    }
+
+    /**
+     * Accumulates elements into a new vector by modifying the nodes it creates in place.
+     *
+     * <p>A builder owns the nodes that it creates, so it can keep appending to them without copying. Nodes inherited
+     * from the vector it starts with are copied on write, so that vector is unaffected. Once built, the nodes are
+     * published and the builder cannot be reused.
+     */
+    private static final class Builder<T> {
+        private Object owner = new Object();
+
+        private int size;
+
+        private int shift;
+
+        private Node root;
+
+        private Object[] tail;
+
+        Builder(Vector<? extends T> vector) {
+            this.size = vector.size;
+            this.shift = vector.shift;
+            this.root = vector.root;
+            this.tail = Arrays.copyOf(vector.tail, WIDTH);
+        }
+
+        void add(T element) {
+            requireNonNull(element);
+            if (this.owner == null) {
+                throw new IllegalStateException("vector builder cannot be reused");
+            }
+            var tailOffset = Vector.tailOffset(this.size);
+            if (this.size - tailOffset < WIDTH) {
+                this.tail[this.size - tailOffset] = element;
+            } else {
+                var leaf = new Node(this.owner, this.tail);
+                if ((this.size >>> BITS) > (1 << this.shift)) {
+                    var root = new Node(this.owner, new Object[WIDTH]);
+                    root.array[0] = this.root;
+                    root.array[1] = Vector.path(this.owner, this.shift, leaf);
+                    this.root = root;
+                    this.shift += BITS;
+                } else {
+                    this.root = Vector.push(this.owner, this.size, this.shift, this.root, leaf);
+                }
+                this.tail = new Object[WIDTH];
+                this.tail[0] = element;
+            }
+            this.size++;
+        }
+
+        Builder<T> addAll(Vector<? extends T> vector) {
+            vector.forEach(this::add);
+            return this;
+        }
+
+        Vector<T> build() {
+            if (this.owner == null) {
+                throw new IllegalStateException("vector builder cannot be reused");
+            }
+            this.owner = null;
+            if (this.size == 0) {
+                return Vector.empty();
+            } else {
+                var tail = Arrays.copyOf(this.tail, this.size - Vector.tailOffset(this.size));
+                return new Vector<>(this.size, this.shift, this.root, tail);
+            }
+        }
+    }
+
+    /** The index of the first element in the tail buffer of a vector of a given size. */
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    /** A node that the given owner may modify, either the node itself if already owned, or else a copy. */
+    private static Node editable(Object owner, Node node) {
+        return owner != null && node.owner == owner ? node : new Node(owner, node.array.clone());
+    }
+
+    /** A chain of single-child nodes leading from the given level down to a leaf. */
+    private static Node path(Object owner, int level, Node leaf) {
+        var node = leaf;
+        for (; level > 0; level -= BITS) {
+            var parent = new Node(owner, new Object[WIDTH]);
+            parent.array[0] = node;
+            node = parent;
+        }
+        return node;
+    }
+
+    /** Insert a full tail buffer into the trie of a vector of a given size as its rightmost leaf. */
+    private static Node push(Object owner, int size, int level, Node parent, Node leaf) {
+        var result = Vector.editable(owner, parent);
+        var index = ((size - 1) >>> level) & MASK;
+        if (level == BITS) {
+            result.array[index] = leaf;
+        } else {
+            var child = (Node) parent.array[index];
+            result.array[index] = child == null ? Vector.path(owner, level - BITS, leaf) : Vector.push(
+                owner,
+                size,
+                level - BITS,
+                child,
+                leaf
+            );
+        }
+        return result;
+    }
+
+    /** The leaf array containing the element at a given index, which must be in bounds. */
+    private Object[] leaf(int index) {
+        if (index >= Vector.tailOffset(this.size)) {
+            return this.tail;
+        } else {
+            var node = this.root;
+            for (var level = this.shift; level > 0; level -= BITS) {
+                node = (Node) node.array[(index >>> level) & MASK];
+            }
+            return node.array;
+        }
+    }
+
+    @SuppressWarnings("unchecked") // safe because only elements of type T are ever stored
+    private T get(int index) {
+        return (T) this.leaf(index)[index & MASK];
+    }
+
+    /** The number of elements in this vector. */
+    public int size() {
+        return this.size;
+    }
+
+    /** True if and only if this vector contains no elements. */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * The element at a given index, if it exists.
+     *
+     * <p>This takes time proportional to log<sub>32</sub>(n).
+     *
+     * @see Sequence#element(long)
+     */
+    public Maybe<T> element(int index) {
+        return index < 0 || index >= this.size ? Maybe.empty() : Maybe.of(this.get(index));
+    }
+
+    /**
+     * The first element of this vector, if it is non-empty.
+     *
+     * @see Vector#last()
+     */
+    public Maybe<T> head() {
+        return this.element(0);
+    }
+
+    /**
+     * The last element of this vector, if it is non-empty.
+     *
+     * @see Vector#head()
+     * @see Vector#initial()
+     */
+    public Maybe<T> last() {
+        return this.element(this.size - 1);
+    }
+
+    /**
+     * The elements of this vector excluding the last element, if this vector is non-empty.
+     *
+     * @see Vector#last()
+     * @see Vector#match(BiFunction, Supplier)
+     */
+    public Maybe<Vector<T>> initial() {
+        return this.size == 0 ? Maybe.empty() : Maybe.of(this.removeLast());
+    }
+
+    /**
+     * Return a value defined in terms of the initial elements and the last element of this vector if it is non-empty,
+     * otherwise return a lazy default value.
+     *
+     * <p>This method simulates pattern matching on this vector, taking it apart at the end where vectors grow and
+     * shrink cheaply, just as {@link Sequence#match(BiFunction, Supplier)} takes a sequence apart at the front.
+     *
+     * @param <R> the type of the result
+     *
+     * @see Vector#match(BiFunction, Object)
+     * @see Vector#match(BiFunction)
+     */
+    public <R> R match(BiFunction<? super Vector<T>, ? super T, ? extends R> function, Supplier<? extends R> otherwise) {
+        return this.size == 0 ? otherwise.get() : function.apply(this.removeLast(), this.get(this.size - 1));
+    }
+
+    /**
+     * Return a value defined in terms of the initial elements and the last element of this vector if it is non-empty,
+     * otherwise return an eager default value.
+     *
+     * @param <R> the type of the result
+     *
+     * @see Vector#match(BiFunction, Supplier)
+     * @see Vector#match(BiFunction)
+     */
+    public <R> R match(BiFunction<? super Vector<T>, ? super T, ? extends R> function, R otherwise) {
+        return this.size == 0 ? otherwise : function.apply(this.removeLast(), this.get(this.size - 1));
+    }
+
+    /**
+     * Return a {@code Maybe} containing a value defined in terms of the initial elements and the last element of this
+     * vector if it is non-empty.
+     *
+     * @param <R> the type of the result if this vector is non-empty
+     *
+     * @see Vector#match(BiFunction, Supplier)
+     * @see Vector#match(BiFunction, Object)
+     */
+    public <R> Maybe<R> match(BiFunction<? super Vector<T>, ? super T, ? extends R> function) {
+        return this.size == 0 ? Maybe.empty() : Maybe.of(() -> function.apply(this.removeLast(), this.get(this.size - 1)));
+    }
+
+    /**
+     * Add an element to the end of this vector.
+     *
+     * <p>This takes amortized constant time.
+     *
+     * @see Vector#concatenate(Vector)
+     */
+    public Vector<T> append(T element) {
+        requireNonNull(element);
+        var tailOffset = Vector.tailOffset(this.size);
+        if (this.size - tailOffset < WIDTH) {
+            var tail = Arrays.copyOf(this.tail, this.tail.length + 1);
+            tail[this.tail.length] = element;
+            return new Vector<>(this.size + 1, this.shift, this.root, tail);
+        } else {
+            var leaf = new Node(null, this.tail);
+            Node root;
+            var shift = this.shift;
+            if ((this.size >>> BITS) > (1 << this.shift)) {
+                root = new Node(null, new Object[WIDTH]);
+                root.array[0] = this.root;
+                root.array[1] = Vector.path(null, this.shift, leaf);
+                shift += BITS;
+            } else {
+                root = Vector.push(null, this.size, this.shift, this.root, leaf);
+            }
+            return new Vector<>(this.size + 1, shift, root, new Object[] {element});
+        }
+    }
+
+    /**
+     * Add the elements of another vector to the end of this vector.
+     *
+     * <p>This takes time proportional to the length of the other vector, sharing the entire trie of this vector.
+     *
+     * @see Vector#append(Object)
+     */
+    @SuppressWarnings("unchecked") // safe because vectors are immutable
+    public Vector<T> concatenate(Vector<? extends T> vector) {
+        if (vector.size == 0) {
+            return this;
+        } else if (this.size == 0) {
+            return (Vector<T>) vector;
+        } else {
+            return new Builder<T>(this).addAll(vector).build();
+        }
+    }
+
+    /**
+     * This vector without its last element, or the empty vector if this vector is empty.
+     *
+     * @see Vector#initial()
+     */
+    public Vector<T> removeLast() {
+        if (this.size <= 1) {
+            return Vector.empty();
+        } else if (this.size - Vector.tailOffset(this.size) > 1) {
+            return new Vector<>(this.size - 1, this.shift, this.root, Arrays.copyOf(this.tail, this.tail.length - 1));
+        } else {
+            var tail = this.leaf(this.size - 2);
+            var root = this.pop(this.shift, this.root);
+            var shift = this.shift;
+            if (root == null) {
+                root = EMPTY_NODE;
+            } else if (shift > BITS && root.array[1] == null) {
+                root = (Node) root.array[0];
+                shift -= BITS;
+            }
+            return new Vector<>(this.size - 1, shift, root, tail);
+        }
+    }
+
+    /** Remove the rightmost leaf from the trie, returning null if that leaves the given node empty. */
+    private Node pop(int level, Node node) {
+        var index = ((this.size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            var child = this.pop(level - BITS, (Node) node.array[index]);
+            if (child == null && index == 0) {
+                return null;
+            } else {
+                var result = new Node(null, node.array.clone());
+                result.array[index] = child;
+                return result;
+            }
+        } else if (index == 0) {
+            return null;
+        } else {
+            var result = new Node(null, node.array.clone());
+            result.array[index] = null;
+            return result;
+        }
+    }
+
+    /**
+     * This vector with the given element at the given index instead of the original element, or this vector if the
+     * index is out of bounds.
+     *
+     * <p>This takes time proportional to log<sub>32</sub>(n), copying only the path from the root to the leaf.
+     *
+     * @see Vector#update(int, Function)
+     * @see Sequence#replace(long, Object)
+     */
+    public Vector<T> replace(int index, T element) {
+        requireNonNull(element);
+        if (index < 0 || index >= this.size) {
+            return this;
+        } else if (index >= Vector.tailOffset(this.size)) {
+            var tail = this.tail.clone();
+            tail[index & MASK] = element;
+            return new Vector<>(this.size, this.shift, this.root, tail);
+        } else {
+            return new Vector<>(this.size, this.shift, Vector.replace(this.shift, this.root, index, element), this.tail);
+        }
+    }
+
+    private static Node replace(int level, Node node, int index, Object element) {
+        var result = new Node(null, node.array.clone());
+        if (level == 0) {
+            result.array[index & MASK] = element;
+        } else {
+            var child = (index >>> level) & MASK;
+            result.array[child] = Vector.replace(level - BITS, (Node) node.array[child], index, element);
+        }
+        return result;
+    }
+
+    /**
+     * This vector with the element at the given index projected through a function, or this vector if the index is
+     * out of bounds.
+     *
+     * @see Vector#replace(int, Object)
+     * @see Sequence#update(long, Function)
+     */
+    public Vector<T> update(int index, Function<? super T, ? extends T> function) {
+        return index < 0 || index >= this.size ? this : this.replace(index, function.apply(this.get(index)));
+    }
+
+    /**
+     * Apply a function to each element of this vector, eagerly building a new vector of the results.
+     *
+     * @see Sequence#map(Function)
+     */
+    public <R> Vector<R> map(Function<? super T, ? extends R> function) {
+        var builder = new Builder<R>(Vector.empty());
+        this.forEach(element -> builder.add(function.apply(element)));
+        return builder.build();
+    }
+
+    /**
+     * Combine the elements of this vector from left to right, starting with an initial value.
+     *
+     * @see Sequence#foldLeft(Object, BiFunction)
+     */
+    public <R> R foldLeft(R initial, BiFunction<? super R, ? super T, ? extends R> function) {
+        var result = initial;
+        for (var offset = 0; offset < this.size; offset += WIDTH) {
+            var leaf = this.leaf(offset);
+            var length = Math.min(WIDTH, this.size - offset);
+            for (var index = 0; index < length; index++) {
+                @SuppressWarnings("unchecked") // safe because only elements of type T are ever stored
+                var element = (T) leaf[index];
+                result = function.apply(result, element);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // safe because only elements of type T are ever stored
+    public void forEach(Consumer<? super T> action) {
+        requireNonNull(action);
+        for (var offset = 0; offset < this.size; offset += WIDTH) {
+            var leaf = this.leaf(offset);
+            var length = Math.min(WIDTH, this.size - offset);
+            for (var index = 0; index < length; index++) {
+                action.accept((T) leaf[index]);
+            }
+        }
+    }
+
+    /**
+     * Lazily view this vector as a sequence.
+     *
+     * <p>Each leaf of the trie becomes an indexed chunk of the sequence without being copied, so the sequence supports
+     * efficient random access and skipping, one leaf at a time.
+     *
+     * @see Sequence#vector()
+     */
+    public Sequence<T> sequence() {
+        return this.sequence(0);
+    }
+
+    private Sequence<T> sequence(int offset) {
+        if (offset >= this.size) {
+            return Sequence.empty();
+        } else {
+            return Sequence.lazy(
+                () -> Sequence.chunk(this.leaf(offset), Math.min(WIDTH, this.size - offset), this.sequence(offset + WIDTH))
+            );
+        }
+    }
+
+    /**
+     * An unmodifiable, random-access view of this vector as a list.
+     *
+     * @see Vector#sequence()
+     */
+    public List<T> list() {
+        class VectorList extends AbstractList<T> implements RandomAccess {
+            @Override
+            public T get(int index) {
+                if (index < 0 || index >= Vector.this.size) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return Vector.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return Vector.this.size;
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return Vector.this.iterator();
+            }
+        }
+
+        return new VectorList();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        class VectorIterator implements Iterator<T> {
+            private int index = 0;
+
+            private Object[] leaf = Vector.this.size == 0 ? null : Vector.this.leaf(0);
+
+            @Override
+            public boolean hasNext() {
+                return this.index < Vector.this.size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked") // safe because only elements of type T are ever stored
+            public T next() {
+                if (this.index >= Vector.this.size) {
+                    throw new NoSuchElementException();
+                }
+                if (this.index > 0 && (this.index & MASK) == 0) {
+                    this.leaf = Vector.this.leaf(this.index);
+                }
+                return (T) this.leaf[this.index++ & MASK];
+            }
+        }
+
+        return new VectorIterator();
+    }
+
+    /**
+     * A sized, splittable spliterator over the elements of this vector.
+     *
+     * @see Vector#stream()
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return this.list().spliterator();
+    }
+
+    /** A sequential stream of the elements of this vector. */
+    public Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Return true if and only if the argument is a vector and contains the same elements as this vector in the same
+     * order.
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (object instanceof Vector) {
+            var other = (Vector<?>) object;
+            if (this.size != other.size) {
+                return false;
+            }
+            var iterator = other.iterator();
+            for (var element : this) {
+                if (!element.equals(iterator.next())) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Return the hash code of this vector, following the contract of {@code List.hashCode()}.
+     *
+     * @see List#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return this.foldLeft(1, (hash, element) -> 31 * hash + element.hashCode());
+    }
+
+    /** Return the string representation of this vector, truncating if there are more than thirty elements. */
+    @Override
+    public String toString() {
+        return this.sequence().toString();
+    }
+}
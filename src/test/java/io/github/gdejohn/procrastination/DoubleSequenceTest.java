@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class DoubleSequenceTest {
+    @Test
+    void aggregates() {
+        var sequence = DoubleSequence.of(0.5, -1.5, 4.0);
+        assertAll(
+            () -> assertThat(sequence.sum()).isEqualTo(3.0),
+            () -> assertThat(sequence.maximum()).hasValue(4.0),
+            () -> assertThat(sequence.minimum()).hasValue(-1.5),
+            () -> assertThat(sequence.average()).hasValue(1.0),
+            () -> assertThat(sequence.map(x -> x * 2).array()).containsExactly(1.0, -3.0, 8.0),
+            () -> assertThat(sequence.filter(x -> x > 0).array()).containsExactly(0.5, 4.0)
+        );
+    }
+
+    @Test
+    void equality() {
+        assertAll(
+            () -> assertThat(DoubleSequence.of(Double.NaN)).isEqualTo(DoubleSequence.of(Double.NaN)),
+            () -> assertThat(DoubleSequence.of(0.0)).isNotEqualTo(DoubleSequence.of(-0.0)),
+            () -> assertThat(DoubleSequence.of(1.0, 2.0)).hasSameHashCodeAs(Sequence.of(1.0, 2.0))
+        );
+    }
+
+    @Test
+    void conversions() {
+        var sequence = DoubleSequence.of(1.5, 2.5);
+        assertAll(
+            () -> assertThat(sequence.boxed()).containsExactly(1.5, 2.5),
+            () -> assertThat(sequence.mapToLong(Math::round)).isEqualTo(LongSequence.of(2, 3)),
+            () -> assertThat(sequence.mapToInt(x -> (int) x)).isEqualTo(IntSequence.of(1, 2)),
+            () -> assertThat(DoubleSequence.memoize(sequence.stream())).isEqualTo(sequence)
+        );
+    }
+}
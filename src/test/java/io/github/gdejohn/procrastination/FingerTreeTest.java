@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import io.github.gdejohn.procrastination.FingerTree.Measure;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class FingerTreeTest {
+    private static final int SIZE = 10_000;
+
+    @Test
+    void deque() {
+        var tree = FingerTree.<Integer>empty();
+        for (var element = 0; element < SIZE; element++) {
+            tree = tree.append(element).cons(-element - 1);
+        }
+        var full = tree;
+        assertAll(
+            () -> assertThat(full.length()).isEqualTo(2 * SIZE),
+            () -> assertThat(full.head()).containsExactly(-SIZE),
+            () -> assertThat(full.last()).containsExactly(SIZE - 1),
+            () -> assertThat(full).containsExactlyElementsOf(Sequences.range(-SIZE, SIZE - 1)),
+            () -> assertThat(full.tail().orThrow().head()).containsExactly(-SIZE + 1),
+            () -> assertThat(full.initial().orThrow().last()).containsExactly(SIZE - 2),
+            () -> assertThat(FingerTree.empty().tail()).isEmpty(),
+            () -> assertThat(FingerTree.of(1).match((head, tail) -> head + tail.length(), () -> -1L)).isEqualTo(1L)
+        );
+        var drained = full;
+        for (var count = 0; count < SIZE; count++) {
+            drained = drained.tail().orThrow().initial().orThrow();
+        }
+        assertThat(drained.isEmpty()).isTrue();
+    }
+
+    @Test
+    void element() {
+        var tree = FingerTree.from(Sequences.range(0, SIZE - 1));
+        assertAll(
+            () -> assertThat(tree.element(0)).containsExactly(0),
+            () -> assertThat(tree.element(4_321)).containsExactly(4_321),
+            () -> assertThat(tree.element(SIZE - 1)).containsExactly(SIZE - 1),
+            () -> assertThat(tree.element(SIZE)).isEmpty(),
+            () -> assertThat(tree.element(-1)).isEmpty(),
+            () -> assertThat(Sequences.range(0, SIZE - 1).all(index -> tree.element(index).orThrow().equals(index)))
+                .isTrue()
+        );
+    }
+
+    @Test
+    void splitAndConcatenate() {
+        var random = new Random(0);
+        var list = new ArrayList<Integer>();
+        var tree = FingerTree.<Integer>empty();
+        for (var round = 0; round < 200; round++) {
+            var chunk = new ArrayList<Integer>();
+            for (var count = random.nextInt(50); count > 0; count--) {
+                chunk.add(random.nextInt());
+            }
+            var index = random.nextInt(list.size() + 1);
+            var split = tree.splitAt(index);
+            tree = split.first().concatenate(FingerTree.from(chunk)).concatenate(split.second());
+            list.addAll(index, chunk);
+            assertThat(tree.length()).isEqualTo(list.size());
+        }
+        var result = tree;
+        assertAll(
+            () -> assertThat(result).containsExactlyElementsOf(list),
+            () -> assertThat(result.take(100)).containsExactlyElementsOf(list.subList(0, 100)),
+            () -> assertThat(result.skip(100)).containsExactlyElementsOf(list.subList(100, list.size())),
+            () -> assertThat(result.element(list.size() / 2)).containsExactly(list.get(list.size() / 2))
+        );
+    }
+
+    @Test
+    void slidingWindowMaximum() {
+        var measure = Measure.<Integer>maximum(Comparator.naturalOrder());
+        var random = new Random(1);
+        var elements = new int[SIZE];
+        var window = FingerTree.<Integer, Maybe<Integer>>empty(measure);
+        for (var index = 0; index < SIZE; index++) {
+            elements[index] = random.nextInt(1_000_000);
+            window = window.append(elements[index]);
+            if (window.length() > 100) {
+                window = window.tail().orThrow();
+            }
+            var expected = Integer.MIN_VALUE;
+            for (var other = Math.max(0, index - 99); other <= index; other++) {
+                expected = Math.max(expected, elements[other]);
+            }
+            assertThat(window.measure()).containsExactly(expected);
+        }
+    }
+
+    @Test
+    void find() {
+        var tree = FingerTree.from(Measure.sum(Integer::longValue), Sequences.range(1, 1_000));
+        var split = tree.split(sum -> sum > 5_050);
+        assertAll(
+            () -> assertThat(tree.measure()).isEqualTo(500_500L),
+            () -> assertThat(tree.find(sum -> sum > 5_050)).containsExactly(101),
+            () -> assertThat(tree.find(sum -> sum >= 5_050)).containsExactly(100),
+            () -> assertThat(tree.find(sum -> sum > 500_500)).isEmpty(),
+            () -> assertThat(split.first().measure()).isEqualTo(5_050L),
+            () -> assertThat(split.second().head()).containsExactly(101),
+            () -> assertThat(split.second().measure()).isEqualTo(500_500L - 5_050L),
+            () -> assertThat(tree.skip(10).measure()).isEqualTo(500_500L - 55L)
+        );
+    }
+
+    @Test
+    void sequence() {
+        var tree = FingerTree.from(Measure.both(Measure.sum(Integer::longValue), Measure.unit()), Sequences.range(1, 5));
+        assertAll(
+            () -> assertThat(tree.sequence()).isEqualTo(Sequences.range(1, 5)),
+            () -> assertThat(tree.measure().first()).isEqualTo(15L),
+            () -> assertThat(tree).isEqualTo(FingerTree.of(1, 2, 3, 4, 5)),
+            () -> assertThat(tree.hashCode()).isEqualTo(Sequences.range(1, 5).hashCode()),
+            () -> assertThat(tree).hasToString("[1, 2, 3, 4, 5]"),
+            () -> assertThat(FingerTree.from(Sequences.range(0, 99)).sequence().skip(50).head()).containsExactly(50)
+        );
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FunctionsTest {
+    @Test
+    void memoize() {
+        var count = new AtomicInteger();
+        var memoized = Functions.memoize(() -> count.incrementAndGet());
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(count).hasValue(1);
+    }
+
+    @Test
+    void memoizeIdempotent() {
+        var memoized = Functions.memoize(() -> "foo");
+        assertThat(Functions.memoize(memoized)).isSameAs(memoized);
+        assertThat(Functions.memoizeRacy(memoized)).isSameAs(memoized);
+    }
+
+    @Test
+    void memoizeCachesNull() {
+        var count = new AtomicInteger();
+        Supplier<Object> memoized = Functions.memoize(
+            () -> {
+                count.incrementAndGet();
+                return null;
+            }
+        );
+        assertThat(memoized.get()).isNull();
+        assertThat(memoized.get()).isNull();
+        assertThat(count).hasValue(1);
+    }
+
+    @Test
+    void memoizeRetriesAfterException() {
+        var count = new AtomicInteger();
+        var memoized = Functions.memoize(
+            () -> {
+                if (count.incrementAndGet() == 1) {
+                    throw new IllegalStateException();
+                }
+                return count.get();
+            }
+        );
+        assertThatThrownBy(memoized::get).isInstanceOf(IllegalStateException.class);
+        assertThat(memoized.get()).isEqualTo(2);
+        assertThat(memoized.get()).isEqualTo(2);
+    }
+
+    @Test
+    void memoizeReentrant() {
+        var depth = new AtomicInteger();
+        var memoized = new Object() {
+            Supplier<Integer> supplier = Functions.memoize(
+                () -> depth.incrementAndGet() < 3 ? this.supplier.get() : depth.get()
+            );
+        }.supplier;
+        assertThat(memoized.get()).isEqualTo(3);
+    }
+
+    @Test
+    void memoizeConcurrent() throws Exception {
+        var threads = 8;
+        var count = new AtomicInteger();
+        var computing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var memoized = Functions.memoize(
+            () -> {
+                computing.countDown();
+                Functions.uncheck(() -> release.await(10, TimeUnit.SECONDS));
+                return count.incrementAndGet();
+            }
+        );
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var first = executor.submit(memoized::get);
+            computing.await();
+            var results = Sequence.generate(() -> executor.submit(memoized::get)).take(threads - 1).eager();
+            release.countDown();
+            assertThat(first.get()).isEqualTo(1);
+            for (var result : results) {
+                assertThat(result.get()).isEqualTo(1);
+            }
+            assertThat(count).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void memoizeConcurrentRetriesAfterException() throws Exception {
+        var threads = 8;
+        var count = new AtomicInteger();
+        var computing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var memoized = Functions.memoize(
+            () -> {
+                if (count.incrementAndGet() == 1) {
+                    computing.countDown();
+                    Functions.uncheck(() -> release.await(10, TimeUnit.SECONDS));
+                    throw new IllegalStateException();
+                }
+                return count.get();
+            }
+        );
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var first = executor.submit(memoized::get);
+            computing.await();
+            var results = Sequence.generate(() -> executor.submit(memoized::get)).take(threads - 1).eager();
+            Thread.sleep(50); // give the other threads a chance to park
+            release.countDown();
+            assertThatThrownBy(first::get).hasCauseInstanceOf(IllegalStateException.class);
+            for (var result : results) {
+                assertThat(result.get()).isEqualTo(2);
+            }
+            assertThat(count).hasValue(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void memoizeRacy() {
+        var count = new AtomicInteger();
+        var memoized = Functions.memoizeRacy(() -> count.incrementAndGet());
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(memoized.get()).isEqualTo(1);
+        assertThat(count).hasValue(1);
+        assertThat(Functions.memoizeRacy(memoized)).isSameAs(memoized);
+    }
+
+    @Test
+    void memoizeRacyFirstResultWins() throws Exception {
+        var threads = 8;
+        var count = new AtomicInteger();
+        var barrier = new CyclicBarrier(threads);
+        var memoized = Functions.memoizeRacy(
+            () -> {
+                var result = count.incrementAndGet();
+                Functions.uncheck(() -> barrier.await(10, TimeUnit.SECONDS));
+                return result;
+            }
+        );
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var results = Sequence.generate(() -> executor.submit(memoized::get)).take(threads).eager();
+            var winner = results.head().orThrow().get();
+            for (var result : results) {
+                assertThat(result.get()).isEqualTo(winner);
+            }
+            assertThat(memoized.get()).isEqualTo(winner);
+            assertThat(count).hasValue(threads);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class IntSequenceTest {
+    @Test
+    void empty() {
+        var empty = IntSequence.empty();
+        assertAll(
+            () -> assertThat(empty.isEmpty()).isTrue(),
+            () -> assertThat(empty.head()).isEmpty(),
+            () -> assertThat(empty.tail().isEmpty()).isTrue(),
+            () -> assertThat(empty.length()).isZero(),
+            () -> assertThat(empty.array()).isEmpty(),
+            () -> assertThat(empty).hasToString("[]")
+        );
+    }
+
+    @Test
+    void of() {
+        var sequence = IntSequence.of(1, 2, 3);
+        assertAll(
+            () -> assertThat(sequence.head()).hasValue(1),
+            () -> assertThat(sequence.tail().orThrow()).isEqualTo(IntSequence.of(2, 3)),
+            () -> assertThat(sequence.length()).isEqualTo(3),
+            () -> assertThat(sequence.array()).containsExactly(1, 2, 3),
+            () -> assertThat(sequence).isEqualTo(IntSequence.cons(1, IntSequence.cons(2, IntSequence.cons(3, IntSequence.empty())))),
+            () -> assertThat(sequence).hasSameHashCodeAs(Sequence.of(1, 2, 3)),
+            () -> assertThat(sequence).hasToString("[1, 2, 3]")
+        );
+    }
+
+    @Test
+    void lazy() {
+        var count = new AtomicInteger();
+        var sequence = IntSequence.lazy(
+            () -> {
+                count.incrementAndGet();
+                return IntSequence.of(1, 2, 3);
+            }
+        );
+        assertThat(count).hasValue(0);
+        var memoized = sequence.memoize();
+        assertAll(
+            () -> assertThat(memoized.sum()).isEqualTo(6),
+            () -> assertThat(memoized.sum()).isEqualTo(6),
+            () -> assertThat(count).hasValue(1)
+        );
+    }
+
+    @Test
+    void range() {
+        assertAll(
+            () -> assertThat(IntSequence.range(1, 5).array()).containsExactly(1, 2, 3, 4, 5),
+            () -> assertThat(IntSequence.range(5, 1).isEmpty()).isTrue(),
+            () -> assertThat(IntSequence.range(Integer.MIN_VALUE, Integer.MAX_VALUE).length()).isEqualTo(1L << 32),
+            () -> assertThat(IntSequence.range(Integer.MAX_VALUE - 1, Integer.MAX_VALUE).array()).containsExactly(
+                Integer.MAX_VALUE - 1,
+                Integer.MAX_VALUE
+            ),
+            () -> assertThat(IntSequence.range(1, 1_000_000).sum()).isEqualTo(500_000_500_000L)
+        );
+    }
+
+    @Test
+    void memoizeIterator() {
+        var sequence = IntSequence.memoize(IntStream.of(1, 2, 3));
+        assertThat(sequence.array()).containsExactly(1, 2, 3);
+        assertThat(sequence.array()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void aggregates() {
+        var sequence = IntSequence.of(3, -1, 4, 1, -5, 9);
+        assertAll(
+            () -> assertThat(sequence.sum()).isEqualTo(11),
+            () -> assertThat(sequence.foldLeft(0, (a, b) -> a * 2 + b)).isEqualTo(115),
+            () -> assertThat(sequence.maximum()).hasValue(9),
+            () -> assertThat(sequence.minimum()).hasValue(-5),
+            () -> assertThat(sequence.average()).hasValue(11 / 6.0),
+            () -> assertThat(IntSequence.empty().maximum()).isEmpty(),
+            () -> assertThat(IntSequence.empty().average()).isEmpty(),
+            () -> assertThat(sequence.any(x -> x > 8)).isTrue(),
+            () -> assertThat(sequence.all(x -> x > -5)).isFalse(),
+            () -> assertThat(sequence.find(x -> x > 3)).hasValue(4),
+            () -> assertThat(sequence.find(x -> x > 9)).isEmpty()
+        );
+    }
+
+    @Test
+    void transformations() {
+        var sequence = IntSequence.range(1, 10);
+        assertAll(
+            () -> assertThat(sequence.map(x -> x * x).take(4).array()).containsExactly(1, 4, 9, 16),
+            () -> assertThat(sequence.filter(x -> x % 3 == 0).array()).containsExactly(3, 6, 9),
+            () -> assertThat(sequence.skip(7).array()).containsExactly(8, 9, 10),
+            () -> assertThat(sequence.skip(20).isEmpty()).isTrue(),
+            () -> assertThat(sequence.takeWhile(x -> x < 4).array()).containsExactly(1, 2, 3),
+            () -> assertThat(sequence.skipWhile(x -> x < 8).array()).containsExactly(8, 9, 10),
+            () -> assertThat(sequence.take(2).concatenate(IntSequence.of(0)).array()).containsExactly(1, 2, 0),
+            () -> assertThat(sequence.concatenate(sequence).skip(9).take(2).array()).containsExactly(10, 1)
+        );
+    }
+
+    @Test
+    void nestedConcatenation() {
+        var left = IntSequence.empty();
+        var right = IntSequence.empty();
+        for (var element = 0; element < 100_000; element++) {
+            left = left.concatenate(IntSequence.of(element));
+            right = IntSequence.of(element).concatenate(right);
+        }
+        var leftNested = left;
+        var rightNested = right;
+        assertAll(
+            () -> assertThat(leftNested.length()).isEqualTo(100_000),
+            () -> assertThat(leftNested.skip(99_999).head()).hasValue(99_999),
+            () -> assertThat(rightNested.head()).hasValue(99_999),
+            () -> assertThat(rightNested.sum()).isEqualTo(4_999_950_000L)
+        );
+    }
+
+    @Test
+    void infinite() {
+        var naturals = IntSequence.iterate(0, x -> x + 1);
+        assertAll(
+            () -> assertThat(naturals.skip(1_000_000).head()).hasValue(1_000_000),
+            () -> assertThat(naturals.filter(x -> x > 100_000).head()).hasValue(100_001),
+            () -> assertThat(naturals.map(x -> -x).take(3).array()).containsExactly(0, -1, -2),
+            () -> assertThat(naturals).hasToString(
+                "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, "
+                    + "28, 29, ...]"
+            )
+        );
+    }
+
+    @Test
+    void conversions() {
+        var sequence = IntSequence.of(1, 2, 3);
+        assertAll(
+            () -> assertThat(sequence.boxed()).containsExactly(1, 2, 3),
+            () -> assertThat(sequence.mapToObj(Integer::toString)).containsExactly("1", "2", "3"),
+            () -> assertThat(Sequence.of("a", "bb", "ccc").mapToInt(String::length)).isEqualTo(sequence),
+            () -> assertThat(sequence.asLongSequence()).isEqualTo(LongSequence.of(1, 2, 3)),
+            () -> assertThat(sequence.asDoubleSequence()).isEqualTo(DoubleSequence.of(1, 2, 3)),
+            () -> assertThat(sequence.stream().toArray()).containsExactly(1, 2, 3),
+            () -> assertThat(IntSequence.range(1, 100).stream().parallel().sum()).isEqualTo(5050),
+            () -> assertThat(IntSequence.memoize(sequence.stream()).eager()).isEqualTo(sequence)
+        );
+    }
+
+    @Test
+    void iterator() {
+        var iterator = IntSequence.of(1).iterator();
+        assertThat(iterator.nextInt()).isEqualTo(1);
+        assertThat(iterator.hasNext()).isFalse();
+        assertThatThrownBy(iterator::nextInt).isInstanceOf(NoSuchElementException.class);
+    }
+}
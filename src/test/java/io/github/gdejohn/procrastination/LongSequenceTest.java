@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class LongSequenceTest {
+    @Test
+    void range() {
+        assertAll(
+            () -> assertThat(LongSequence.range(1, 5).array()).containsExactly(1, 2, 3, 4, 5),
+            () -> assertThat(LongSequence.range(5, 1).isEmpty()).isTrue(),
+            () -> assertThat(LongSequence.range(Long.MAX_VALUE - 1, Long.MAX_VALUE).array()).containsExactly(
+                Long.MAX_VALUE - 1,
+                Long.MAX_VALUE
+            ),
+            () -> assertThat(LongSequence.range(Long.MIN_VALUE, Long.MAX_VALUE).skip(Long.MAX_VALUE).take(3).array())
+                .containsExactly(-1, 0, 1),
+            () -> assertThat(LongSequence.range(1, 1_000_000).sum()).isEqualTo(500_000_500_000L)
+        );
+    }
+
+    @Test
+    void sum() {
+        assertAll(
+            () -> assertThat(LongSequence.of(1, 2, 3).sum()).isEqualTo(6),
+            () -> assertThatThrownBy(() -> LongSequence.of(Long.MAX_VALUE, 1).sum())
+                .isInstanceOf(ArithmeticException.class)
+        );
+    }
+
+    @Test
+    void conversions() {
+        var sequence = LongSequence.of(1, 2, 3);
+        assertAll(
+            () -> assertThat(sequence.boxed()).containsExactly(1L, 2L, 3L),
+            () -> assertThat(sequence.mapToInt(x -> (int) x * 2)).isEqualTo(IntSequence.of(2, 4, 6)),
+            () -> assertThat(sequence.asDoubleSequence()).isEqualTo(DoubleSequence.of(1, 2, 3)),
+            () -> assertThat(Sequence.of(1L, 2L, 3L).mapToLong(Long::longValue)).isEqualTo(sequence),
+            () -> assertThat(sequence.stream().toArray()).containsExactly(1, 2, 3)
+        );
+    }
+}
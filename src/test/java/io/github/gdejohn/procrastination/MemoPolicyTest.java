@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class MemoPolicyTest {
+    @Test
+    void window() {
+        var count = new AtomicInteger();
+        var policy = MemoPolicy.window(3);
+        var sequence = Sequence.cons(0, Sequences.range(1, 9)).map(
+            element -> {
+                count.incrementAndGet();
+                return element;
+            }
+        ).memoize(policy);
+        assertAll(
+            () -> assertThat(sequence.collect(Collectors.toList())).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9),
+            () -> assertThat(count).hasValue(10),
+            () -> assertThat(policy.misses()).isEqualTo(11),
+            () -> assertThat(policy.evictions()).isEqualTo(8),
+            () -> assertThat(sequence.collect(Collectors.toList())).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9),
+            () -> assertThat(count).hasValue(18),
+            () -> assertThat(policy.hits()).isEqualTo(2),
+            () -> assertThat(policy.misses()).isEqualTo(20),
+            () -> assertThat(policy.evictions()).isEqualTo(17)
+        );
+    }
+
+    @Test
+    void windowReplay() {
+        var pulled = new AtomicInteger();
+        var policy = MemoPolicy.window(10);
+        var source = Sequences.range(1, 100_000).map(
+            element -> {
+                pulled.incrementAndGet();
+                return element;
+            }
+        );
+        var sequence = Sequence.replay(source::iterator).memoize(policy);
+        assertAll(
+            () -> assertThat(sequence.foldLeft(0L, Long::sum)).isEqualTo(5_000_050_000L),
+            () -> assertThat(pulled).hasValue(100_000),
+            () -> assertThat(policy.evictions()).isPositive(),
+            () -> assertThat(sequence.foldLeft(0L, Long::sum)).isEqualTo(5_000_050_000L),
+            () -> assertThat(pulled).hasValue(200_000)
+        );
+    }
+
+    @Test
+    void windowHits() {
+        var count = new AtomicInteger();
+        var policy = MemoPolicy.window(100);
+        var sequence = Sequences.range(1, 10).map(
+            element -> {
+                count.incrementAndGet();
+                return element;
+            }
+        ).memoize(policy);
+        assertAll(
+            () -> assertThat(sequence.foldLeft(0, Integer::sum)).isEqualTo(55),
+            () -> assertThat(sequence.foldLeft(0, Integer::sum)).isEqualTo(55),
+            () -> assertThat(count).hasValue(10),
+            () -> assertThat(policy.misses()).isEqualTo(11),
+            () -> assertThat(policy.hits()).isEqualTo(11),
+            () -> assertThat(policy.evictions()).isZero(),
+            () -> assertThat(policy).hasToString("MemoPolicy[hits=11, misses=11, evictions=0]")
+        );
+    }
+
+    @Test
+    void budget() {
+        var policy = MemoPolicy.budget(1_000, element -> ((String) element).length());
+        var sequence = Sequences.range(1, 100).map(n -> "x".repeat(n)).memoize(policy);
+        assertAll(
+            () -> assertThat(sequence.length()).isEqualTo(100),
+            () -> assertThat(sequence.last()).containsExactly("x".repeat(100)),
+            () -> assertThat(policy.evictions()).isPositive(),
+            () -> assertThatThrownBy(() -> MemoPolicy.budget(0, element -> 0)).isInstanceOf(
+                IllegalArgumentException.class
+            ),
+            () -> assertThatThrownBy(() -> MemoPolicy.window(0)).isInstanceOf(IllegalArgumentException.class)
+        );
+    }
+
+    @Test
+    void soft() {
+        var policy = MemoPolicy.soft();
+        var sequence = Sequences.range(1, 1_000).map(n -> n * 2).memoize(policy);
+        assertAll(
+            () -> assertThat(sequence.skip(999)).containsExactly(2_000),
+            () -> assertThat(sequence.element(500)).containsExactly(1_002),
+            () -> assertThat(policy.hits() + policy.misses()).isPositive()
+        );
+    }
+
+    @Test
+    void stackSafe() {
+        var sequence = Sequence.generate(() -> 1).take(100_000).memoize(MemoPolicy.window(10));
+        assertThat(sequence.foldLeft(0, Integer::sum)).isEqualTo(100_000);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class PersistentMapTest {
+    private static final int SIZE = 10_000;
+
+    /** A key whose hash code collides with every other key in the same bucket. */
+    private static final class Colliding {
+        private final int value;
+
+        Colliding(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Colliding && ((Colliding) object).value == this.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value % 3;
+        }
+
+        @Override
+        public String toString() {
+            return Integer.toString(this.value);
+        }
+    }
+
+    @Test
+    void put() {
+        var map = PersistentMap.<Integer, String>empty();
+        for (var key = 0; key < SIZE; key++) {
+            map = map.put(key, Integer.toString(key));
+        }
+        var full = map;
+        var updated = full.put(7, "seven");
+        assertAll(
+            () -> assertThat(full.size()).isEqualTo(SIZE),
+            () -> assertThat(full.get(7)).containsExactly("7"),
+            () -> assertThat(full.get(SIZE - 1)).containsExactly(Integer.toString(SIZE - 1)),
+            () -> assertThat(full.get(SIZE)).isEmpty(),
+            () -> assertThat(full.containsKey(0)).isTrue(),
+            () -> assertThat(updated.get(7)).containsExactly("seven"),
+            () -> assertThat(updated.size()).isEqualTo(SIZE),
+            () -> assertThat(full.put(3, full.get(3).orThrow())).isSameAs(full),
+            () -> assertThat(full.keys().length()).isEqualTo(SIZE),
+            () -> assertThat(full.keys().mapToLong(x -> x).sum()).isEqualTo((long) SIZE * (SIZE - 1) / 2)
+        );
+    }
+
+    @Test
+    void remove() {
+        var map = IntStream.range(0, SIZE).boxed().collect(PersistentMap.toPersistentMap(x -> x, x -> -x));
+        var removed = map;
+        for (var key = 0; key < SIZE; key += 2) {
+            removed = removed.remove(key);
+        }
+        var odd = removed;
+        assertAll(
+            () -> assertThat(odd.size()).isEqualTo(SIZE / 2),
+            () -> assertThat(odd.get(2)).isEmpty(),
+            () -> assertThat(odd.get(3)).containsExactly(-3),
+            () -> assertThat(odd.remove(2)).isSameAs(odd),
+            () -> assertThat(map.get(2)).containsExactly(-2),
+            () -> assertThat(map.size()).isEqualTo(SIZE),
+            () -> assertThat(odd.keys().all(key -> key % 2 == 1)).isTrue(),
+            () -> assertThat(odd.keys().foldLeft(odd, PersistentMap::remove)).isSameAs(PersistentMap.empty())
+        );
+    }
+
+    @Test
+    void collisions() {
+        var map = PersistentMap.<Colliding, Integer>empty();
+        for (var value = 0; value < 30; value++) {
+            map = map.put(new Colliding(value), value);
+        }
+        var colliding = map;
+        var removed = colliding.remove(new Colliding(4)).remove(new Colliding(5));
+        assertAll(
+            () -> assertThat(colliding.size()).isEqualTo(30),
+            () -> assertThat(colliding.get(new Colliding(13))).containsExactly(13),
+            () -> assertThat(colliding.put(new Colliding(13), -13).get(new Colliding(13))).containsExactly(-13),
+            () -> assertThat(removed.size()).isEqualTo(28),
+            () -> assertThat(removed.containsKey(new Colliding(4))).isFalse(),
+            () -> assertThat(removed.containsKey(new Colliding(7))).isTrue(),
+            () -> assertThat(colliding.values().mapToLong(x -> x).sum()).isEqualTo(435)
+        );
+    }
+
+    @Test
+    void conversions() {
+        var source = new HashMap<String, Integer>();
+        source.put("foo", 1);
+        source.put("bar", 2);
+        source.put("baz", 3);
+        var map = PersistentMap.from(source);
+        assertAll(
+            () -> assertThat(map).isEqualTo(PersistentMap.<String, Integer>empty().put("baz", 3).put("foo", 1).put("bar", 2)),
+            () -> assertThat(map.hashCode()).isEqualTo(source.hashCode()),
+            () -> assertThat(map.entries().collect(Collectors.toMap(Pair::first, Pair::second))).isEqualTo(source),
+            () -> assertThat(map.remove("foo")).isNotEqualTo(map),
+            () -> assertThat(PersistentMap.from(Map.of("foo", 1))).hasToString("{foo=1}")
+        );
+    }
+}
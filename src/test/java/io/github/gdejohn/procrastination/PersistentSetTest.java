@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class PersistentSetTest {
+    @Test
+    void versions() {
+        var empty = PersistentSet.<String>empty();
+        var one = empty.add("foo");
+        var two = one.add("bar");
+        assertAll(
+            () -> assertThat(empty).isEmpty(),
+            () -> assertThat(one).containsExactly("foo"),
+            () -> assertThat(two).containsExactlyInAnyOrder("foo", "bar"),
+            () -> assertThat(two.add("foo")).isSameAs(two),
+            () -> assertThat(two.remove("baz")).isSameAs(two),
+            () -> assertThat(two.remove("bar")).isEqualTo(one),
+            () -> assertThat(one.remove("foo")).isSameAs(PersistentSet.empty()),
+            () -> assertThat(two.contains("bar")).isTrue(),
+            () -> assertThat(one.contains("bar")).isFalse()
+        );
+    }
+
+    @Test
+    void conversions() {
+        var set = Sequences.range(1, 1_000).map(x -> x % 100).collect(PersistentSet.toPersistentSet());
+        assertAll(
+            () -> assertThat(set.size()).isEqualTo(100),
+            () -> assertThat(set).isEqualTo(PersistentSet.from(Sequences.range(0, 99))),
+            () -> assertThat(set.hashCode()).isEqualTo(set.sequence().collect(Collectors.toSet()).hashCode()),
+            () -> assertThat(PersistentSet.of(1, 1, 1)).hasToString("{1}"),
+            () -> assertThat(PersistentSet.from(Set.of(1, 2, 3)).sequence().length()).isEqualTo(3)
+        );
+    }
+}
@@ -15,19 +15,37 @@ package io.github.gdejohn.procrastination;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Random;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.github.gdejohn.procrastination.Either.left;
 import static io.github.gdejohn.procrastination.Either.right;
@@ -40,11 +58,17 @@ import static io.github.gdejohn.procrastination.Sequence.cons;
 import static io.github.gdejohn.procrastination.Undefined.undefined;
 import static io.github.gdejohn.procrastination.Unit.unit;
 import static java.util.Collections.enumeration;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.reverseOrder;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.concurrent.CompletableFuture.delayedExecutor;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.function.Function.identity;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
 class SequenceTest {
@@ -123,6 +147,62 @@ class SequenceTest {
         );
     }
 
+    @Test
+    void fromLargeArray() {
+        var array = IntStream.range(0, 100_000).boxed().toArray(Integer[]::new);
+        var sequence = cons(-1, Sequence.from(array));
+        var iterator = sequence.iterator();
+        assertAll(
+            () -> assertThat(sequence.length()).isEqualTo(100_001L),
+            () -> assertThat(sequence.foldLeft(0L, (sum, n) -> sum + n)).isEqualTo(4_999_950_000L - 1),
+            () -> assertThat(sequence.element(2)).isEqualTo(Maybe.of(1)),
+            () -> assertThat(sequence.stream().skip(50_000).findFirst()).contains(49_999),
+            () -> assertThat(sequence).containsExactlyElementsOf(cons(-1, Sequences.range(0, 99_999))),
+            () -> {
+                assertThat(iterator.next()).isEqualTo(-1);
+                assertThat(iterator.hasNext()).isTrue();
+                assertThat(iterator.next()).isEqualTo(0);
+                var rest = new ArrayList<Integer>();
+                iterator.forEachRemaining(rest::add);
+                assertThat(rest).hasSize(99_999).startsWith(1, 2).endsWith(99_999);
+                assertThat(iterator.hasNext()).isFalse();
+            },
+            () -> assertThatThrownBy(
+                () -> Sequence.of("foo", null, "bar").forEach(element -> {})
+            ).isInstanceOf(NullPointerException.class)
+        );
+    }
+
+    @Test
+    void memoizeCopiesViews() {
+        var array = new Integer[] {1, 2, 3};
+        var ints = new int[] {1, 2, 3};
+        var list = new ArrayList<>(List.of(1, 2, 3));
+        var memoized = Sequence.from(array).memoize();
+        var reversed = Sequence.from(array).reverse().memoize();
+        var memoizedInts = Sequence.from(ints).memoize();
+        var memoizedList = Sequence.from(list).memoize();
+        var view = Sequence.from(array);
+        assertAll(
+            () -> assertThat(memoized).containsExactly(1, 2, 3),
+            () -> assertThat(reversed).containsExactly(3, 2, 1),
+            () -> assertThat(memoizedInts).containsExactly(1, 2, 3),
+            () -> assertThat(memoizedList).containsExactly(1, 2, 3)
+        );
+        array[0] = 99;
+        ints[0] = 99;
+        list.set(0, 99);
+        assertAll(
+            () -> assertThat(memoized).containsExactly(1, 2, 3),
+            () -> assertThat(reversed).containsExactly(3, 2, 1),
+            () -> assertThat(memoizedInts).containsExactly(1, 2, 3),
+            () -> assertThat(memoizedList).containsExactly(1, 2, 3),
+            () -> assertThat(view).containsExactly(99, 2, 3),
+            () -> assertThat(memoized.knownLength()).isEqualTo(3L),
+            () -> assertThat(Sequences.range(1, 3).memoize()).isInstanceOf(Sequences.range(1, 3).getClass())
+        );
+    }
+
     @Test
     void fromIntArray() {
         assertThat(Sequence.from(new int[] {1, 2, 3})).containsExactly(1, 2, 3);
@@ -188,6 +268,60 @@ class SequenceTest {
         );
     }
 
+    @Test
+    void fromCollection() {
+        var list = new ArrayList<>(List.of(1, 2, 3));
+        var linked = new LinkedList<>(list);
+        var sequence = Sequence.from(list);
+        var replayed = Sequence.from(linked);
+        list.add(4);
+        linked.add(4);
+        var naturals = Sequence.iterate(0, x -> x + 1);
+        assertAll(
+            () -> assertThat(sequence).containsExactly(1, 2, 3, 4),
+            () -> assertThat(replayed).containsExactly(1, 2, 3, 4),
+            () -> assertThat(sequence.skip(2)).containsExactly(3, 4),
+            () -> assertThat(Sequence.from(new TreeSet<>(Set.of(3, 1, 2)))).containsExactly(1, 2, 3),
+            () -> assertThat(Sequence.from(naturals)).isSameAs(naturals),
+            () -> assertThat(Sequence.from(Vector.of(1, 2, 3))).containsExactly(1, 2, 3),
+            () -> assertThat(Sequence.from(Collections.nCopies(100_000, 0)).length()).isEqualTo(100_000)
+        );
+    }
+
+    @Test
+    void knownLength() {
+        var evaluated = new int[1];
+        var list = new ArrayList<>(Collections.nCopies(100, 1));
+        var sequence = Sequence.from(list).map(x -> {
+            evaluated[0]++;
+            return x;
+        });
+        var infinite = Sequence.iterate(0, x -> x + 1);
+        assertAll(
+            () -> assertThat(sequence.length()).isEqualTo(100),
+            () -> assertThat(sequence.skip(10).take(50).length()).isEqualTo(50),
+            () -> assertThat(sequence.zip(Sequences.range(1, 30), Integer::sum).length()).isEqualTo(30),
+            () -> assertThat(sequence.reverse().index().length()).isEqualTo(100),
+            () -> assertThat(sequence.concatenate(Sequence.of(1, 2)).length()).isEqualTo(102),
+            () -> assertThat(sequence.longerThan(99)).isTrue(),
+            () -> assertThat(sequence.shorterThan(100)).isFalse(),
+            () -> assertThat(sequence.take(200).length(100)).containsExactly(100L),
+            () -> assertThat(sequence.skip(200).isEmpty()).isTrue(),
+            () -> assertThat(sequence.spliterator().getExactSizeIfKnown()).isEqualTo(100),
+            () -> assertThat(evaluated[0]).isZero(),
+            () -> assertThat(infinite.zip(sequence, Integer::sum).length()).isEqualTo(100),
+            () -> assertThat(infinite.take(5).length()).isEqualTo(5),
+            () -> assertThat(sequence.filter(x -> x > 1).length()).isZero(),
+            () -> assertThat(sequence.concatenate(() -> Sequence.of(1)).length()).isEqualTo(101)
+        );
+        list.add(1);
+        assertAll(
+            () -> assertThat(sequence.length()).isEqualTo(101),
+            () -> assertThat(sequence.array(Integer[]::new)).hasSize(101),
+            () -> assertThat(Sequence.from(List.of(1, 2, 3)).map(x -> x * 2)).hasToString("[2, 4, 6]")
+        );
+    }
+
     @Test
     void fromCharSequence() {
         assertAll(
@@ -222,6 +356,71 @@ class SequenceTest {
         );
     }
 
+    @Test
+    void lines() throws IOException {
+        var text = "foo\r\nbar\rbaz\n\n" + "x".repeat(100_000) + "\n" + "qux\n".repeat(50_000) + "caf\u00e9";
+        var expected = Sequence.<String>of("foo", "bar", "baz", "", "x".repeat(100_000))
+            .concatenate(Sequence.of("qux").cycle(50_000))
+            .concatenate(Sequence.of("caf\u00e9"));
+        var file = Files.createTempFile("lines", ".txt");
+        try {
+            Files.writeString(file, text, UTF_8);
+            try (var channel = FileChannel.open(file)) {
+                var lines = Sequences.lines(channel, UTF_8);
+                var mapped = Sequences.lines(channel.map(READ_ONLY, 0, channel.size()));
+                assertAll(
+                    () -> assertThat(lines).isEqualTo(expected),
+                    () -> assertThat(lines.length()).isEqualTo(50_006),
+                    () -> assertThat(mapped.map(CharSequence::toString).take(5)).isEqualTo(expected.take(5)),
+                    () -> assertThat(mapped.last().orThrow().toString()).isEqualTo(new String(
+                        "caf\u00e9".getBytes(UTF_8),
+                        ISO_8859_1
+                    )),
+                    () -> assertThat(mapped.element(2).orThrow().subSequence(1, 3)).hasToString("az"),
+                    () -> assertThat(channel.position()).isZero()
+                );
+            }
+        } finally {
+            Files.delete(file);
+        }
+        assertAll(
+            () -> assertThat(Sequences.lines(ByteBuffer.allocate(0))).isEmpty(),
+            () -> assertThat(Sequences.lines(ByteBuffer.wrap("a\n\nb\n".getBytes(UTF_8))).map(CharSequence::toString))
+                .containsExactly("a", "", "b"),
+            () -> assertThat(Sequences.lines(ByteBuffer.wrap("a\nb\na\n".getBytes(UTF_8))).deduplicate().length())
+                .isEqualTo(2),
+            () -> assertThat(Sequences.lines(ByteBuffer.wrap("ab\nab".getBytes(UTF_8))).map(Object::hashCode))
+                .containsExactly("ab".hashCode(), "ab".hashCode())
+        );
+    }
+
+    @Test
+    void replay() {
+        var opened = new int[1];
+        var list = new ArrayList<>(List.of(1, 2, 3));
+        var sequence = Sequence.replay(() -> {
+            opened[0]++;
+            return list.iterator();
+        });
+        assertThat(opened[0]).isZero();
+        assertThat(sequence.foldLeft(0, Integer::sum)).isEqualTo(6);
+        list.add(4);
+        assertThat(sequence.foldLeft(0, Integer::sum)).isEqualTo(10);
+        assertThat(opened[0]).isEqualTo(2);
+        assertAll(
+            () -> assertThat(sequence).containsExactly(1, 2, 3, 4),
+            () -> assertThat(Sequence.replay(() -> IntStream.range(0, 100_000).iterator()).length()).isEqualTo(100_000),
+            () -> assertThat(Sequence.replay(() -> IntStream.iterate(0, x -> x + 1).iterator()).element(50_000))
+                .containsExactly(50_000),
+            () -> assertThat(Sequence.replay(Collections::emptyIterator)).isEmpty()
+        );
+        var count = opened[0];
+        var memoized = sequence.memoize();
+        memoized.forEach(x -> {});
+        memoized.forEach(x -> {});
+        assertThat(opened[0]).isEqualTo(count + 1);
+    }
+
     @Test
     void fromOptional() {
         assertAll(
@@ -379,11 +578,175 @@ class SequenceTest {
         assertThat(sequence).containsExactly(1, 2, 3, 4, 5);
     }
 
+    @Test
+    void spliterator() {
+        var sized = Sequence.from(IntStream.range(0, 1_000).boxed().toArray(Integer[]::new)).spliterator();
+        assertThat(sized.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED)).isTrue();
+        assertThat(sized.estimateSize()).isEqualTo(1_000L);
+        var prefix = sized.trySplit();
+        assertThat(prefix.estimateSize()).isEqualTo(500L);
+        assertThat(sized.estimateSize()).isEqualTo(500L);
+        var elements = new ArrayList<Integer>();
+        assertThat(prefix.tryAdvance(elements::add)).isTrue();
+        prefix.forEachRemaining(elements::add);
+        sized.forEachRemaining(elements::add);
+        assertThat(elements).containsExactlyElementsOf(Sequences.range(0, 999));
+
+        var unsized = cons(-1, Sequences.range(0, 9_999)).spliterator();
+        assertThat(unsized.hasCharacteristics(Spliterator.SIZED)).isFalse();
+        assertThat(unsized.estimateSize()).isEqualTo(Long.MAX_VALUE);
+        var batch = unsized.trySplit();
+        assertThat(batch.estimateSize()).isEqualTo(1_024L);
+        assertThat(unsized.hasCharacteristics(Spliterator.SIZED)).isTrue();
+        assertThat(unsized.estimateSize()).isEqualTo(10_001L - 1_024L);
+    }
+
+    @Test
+    void spliteratorBindsLate() {
+        var list = new ArrayList<>(List.of(1, 2, 3));
+        var spliterator = Sequence.from(list).spliterator();
+        list.add(4);
+        assertThat(StreamSupport.stream(spliterator, false).toArray()).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void iteratorHasNextLeavesHeadsLazy() {
+        var count = new int[1];
+        var mapped = Sequences.range(1, 3).map(n -> { count[0]++; return n * 2; }).iterator();
+        assertAll(
+            () -> assertThat(Sequence.cons(undefined(), Sequence.empty()).iterator().hasNext()).isTrue(),
+            () -> assertThat(Sequence.cons(undefined(), Sequence::empty).iterator().hasNext()).isTrue(),
+            () -> assertThat(Sequence.cons(undefined(), Sequence.empty()).memoize().iterator().hasNext()).isTrue(),
+            () -> {
+                assertThat(mapped.hasNext()).isTrue();
+                assertThat(count[0]).isEqualTo(0);
+                assertThat(mapped.next()).isEqualTo(2);
+                assertThat(count[0]).isEqualTo(1);
+            },
+            () -> assertThatThrownBy(() -> Sequence.cons(undefined(), Sequence.empty()).iterator().next())
+                .isInstanceOf(Undefined.class)
+        );
+    }
+
+    @Test
+    void parallelStream() {
+        assertAll(
+            () -> assertThat(Sequences.range(1, 100_000).stream().parallel().mapToLong(n -> n).sum()).isEqualTo(
+                5_000_050_000L
+            ),
+            () -> assertThat(
+                Sequence.iterate(1L, n -> n + 1).stream().parallel().limit(100_000).mapToLong(n -> n).sum()
+            ).isEqualTo(5_000_050_000L),
+            () -> assertThat(
+                IntStream.rangeClosed(1, 100_000).boxed().collect(Sequences.toSequence()).stream().parallel().collect(
+                    Collectors.toList()
+                )
+            ).containsExactlyElementsOf(Sequences.range(1, 100_000)),
+            () -> assertThat(Sequences.range(1, 100_000).list().parallelStream().mapToLong(n -> n).sum()).isEqualTo(
+                5_000_050_000L
+            )
+        );
+    }
+
+    @Test
+    void randomAccessList() throws Exception {
+        var evaluated = new int[1];
+        var naturals = Sequence.iterate(0, x -> x + 1).map(x -> {
+            evaluated[0]++;
+            return x;
+        });
+        var list = naturals.randomAccessList();
+        assertAll(
+            () -> assertThat(list).isInstanceOf(RandomAccess.class),
+            () -> assertThat(list.get(1_000)).isEqualTo(1_000),
+            () -> assertThat(evaluated[0]).isEqualTo(1_001),
+            () -> assertThat(list.get(17)).isEqualTo(17),
+            () -> assertThat(evaluated[0]).isEqualTo(1_001),
+            () -> assertThat(list.isEmpty()).isFalse(),
+            () -> assertThat(list.iterator().next()).isZero(),
+            () -> assertThatThrownBy(() -> list.set(0, 1)).isInstanceOf(UnsupportedOperationException.class),
+            () -> assertThat(Sequences.range(1, 100).filter(x -> x % 2 == 0).randomAccessList()).hasSize(50)
+                .startsWith(2, 4).endsWith(100),
+            () -> assertThat(Sequence.empty().randomAccessList()).isEmpty(),
+            () -> assertThatThrownBy(() -> Sequence.of(1).randomAccessList().get(1))
+                .isInstanceOf(IndexOutOfBoundsException.class)
+        );
+        var shared = Sequences.range(0, 99_999).filter(x -> true).randomAccessList();
+        var tasks = new ArrayList<CompletableFuture<Boolean>>();
+        for (var task = 0; task < 8; task++) {
+            tasks.add(CompletableFuture.supplyAsync(
+                () -> IntStream.range(0, 100_000).allMatch(index -> shared.get(index) == index)
+            ));
+        }
+        for (var task : tasks) {
+            assertThat(task.get()).isTrue();
+        }
+        assertThat(shared).hasSize(100_000);
+    }
+
+    @Test
+    void randomAccessListRetriesAfterException() {
+        var thrown = new AtomicInteger();
+        var list = Sequences.range(0, 19).map(
+            n -> {
+                if (n == 5 && thrown.getAndIncrement() == 0) {
+                    throw new IllegalStateException();
+                }
+                return n;
+            }
+        ).randomAccessList();
+        assertAll(
+            () -> assertThatThrownBy(() -> list.get(10)).isInstanceOf(IllegalStateException.class),
+            () -> assertThat(list.get(0)).isZero(),
+            () -> assertThat(list.get(10)).isEqualTo(10),
+            () -> assertThat(list).containsExactlyElementsOf(Sequences.range(0, 19))
+        );
+    }
+
+    @Test
+    void randomAccessListGrownSource() {
+        var source = new ArrayList<>(List.of(1, 2, 3));
+        var list = Sequence.from(source).randomAccessList();
+        source.add(4);
+        var read = new ArrayList<>(List.of(1, 2, 3));
+        var started = Sequence.from(read).randomAccessList();
+        assertThat(started.get(0)).isEqualTo(1);
+        read.add(4);
+        assertAll(
+            () -> assertThat(list.size()).isEqualTo(3),
+            () -> assertThat(list.get(list.size() - 1)).isEqualTo(3),
+            () -> assertThat(list).containsExactly(1, 2, 3),
+            () -> assertThat(started.size()).isEqualTo(3),
+            () -> assertThat(started.get(started.size() - 1)).isEqualTo(3),
+            () -> assertThat(started).containsExactly(1, 2, 3)
+        );
+    }
+
     @Test
     void toArray() {
         assertThat(Sequences.range(1, 5).array(Integer[]::new)).containsExactly(1, 2, 3, 4, 5);
     }
 
+    @Test
+    void toPrimitiveArrays() {
+        var unknown = Sequence.iterate(0, x -> x + 1).takeWhile(x -> x < 100_000);
+        var expected = IntStream.range(0, 100_000).toArray();
+        assertAll(
+            () -> assertThat(unknown.toIntArray(x -> x)).isEqualTo(expected),
+            () -> assertThat(Sequences.range(0, 99_999).toIntArray(x -> x)).isEqualTo(expected),
+            () -> assertThat(unknown.toLongArray(x -> 2L * x)).isEqualTo(
+                LongStream.range(0, 100_000).map(x -> 2 * x).toArray()
+            ),
+            () -> assertThat(Sequence.of(1, 2, 3).toDoubleArray(x -> x / 2.0)).containsExactly(0.5, 1.0, 1.5),
+            () -> assertThat(unknown.array(Integer[]::new)).hasSize(100_000).startsWith(0, 1, 2).endsWith(99_999),
+            () -> assertThat(Sequence.empty().toIntArray(x -> 0)).isEmpty(),
+            () -> assertThat(Sequence.of(1, 2, 3).filter(x -> x > 1).toArrayList()).containsExactly(2, 3),
+            () -> assertThat(Sequence.from(List.of(1, 2, 3)).toArrayList()).containsExactly(1, 2, 3),
+            () -> assertThatThrownBy(() -> Sequence.<Object>of(1, "x").array(Integer[]::new))
+                .isInstanceOf(ArrayStoreException.class)
+        );
+    }
+
     @Test
     void hasPrefix() {
         assertAll(
@@ -478,6 +841,68 @@ class SequenceTest {
         );
     }
 
+    @Test
+    void traversalsOverMixedCells() {
+        var sequence = Sequence.cons(
+            0,
+            Sequence.lazy(
+                () -> Sequence.cons(
+                    () -> 1,
+                    Sequence.from(new Integer[] {2, 3}).concatenate(Sequence.memoize(Stream.of(4, 5)))
+                )
+            )
+        ).memoize();
+        var iterator = sequence.iterator();
+        assertAll(
+            () -> assertThat(sequence.length()).isEqualTo(6),
+            () -> assertThat(sequence.foldLeft(0, (sum, element) -> sum * 10 + element)).isEqualTo(12_345),
+            () -> assertThat(sequence.collect(Collectors.toList())).containsExactly(0, 1, 2, 3, 4, 5),
+            () -> assertThat(sequence.array(Integer[]::new)).containsExactly(0, 1, 2, 3, 4, 5),
+            () -> assertThat(sequence.stream().skip(2).collect(Collectors.toList())).containsExactly(2, 3, 4, 5),
+            () -> {
+                var elements = new ArrayList<Integer>();
+                sequence.forEach(elements::add);
+                assertThat(elements).containsExactly(0, 1, 2, 3, 4, 5);
+            },
+            () -> {
+                assertThat(iterator.next()).isEqualTo(0);
+                assertThat(iterator.hasNext()).isTrue();
+                var rest = new ArrayList<Integer>();
+                iterator.forEachRemaining(rest::add);
+                assertThat(rest).containsExactly(1, 2, 3, 4, 5);
+                assertThat(iterator.hasNext()).isFalse();
+                assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+            }
+        );
+    }
+
+    @Test
+    void randomAccess() {
+        var array = IntStream.range(0, 1_000_000).boxed().toArray(Integer[]::new);
+        var sequence = Sequence.from(array);
+        var huge = Sequences.range(0L, Long.MAX_VALUE - 1);
+        assertAll(
+            () -> assertThat(huge.element(1L << 60)).containsExactly(1L << 60),
+            () -> assertThat(huge.skip(Long.MAX_VALUE - 2)).containsExactly(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1),
+            () -> assertThat(huge.last()).containsExactly(Long.MAX_VALUE - 1),
+            () -> assertThat(huge.slice(1L << 40, (1L << 40) + 2)).containsExactly(1L << 40, (1L << 40) + 1),
+            () -> assertThat(huge.replace(1L << 50, -1L).element(1L << 50)).containsExactly(-1L),
+            () -> assertThat(huge.take(1L << 62).length()).isEqualTo(1L << 62),
+            () -> assertThat(huge.take(3).reverse()).containsExactly(2L, 1L, 0L),
+            () -> assertThat(sequence.reverse().take(3)).containsExactly(999_999, 999_998, 999_997),
+            () -> assertThat(sequence.reverse().last()).containsExactly(0),
+            () -> assertThat(
+                Sequences.range(0, 999).map(page -> sequence.sliceLength(page * 1_000L, 1_000).last().orThrow())
+                    .skip(997)
+            ).containsExactly(997_999, 998_999, 999_999),
+            () -> assertThat(sequence.replace(5, -1).take(7)).containsExactly(0, 1, 2, 3, 4, -1, 6),
+            () -> assertThat(sequence.concatenate(Sequence.of(-1)).replace(1_000_000, -2).last()).containsExactly(-2),
+            () -> assertThat(sequence.concatenate(Sequence.of(-1)).element(1_000_000)).containsExactly(-1),
+            () -> assertThat(sequence.element(1_000_000)).isEmpty(),
+            () -> assertThat(sequence.skip(2_000_000)).isEmpty()
+        );
+    }
+
     @Test
     void boundedLength() {
         assertAll(
@@ -698,6 +1123,22 @@ class SequenceTest {
         assertThat(Sequences.range(1, 100).foldRight(Integer::sum)).containsExactly(5_050);
     }
 
+    @Test
+    void foldRightEagerOrder() {
+        BiFunction<Integer, String, String> prepend = (element, string) -> element + string;
+        assertAll(
+            () -> assertThat(Sequence.of(1, 2, 3).foldRight("", prepend)).isEqualTo("123"),
+            () -> assertThat(Sequence.cons(0, Sequence.from(new Integer[] {1, 2, 3})).foldRight("", prepend)).isEqualTo(
+                "0123"
+            ),
+            () -> assertThat(Sequence.of(1, 2, 3).foldRight((x, y) -> x - y)).containsExactly(2),
+            () -> assertThat(Sequence.<Integer>empty().foldRight((x, y) -> x - y)).isEmpty(),
+            () -> assertThat(Sequences.range(1, 1_000_000).map(Long::valueOf).foldRight(0L, Long::sum)).isEqualTo(
+                500_000_500_000L
+            )
+        );
+    }
+
     @Test
     void foldRight() {
         assertAll(
@@ -748,6 +1189,66 @@ class SequenceTest {
         );
     }
 
+    @Test
+    void parallelReduce() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var threads = ConcurrentHashMap.<Thread>newKeySet();
+            assertAll(
+                () -> assertThat(
+                    Sequences.range(1L, 1_000_000L).parallelReduce(
+                        0L,
+                        (sum, n) -> {
+                            threads.add(Thread.currentThread());
+                            return sum + n;
+                        },
+                        Long::sum,
+                        pool
+                    )
+                ).isEqualTo(500_000_500_000L),
+                () -> assertThat(threads).isNotEmpty().allMatch(thread -> thread instanceof ForkJoinWorkerThread),
+                () -> assertThat(
+                    Sequence.from(new LinkedList<>(List.of(1, 2, 3))).parallelReduce(0, Integer::sum, Integer::sum)
+                ).isEqualTo(6),
+                () -> assertThat(Sequence.<Integer>empty().parallelReduce(0, Integer::sum, Integer::sum)).isEqualTo(0)
+            );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelCollect() {
+        var pool = new ForkJoinPool(4);
+        try {
+            assertAll(
+                () -> assertThat(
+                    Sequences.range(0, 99_999).parallelCollect(Sequences.toSequence(), pool)
+                ).isEqualTo(Sequences.range(0, 99_999)),
+                () -> assertThat(
+                    Sequence.iterate(0, n -> n + 1).take(100_000).parallelCollect(Collectors.toList())
+                ).containsExactlyElementsOf(Sequences.range(0, 99_999)),
+                () -> assertThat(Sequence.of("foo", "bar").parallelCollect(Collectors.joining())).isEqualTo("foobar")
+            );
+            var threads = ConcurrentHashMap.<Thread>newKeySet();
+            var common = Sequences.range(0, 99_999).map(
+                n -> {
+                    threads.add(Thread.currentThread());
+                    return n;
+                }
+            );
+            var collected = pool.submit(() -> common.parallelCollect(Collectors.toList(), ForkJoinPool.commonPool()));
+            assertAll(
+                () -> assertThat(collected.join()).containsExactlyElementsOf(Sequences.range(0, 99_999)),
+                () -> assertThat(threads).isNotEmpty().noneMatch(
+                    thread -> thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool
+                )
+            );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     void sort() {
         var array = new Integer[100_000];
@@ -763,6 +1264,130 @@ class SequenceTest {
         );
     }
 
+    @Test
+    void sortPrefix() {
+        var random = new Random(0);
+        var list = new ArrayList<Integer>();
+        for (var count = 0; count < 10_000; count++) {
+            list.add(random.nextInt(1_000));
+        }
+        var expected = new ArrayList<>(list);
+        expected.sort(Comparator.naturalOrder());
+        var unsized = Sequence.from(list).filter(element -> true);
+        var words = Sequence.of("ccc", "a", "bb", "d", "ee", "f", "ggg", "h");
+        var calls = new int[1];
+        var third = words.sort(word -> { calls[0]++; return word.length(); }).take(3).last().orThrow();
+        assertAll(
+            () -> assertThat(unsized.sort(naturalOrder()).take(100))
+                .containsExactlyElementsOf(expected.subList(0, 100)),
+            () -> assertThat(unsized.sort(naturalOrder()).take(1)).containsExactly(expected.get(0)),
+            () -> assertThat(unsized.sort(naturalOrder()).take(0)).isEmpty(),
+            () -> assertThat(unsized.sort(naturalOrder()).take(20_000)).containsExactlyElementsOf(expected),
+            () -> assertThat(unsized.sort(naturalOrder()).head()).containsExactly(expected.get(0)),
+            () -> assertThat(Sequence.from(list).sort(naturalOrder()).take(50).knownLength()).isEqualTo(50L),
+            () -> assertThat(Sequence.from(list).sort(naturalOrder()).take(50)).hasSize(50),
+            () -> assertThat(Sequence.of(3, 1, 2).sort(naturalOrder()).take(5)).containsExactly(1, 2, 3),
+            () -> assertThat(Sequence.from(list).sort(reverseOrder()).take(10))
+                .containsExactlyElementsOf(Sequence.from(expected).reverse().take(10)),
+            () -> assertThat(words.sort(String::length)).containsExactly("a", "d", "f", "h", "bb", "ee", "ccc", "ggg"),
+            () -> assertThat(words.sort(String::length).take(5)).containsExactly("a", "d", "f", "h", "bb"),
+            () -> assertThat(words.sort(String::length, reverseOrder()).take(3)).containsExactly("ccc", "ggg", "bb"),
+            () -> assertThat(third).isEqualTo("f"),
+            () -> assertThat(calls[0]).isEqualTo(8)
+        );
+    }
+
+    @Test
+    void sortKeyedStable() {
+        var random = new Random(0);
+        var list = new ArrayList<int[]>();
+        for (var index = 0; index < 1_000; index++) {
+            list.add(new int[] {random.nextInt(10), index});
+        }
+        var expected = new ArrayList<>(list);
+        expected.sort(Comparator.comparingInt(pair -> pair[0]));
+        var descending = new ArrayList<>(list);
+        descending.sort(Comparator.<int[]>comparingInt(pair -> pair[0]).reversed());
+        var unsized = Sequence.from(list).filter(pair -> true);
+        assertAll(
+            () -> assertThat(Sequence.from(list).sort(pair -> pair[0])).containsExactlyElementsOf(expected),
+            () -> assertThat(unsized.sort(pair -> pair[0])).containsExactlyElementsOf(expected),
+            () -> assertThat(unsized.sort(pair -> pair[0]).take(150))
+                .containsExactlyElementsOf(expected.subList(0, 150)),
+            () -> assertThat(Sequence.from(list).sort(pair -> pair[0]).take(150))
+                .containsExactlyElementsOf(expected.subList(0, 150)),
+            () -> assertThat(unsized.sort(pair -> pair[0], reverseOrder()).take(150))
+                .containsExactlyElementsOf(descending.subList(0, 150))
+        );
+    }
+
+    @Test
+    void parallelSort() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var array = new Integer[100_000];
+            Arrays.setAll(array, Integer::valueOf);
+            var list = Arrays.asList(array);
+            Collections.shuffle(list, new Random(0));
+            var threads = ConcurrentHashMap.<Thread>newKeySet();
+            var sorted = Sequence.from(list).parallelSort(
+                (left, right) -> {
+                    threads.add(Thread.currentThread());
+                    return Integer.compare(left, right);
+                },
+                pool
+            );
+            var words = Sequence.of("ccc", "a", "bb", "d", "ee", "f");
+            var longs = Sequence.from(list).map(Integer::longValue);
+            assertAll(
+                () -> assertThat(sorted.knownLength()).isEqualTo(100_000L),
+                () -> assertThat(sorted).containsExactlyElementsOf(Sequences.range(0, 99_999)),
+                () -> assertThat(threads).isNotEmpty().allMatch(thread -> thread instanceof ForkJoinWorkerThread),
+                () -> assertThat(Sequences.parallelSort(Sequence.from(list)).take(3)).containsExactly(0, 1, 2),
+                () -> assertThat(words.parallelSort(Comparator.comparing(String::length)))
+                    .containsExactly("a", "d", "f", "bb", "ee", "ccc"),
+                () -> assertThat(Sequences.parallelSortInts(Sequence.from(list), pool))
+                    .containsExactlyElementsOf(Sequences.range(0, 99_999)),
+                () -> assertThat(Sequences.parallelSortLongs(longs, pool))
+                    .containsExactlyElementsOf(Sequences.range(0L, 99_999L)),
+                () -> assertThat(Sequences.parallelSortInts(Sequence.of(3, -1, 2)).knownLength()).isEqualTo(3L),
+                () -> assertThat(Sequences.parallelSortLongs(Sequence.empty())).isEmpty()
+            );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelSortOnce() {
+        var comparisons = new int[1];
+        var sorted = Sequence.of(3, 1, 2).parallelSort(
+            (left, right) -> {
+                comparisons[0]++;
+                return Integer.compare(left, right);
+            }
+        );
+        var reads = new int[1];
+        var source = Sequence.of(3, 1, 2).map(x -> {
+            reads[0]++;
+            return x;
+        });
+        var ints = Sequences.parallelSortInts(source);
+        var longs = Sequences.parallelSortLongs(source.map(Integer::longValue));
+        assertThat(sorted.foldLeft(0, Integer::sum)).isEqualTo(6);
+        var counted = comparisons[0];
+        assertAll(
+            () -> assertThat(sorted).containsExactly(1, 2, 3),
+            () -> assertThat(sorted.foldLeft(0, Integer::sum)).isEqualTo(6),
+            () -> assertThat(comparisons[0]).isEqualTo(counted),
+            () -> assertThat(ints).containsExactly(1, 2, 3),
+            () -> assertThat(ints).containsExactly(1, 2, 3),
+            () -> assertThat(longs).containsExactly(1L, 2L, 3L),
+            () -> assertThat(longs).containsExactly(1L, 2L, 3L),
+            () -> assertThat(reads[0]).isEqualTo(6)
+        );
+    }
+
     @Test
     void reverse() {
         assertAll(
@@ -976,6 +1601,32 @@ class SequenceTest {
         ).containsExactly("one", "three", "four");
     }
 
+    @Test
+    void deduplicateInfinite() {
+        var sequence = Sequences.ints().map(x -> x % 5).deduplicate();
+        assertAll(
+            () -> assertThat(sequence.take(5)).containsExactly(0, 1, 2, 3, 4),
+            () -> assertThat(sequence.take(5)).containsExactly(0, 1, 2, 3, 4),
+            () -> assertThat(sequence.skip(1).head()).containsExactly(1)
+        );
+    }
+
+    @Test
+    void deduplicateMemoized() {
+        var count = new AtomicInteger();
+        var sequence = Sequence.of(1, 2, 1, 3, 2).deduplicate(
+            element -> {
+                count.incrementAndGet();
+                return element;
+            }
+        );
+        assertAll(
+            () -> assertThat(sequence).containsExactly(1, 2, 3),
+            () -> assertThat(sequence).containsExactly(1, 2, 3),
+            () -> assertThat(count).hasValue(5)
+        );
+    }
+
     @Test
     void deduplicateComparator() {
         assertThat(
@@ -1044,6 +1695,107 @@ class SequenceTest {
         );
     }
 
+    @Test
+    void nestedConcatenation() {
+        var left = Sequence.<Integer>empty();
+        var right = Sequence.<Integer>empty();
+        for (var element = 0; element < 100_000; element++) {
+            left = left.concatenate(Sequence.of(element));
+            right = Sequence.of(element).concatenate(right);
+        }
+        var leftNested = left;
+        var rightNested = right;
+        assertAll(
+            () -> assertThat(leftNested.length()).isEqualTo(100_000),
+            () -> assertThat(leftNested.last()).containsExactly(99_999),
+            () -> assertThat(rightNested.head()).containsExactly(99_999),
+            () -> assertThat(rightNested.foldLeft(0L, Long::sum)).isEqualTo(4_999_950_000L),
+            () -> assertThat(
+                Sequences.range(1, 100_000).flatMap(x -> x % 1_000 == 0 ? Sequence.of(x) : Sequence.empty())
+            ).hasSize(100),
+            () -> assertThat(Sequences.range(1, 3).cycle().element(100_000)).containsExactly(2)
+        );
+    }
+
+    @Test
+    void fusedStages() {
+        var calls = new int[3];
+        var sequence = Sequences.range(1, 100).map(x -> {
+            calls[0]++;
+            return x * 3;
+        }).filter(x -> {
+            calls[1]++;
+            return x % 2 == 0;
+        }).map(x -> {
+            calls[2]++;
+            return x + 1;
+        }).takeWhile(x -> x < 100);
+        assertThat(calls).containsExactly(0, 0, 0);
+        assertThat(sequence.element(2).orThrow()).isEqualTo(19);
+        assertThat(calls).containsExactly(6, 6, 3);
+        assertAll(
+            () -> assertThat(sequence).containsExactly(7, 13, 19, 25, 31, 37, 43, 49, 55, 61, 67, 73, 79, 85, 91, 97),
+            () -> assertThat(sequence.filter(x -> x > 50).map(x -> -x).head()).containsExactly(-55),
+            () -> assertThat(Sequences.range(1, 5).map(x -> x / 0).length()).isEqualTo(5),
+            () -> assertThat(Sequences.range(1, 1_000_000).filter(x -> x == 1_000_000)).containsExactly(1_000_000)
+        );
+        var memoized = sequence.memoize();
+        memoized.forEach(x -> {});
+        var counts = calls.clone();
+        memoized.forEach(x -> {});
+        assertThat(calls).containsExactly(counts);
+    }
+
+    @Test
+    void fusedStagesKeepMemoizedTails() {
+        var calls = new int[1];
+        var tail = Sequence.of(1, 2, 3, 4, 5).filter(x -> {
+            calls[0]++;
+            return true;
+        }).tail().orThrow();
+        assertThat(tail).containsExactly(2, 3, 4, 5);
+        assertThat(calls[0]).isEqualTo(5);
+        assertAll(
+            () -> assertThat(tail.map(x -> -x)).containsExactly(-2, -3, -4, -5),
+            () -> assertThat(tail.filter(x -> x % 2 == 0)).containsExactly(2, 4),
+            () -> assertThat(tail.takeWhile(x -> x < 4)).containsExactly(2, 3),
+            () -> assertThat(calls[0]).isEqualTo(5)
+        );
+    }
+
+    @Test
+    void pushTraversal() {
+        var calls = new int[1];
+        var naturals = Sequence.iterate(1, x -> x + 1).map(x -> {
+            calls[0]++;
+            return x;
+        });
+        assertAll(
+            () -> assertThat(naturals.filter(x -> x % 7 == 0).any(x -> x > 100)).isTrue(),
+            () -> assertThat(calls[0]).isEqualTo(105),
+            () -> assertThat(naturals.find(x -> x == 1_000)).containsExactly(1_000),
+            () -> assertThat(naturals.takeWhile(x -> x < 1_000_000).all(x -> x > 0)).isTrue(),
+            () -> assertThat(Sequences.range(1, 100).concatenate(Sequence.of(0)).all(x -> x > 0)).isFalse(),
+            () -> assertThat(Sequence.of(1, 2, 3).concatenate(Sequences.range(4, 6)).foldLeft(0, Integer::sum))
+                .isEqualTo(21),
+            () -> assertThat(Sequence.from(new LinkedList<>(List.of(1, 2, 3))).map(x -> x * 2)).hasToString("[2, 4, 6]")
+        );
+    }
+
+    @Test
+    void pushTraversalKeepsMemoizedTails() {
+        var calls = new int[1];
+        var tail = Sequence.of(1, 2, 3, 4, 5).filter(x -> {
+            calls[0]++;
+            return true;
+        }).tail().orThrow();
+        assertAll(
+            () -> assertThat(tail.foldLeft(0, Integer::sum)).isEqualTo(14),
+            () -> assertThat(tail.foldLeft(0, Integer::sum)).isEqualTo(14),
+            () -> assertThat(calls[0]).isEqualTo(5)
+        );
+    }
+
     @Test
     void flatMap() {
         assertAll(
@@ -1176,6 +1928,16 @@ class SequenceTest {
         assertThat(Sequences.range(5, 0).scanRight(Integer::sum)).containsExactly(15, 10, 6, 3, 1, 0);
     }
 
+    @Test
+    void scanRightEagerOrder() {
+        assertAll(
+            () -> assertThat(Sequence.of(1, 2, 3).scanRight("", (x, y) -> x + y)).containsExactly("123", "23", "3", ""),
+            () -> assertThat(Sequence.of(1, 2, 3).scanRight((x, y) -> x - y)).containsExactly(2, -1, 3),
+            () -> assertThat(Sequence.<Integer>empty().scanRight((x, y) -> x - y)).isEmpty(),
+            () -> assertThat(Sequences.range(1, 100_000).scanRight(0, Integer::sum).last()).containsExactly(0)
+        );
+    }
+
     @Test
     void scanRight() {
         assertAll(
@@ -1548,6 +2310,20 @@ class SequenceTest {
         ).containsExactly(1, 2, 3, 4, 5);
     }
 
+    @Test
+    void sequenceCollectorChunked() {
+        var sequential = IntStream.range(0, 100_000).boxed().collect(Sequences.toSequence());
+        var parallel = IntStream.range(0, 100_000).boxed().parallel().collect(Sequences.toSequence());
+        assertAll(
+            () -> assertThat(sequential).isEqualTo(Sequences.range(0, 99_999)),
+            () -> assertThat(parallel).isEqualTo(Sequences.range(0, 99_999)),
+            () -> assertThat(parallel.length()).isEqualTo(100_000L),
+            () -> assertThat(parallel.foldLeft(0L, (sum, n) -> sum + n)).isEqualTo(4_999_950_000L),
+            () -> assertThat(parallel.memoize()).isSameAs(parallel),
+            () -> assertThat(Stream.<Integer>empty().collect(Sequences.toSequence())).isSameAs(Sequence.empty())
+        );
+    }
+
     @Test
     void sequenceFuture() {
         assertThat(
@@ -20,6 +20,7 @@ import java.util.Optional;
 import static io.github.gdejohn.procrastination.Trampoline.call;
 import static io.github.gdejohn.procrastination.Trampoline.terminate;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class TrampolineTest {
     @Test
@@ -43,4 +44,50 @@ class TrampolineTest {
         );
         assertThat(result).isEqualTo(720);
     }
+
+    @Test
+    void loop() {
+        Optional<Integer> result = Trampoline.loop(
+            Sequences.ints(),
+            (sequence, loop) -> sequence.match(
+                (head, tail) -> head == 100_000 ? loop.done(Optional.of(head)) : loop.recur(tail),
+                () -> loop.done(Optional.empty())
+            )
+        );
+        assertThat(result).hasValue(100_000);
+    }
+
+    @Test
+    void biLoop() {
+        long result = Trampoline.loop(
+            1_000_000,
+            0L,
+            (n, sum, loop) -> n == 0 ? loop.done(sum) : loop.recur(n - 1, sum + n)
+        );
+        assertThat(result).isEqualTo(500_000_500_000L);
+    }
+
+    @Test
+    void loopMustReturnItsFrame() {
+        assertThatThrownBy(() -> Trampoline.<Integer, Integer>loop(0, (n, loop) -> null))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void flatMap() {
+        assertThat(sum(1_000_000).evaluate()).isEqualTo(500_000_500_000L);
+    }
+
+    private static Trampoline<Long> sum(long n) {
+        return n == 0 ? terminate(0L) : call(() -> sum(n - 1)).map(result -> result + n);
+    }
+
+    @Test
+    void flatMapLeftNested() {
+        Trampoline<Integer> trampoline = terminate(0);
+        for (int i = 0; i < 100_000; i++) {
+            trampoline = trampoline.flatMap(n -> terminate(n + 1));
+        }
+        assertThat(trampoline.evaluate()).isEqualTo(100_000);
+    }
 }
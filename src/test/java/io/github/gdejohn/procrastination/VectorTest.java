@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 Griffin DeJohn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.github.gdejohn.procrastination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class VectorTest {
+    private static final int SIZE = 40_000;
+
+    @Test
+    void append() {
+        var vector = Vector.<Integer>empty();
+        for (var element = 0; element < SIZE; element++) {
+            vector = vector.append(element);
+        }
+        var appended = vector;
+        assertAll(
+            () -> assertThat(appended.size()).isEqualTo(SIZE),
+            () -> assertThat(appended.element(0)).containsExactly(0),
+            () -> assertThat(appended.element(1_056)).containsExactly(1_056),
+            () -> assertThat(appended.element(SIZE - 1)).containsExactly(SIZE - 1),
+            () -> assertThat(appended.element(SIZE)).isEmpty(),
+            () -> assertThat(appended.element(-1)).isEmpty(),
+            () -> assertThat(appended).containsExactlyElementsOf(Sequences.range(0, SIZE - 1))
+        );
+    }
+
+    @Test
+    void replace() {
+        var vector = IntStream.range(0, SIZE).boxed().collect(Vector.toVector());
+        var replaced = vector.replace(33, -33).replace(SIZE - 1, -1).update(5_000, x -> -x);
+        assertAll(
+            () -> assertThat(replaced.element(33)).containsExactly(-33),
+            () -> assertThat(replaced.element(SIZE - 1)).containsExactly(-1),
+            () -> assertThat(replaced.element(5_000)).containsExactly(-5_000),
+            () -> assertThat(replaced.element(34)).containsExactly(34),
+            () -> assertThat(vector.element(33)).containsExactly(33),
+            () -> assertThat(vector.element(SIZE - 1)).containsExactly(SIZE - 1),
+            () -> assertThat(vector.element(5_000)).containsExactly(5_000),
+            () -> assertThat(vector.replace(SIZE, 0)).isSameAs(vector)
+        );
+    }
+
+    @Test
+    void removeLast() {
+        var vector = Sequences.range(1, SIZE).vector();
+        var removed = vector;
+        for (var size = SIZE; size > 0; size--) {
+            assertThat(removed.last()).containsExactly(size);
+            removed = removed.removeLast();
+        }
+        var empty = removed;
+        assertAll(
+            () -> assertThat(empty.isEmpty()).isTrue(),
+            () -> assertThat(empty.removeLast()).isSameAs(Vector.empty()),
+            () -> assertThat(vector.size()).isEqualTo(SIZE),
+            () -> assertThat(vector.removeLast().append(0).element(SIZE - 1)).containsExactly(0)
+        );
+    }
+
+    @Test
+    void match() {
+        var vector = Vector.of(1, 2, 3);
+        assertAll(
+            () -> assertThat(vector.match((initial, last) -> initial.size() + last, -1)).isEqualTo(5),
+            () -> assertThat(vector.match((initial, last) -> initial)).containsExactly(Vector.of(1, 2)),
+            () -> assertThat(Vector.<Integer>empty().match((initial, last) -> last, () -> -1)).isEqualTo(-1),
+            () -> assertThat(vector.initial()).containsExactly(Vector.of(1, 2)),
+            () -> assertThat(vector.head()).containsExactly(1)
+        );
+    }
+
+    @Test
+    void concatenate() {
+        var left = Sequences.range(0, 99).vector();
+        var right = Sequences.range(100, SIZE - 1).vector();
+        var vector = left.concatenate(right);
+        assertAll(
+            () -> assertThat(vector).containsExactlyElementsOf(Sequences.range(0, SIZE - 1)),
+            () -> assertThat(left).containsExactlyElementsOf(Sequences.range(0, 99)),
+            () -> assertThat(left.append(-1).element(100)).containsExactly(-1),
+            () -> assertThat(Vector.<Integer>empty().concatenate(right)).isSameAs(right)
+        );
+    }
+
+    @Test
+    void conversions() {
+        var vector = Sequences.range(1, 100).vector();
+        assertAll(
+            () -> assertThat(vector.sequence()).isEqualTo(Sequences.range(1, 100)),
+            () -> assertThat(vector.sequence().element(70)).containsExactly(71),
+            () -> assertThat(vector.sequence().length()).isEqualTo(100),
+            () -> assertThat(Vector.from(vector)).isSameAs(vector),
+            () -> assertThat(Vector.from(List.of(1, 2, 3))).isEqualTo(Vector.of(1, 2, 3)),
+            () -> assertThat(vector.list()).hasSize(100).startsWith(1, 2, 3).endsWith(99, 100),
+            () -> assertThat(vector.stream().parallel().mapToInt(x -> x).sum()).isEqualTo(5_050),
+            () -> assertThat(
+                vector.stream().parallel().collect(Vector.toVector())
+            ).isEqualTo(vector),
+            () -> assertThat(vector.map(x -> x * 2).foldLeft(0, Integer::sum)).isEqualTo(10_100),
+            () -> assertThat(vector.hashCode()).isEqualTo(vector.stream().collect(Collectors.toList()).hashCode()),
+            () -> assertThat(Vector.of(1, 2, 3)).hasToString("[1, 2, 3]")
+        );
+    }
+}